@@ -0,0 +1,353 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.transcurity.hexview.cells.StyleRange;
+import com.github.transcurity.hexview.diff.ByteComparison;
+import com.github.transcurity.hexview.diff.ScrollSynchronizer;
+import com.github.transcurity.hexview.search.SearchHit;
+import com.github.transcurity.hexview.search.SearchListener;
+import com.github.transcurity.hexview.search.SearchTask;
+import com.github.transcurity.hexview.source.ByteSource;
+import com.vaadin.ui.CustomComponent;
+import com.vaadin.ui.HorizontalLayout;
+import com.vaadin.ui.UI;
+
+/**
+ * Displays two versions of binary data side by side, e.g. a patched sample and
+ * its original, and highlights the differing bytes in both views. Both views
+ * display the same offsets in the same rows, so differences are aligned.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The data is compared by a {@link ByteComparison} in the background, which
+ * collects the differing ranges only. The views load their rows lazily as
+ * usual, so even multi-GB inputs are never held in memory. The differences can
+ * be navigated by {@link #nextDifference()} and {@link #previousDifference()}
+ * which scroll both views.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class HexDiffView extends CustomComponent
+{
+    private static final long serialVersionUID = 8842934460290370283L;
+
+    /**
+     * The name of the style layer which highlights differing bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String DIFF_LAYER = "diff";
+
+    /**
+     * The CSS class of differing bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String DIFF_STYLE = "hex-diff";
+
+    /**
+     * Displays the original data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final HexView originalView = new HexView();
+
+    /**
+     * Displays the modified data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final HexView modifiedView = new HexView();
+
+    /**
+     * The comparison of the displayed data or {@code null} if nothing has
+     * been compared, yet. It's running in the background, so it isn't
+     * serialized along with the session.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private transient ByteComparison comparison;
+
+    /**
+     * The offset of the difference which has been navigated to last or
+     * {@code -1}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long position = -1;
+
+    /**
+     * Creates a view which displays no data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public HexDiffView()
+    {
+        final HorizontalLayout layout = new HorizontalLayout(this.originalView, this.modifiedView);
+        layout.setSizeFull();
+        layout.setSpacing(true);
+        this.originalView.setSizeFull();
+        this.modifiedView.setSizeFull();
+        layout.setExpandRatio(this.originalView, 1);
+        layout.setExpandRatio(this.modifiedView, 1);
+        setCompositionRoot(layout);
+        addStyleName("hex-diff-view");
+    }
+
+    /**
+     * @return The view of the original data, e.g. in order to configure its
+     *         format.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public HexView getOriginalView()
+    {
+        return this.originalView;
+    }
+
+    /**
+     * @return The view of the modified data, e.g. in order to configure its
+     *         format.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public HexView getModifiedView()
+    {
+        return this.modifiedView;
+    }
+
+    /**
+     * @return The comparison of the displayed data or {@code null} if nothing
+     *         has been compared, yet, or the session has been deserialized.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteComparison getComparison()
+    {
+        return this.comparison;
+    }
+
+    /**
+     * Displays two versions of data and compares them in the background. The
+     * differences are highlighted by {@link UI#access(Runnable)} as soon as
+     * they are found, so server push or polling has to be enabled for the UI.
+     * Use {@link #highlightDifferences()} for a view which isn't attached,
+     * yet. A running comparison of the previous data is cancelled.
+     *
+     * @param original
+     *            The original data.
+     * @param modified
+     *            The modified data.
+     * @param listener
+     *            Gets notified about differing ranges within the session or
+     *            {@code null}.
+     * @return The running comparison which can be cancelled.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteComparison compare(final ByteSource original,
+            final ByteSource modified, final SearchListener listener)
+    {
+        if (this.comparison != null)
+            this.comparison.cancel();
+
+        this.originalView.setByteSource(original);
+        this.modifiedView.setByteSource(modified);
+        this.originalView.clearCustomStyleRanges(DIFF_LAYER);
+        this.modifiedView.clearCustomStyleRanges(DIFF_LAYER);
+        this.position = -1;
+
+        final DifferenceHighlighter highlighter = new DifferenceHighlighter(listener);
+        this.comparison = highlighter.comparison = new ByteComparison(original, modified, highlighter);
+        this.comparison.start();
+        return this.comparison;
+    }
+
+    /**
+     * Highlights all differences found so far, e.g. of a finished comparison.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void highlightDifferences()
+    {
+        final List<StyleRange> styles = HexView.toStyleRanges(this.comparison != null ? this.comparison.getHits() : new ArrayList<>(), DIFF_STYLE);
+        this.originalView.setCustomStyleRanges(DIFF_LAYER, styles);
+        this.modifiedView.setCustomStyleRanges(DIFF_LAYER, styles);
+    }
+
+    /**
+     * Scrolls both views to the difference following the one navigated to
+     * last.
+     *
+     * @return The next difference or {@code null} if there's none (yet).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SearchHit nextDifference()
+    {
+        return navigate(this.comparison != null ? this.comparison.getNextHit(this.position) : null);
+    }
+
+    /**
+     * Scrolls both views to the difference preceding the one navigated to
+     * last.
+     *
+     * @return The previous difference or {@code null} if there's none.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SearchHit previousDifference()
+    {
+        return navigate(this.comparison != null ? this.comparison.getPreviousHit(this.position) : null);
+    }
+
+    /**
+     * Scrolls both views to a difference and remembers it for the navigation.
+     *
+     * @param difference
+     *            The difference to be shown or {@code null}.
+     * @return The specified difference.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private SearchHit navigate(final SearchHit difference)
+    {
+        if (difference != null)
+            scrollToDifference(difference);
+
+        return difference;
+    }
+
+    /**
+     * Scrolls the rows containing the start of a difference into the middle
+     * of both views.
+     *
+     * @param difference
+     *            The difference to be shown.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void scrollToDifference(final SearchHit difference)
+    {
+        this.position = difference.getOffset();
+        this.originalView.scrollToHit(difference);
+        this.modifiedView.scrollToHit(difference);
+    }
+
+    /**
+     * @return {@code true} if scrolling either view scrolls the other one,
+     *         too.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isScrollSynchronized()
+    {
+        return ScrollSynchronizer.isSynchronized(this.originalView);
+    }
+
+    /**
+     * Specifies whether scrolling either view scrolls the other one, too. The
+     * synchronization takes place in the browser, so it requires the client
+     * side of the hex view within the widgetset of the application, see
+     * {@link ScrollSynchronizer}. The navigation always scrolls both views.
+     *
+     * @param synchronize
+     *            {@code true} in order to synchronize the scroll positions.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setScrollSynchronized(final boolean synchronize)
+    {
+        if (synchronize)
+            ScrollSynchronizer.synchronize(this.originalView, this.modifiedView);
+        else
+            ScrollSynchronizer.unsynchronize(this.originalView);
+    }
+
+    @Override
+    public void detach()
+    {
+        if (this.comparison != null)
+            this.comparison.cancel();
+
+        super.detach();
+    }
+
+    /**
+     * Highlights the differences found by a comparison as long as it's the
+     * current one and passes them on to a listener.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private class DifferenceHighlighter implements SearchListener
+    {
+        private static final long serialVersionUID = -6046427383744386713L;
+
+        /**
+         * Gets notified about differing ranges within the session or
+         * {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final SearchListener listener;
+
+        /**
+         * The comparison whose differences are highlighted or {@code null}
+         * after deserialization.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        transient ByteComparison comparison;
+
+        /**
+         * @param listener
+         *            Gets notified about differing ranges within the session
+         *            or {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        DifferenceHighlighter(final SearchListener listener)
+        {
+            this.listener = listener;
+        }
+
+        @Override
+        public void hitsFound(final List<SearchHit> hits)
+        {
+            access(() ->
+            {
+                final List<StyleRange> styles = HexView.toStyleRanges(hits, DIFF_STYLE);
+                HexDiffView.this.originalView.addCustomStyleRanges(DIFF_LAYER, styles);
+                HexDiffView.this.modifiedView.addCustomStyleRanges(DIFF_LAYER, styles);
+                if (this.listener != null)
+                    this.listener.hitsFound(hits);
+            });
+        }
+
+        @Override
+        public void searchFinished(final SearchTask search)
+        {
+            if (this.listener != null)
+                access(() -> this.listener.searchFinished(search));
+        }
+
+        /**
+         * Runs a command within the session as long as the comparison is the
+         * current one. It's invoked by background threads.
+         *
+         * @param command
+         *            The command to be run.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private void access(final Runnable command)
+        {
+            HexView.accessIf(HexDiffView.this, () -> this.comparison != null && HexDiffView.this.comparison == this.comparison, command);
+        }
+    }
+}
@@ -3,23 +3,74 @@
  */
 package com.github.transcurity.hexview;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
 import com.github.transcurity.hexview.cells.HexCellStyleGenerator;
+import com.github.transcurity.hexview.cells.StyleLayer;
+import com.github.transcurity.hexview.cells.StyleRange;
 import com.github.transcurity.hexview.container.ReadonlyHexContainer;
+import com.github.transcurity.hexview.container.RowCache;
 import com.github.transcurity.hexview.properties.AsciiDumpColumn;
+import com.github.transcurity.hexview.properties.ByteDataItem;
 import com.github.transcurity.hexview.properties.ColumnTypes;
+import com.github.transcurity.hexview.properties.CompactRowColumn;
+import com.github.transcurity.hexview.properties.DataColumn;
+import com.github.transcurity.hexview.properties.DumpEncoding;
+import com.github.transcurity.hexview.properties.Endianness;
 import com.github.transcurity.hexview.properties.OffsetColumn;
+import com.github.transcurity.hexview.properties.OffsetRadix;
+import com.github.transcurity.hexview.properties.RawRowColumn;
+import com.github.transcurity.hexview.properties.RenderMode;
+import com.github.transcurity.hexview.properties.WordFormat;
+import com.github.transcurity.hexview.properties.WordSize;
+import com.github.transcurity.hexview.renderers.RawRowRenderer;
+import com.github.transcurity.hexview.search.BytePattern;
+import com.github.transcurity.hexview.search.ByteSearch;
+import com.github.transcurity.hexview.search.RegexSearch;
+import com.github.transcurity.hexview.search.SearchHit;
+import com.github.transcurity.hexview.search.SearchListener;
+import com.github.transcurity.hexview.search.SearchTask;
+import com.github.transcurity.hexview.search.Signature;
+import com.github.transcurity.hexview.search.SignatureScanner;
+import com.github.transcurity.hexview.source.ByteArraySource;
+import com.github.transcurity.hexview.source.ByteSource;
+import com.github.transcurity.hexview.source.CompressedByteSource;
+import com.github.transcurity.hexview.source.MappedFileSource;
+import com.github.transcurity.hexview.source.StreamingByteSource;
+import com.vaadin.data.RpcDataProviderExtension;
 import com.vaadin.data.util.GeneratedPropertyContainer;
+import com.vaadin.server.Extension;
+import com.vaadin.shared.ui.grid.ScrollDestination;
+import com.vaadin.ui.Component;
 import com.vaadin.ui.Grid;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.renderers.HtmlRenderer;
 
 /**
  * Displays data in a hex view. In order to set content data you can invoke
- * {@link #setBytes(byte[])}, belatedly.
+ * {@link #setBytes(byte[])}, {@link #setByteSource(ByteSource)} or
+ * {@link #setFile(Path)}, belatedly. The latter two only read the bytes of the
+ * rows which are actually displayed.
  * <p>
  * &nbsp;
  * </p>
  * You can attach your own CSS to the cells by invocation of
- * {@link #addCustomStyleRange(int, int, String)} in order to specify CSS class
- * names for a specific cell range.
+ * {@link #addCustomStyleRange(long, long, String)} in order to specify CSS class
+ * names for a specific cell range. Ranges can be grouped in named layers, e.g.
+ * search hits, which can be replaced or hidden as a whole by
+ * {@link #setCustomStyleRanges(String, Collection)} and
+ * {@link #setStyleLayerVisible(String, boolean)}.
  *
  * @author Andreas "PAX" Lück
  */
@@ -28,11 +79,173 @@ public class HexView extends Grid
     private static final long serialVersionUID = -4803785730336516676L;
 
     /**
-     * The bytes data to be displayed.
+     * The name of the style layer which highlights search hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String SEARCH_LAYER = "search";
+
+    /**
+     * The CSS class of bytes which match a search.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String SEARCH_HIT_STYLE = "hex-search-hit";
+
+    /**
+     * The name of the style layer which annotates signature hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String SIGNATURE_LAYER = "signatures";
+
+    /**
+     * The CSS class of rows which summarize a collapsed run of identical rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String RUN_STYLE = "hex-run";
+
+    /**
+     * The source of the bytes data to be displayed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected ByteSource data;
+
+    /**
+     * Whether {@link #data} has been opened by this view and therefore has to
+     * be closed by it as soon as it gets replaced.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private boolean ownsData;
+
+    /**
+     * Provides the rows of the currently displayed data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected ReadonlyHexContainer hexContainer;
+
+    /**
+     * The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private DumpEncoding dumpEncoding = DumpEncoding.ISO_8859_1;
+
+    /**
+     * The number system of the offset column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private OffsetRadix offsetRadix = OffsetRadix.HEXADECIMAL;
+
+    /**
+     * The value added to each offset displayed by the offset column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long baseAddress;
+
+    /**
+     * The number of bytes which have been discarded from the start of a
+     * {@link StreamingByteSource} when the container has been updated last.
+     * The offset column continues counting from it.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long streamDiscarded;
+
+    /**
+     * Whether the view scrolls to the end as soon as bytes are appended.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private boolean autoScroll;
+
+    /**
+     * The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int rowWidth = DataColumn.DEFAULT_ROW_WIDTH;
+
+    /**
+     * The format of the data cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private WordFormat wordFormat = WordFormat.BYTES;
+
+    /**
+     * The maximum number of rendered rows kept by the row cache.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int rowCacheRows = RowCache.DEFAULT_MAX_ROWS;
+
+    /**
+     * The maximum estimated heap usage of the rendered rows kept by the row
+     * cache.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long rowCacheBytes = Long.MAX_VALUE;
+
+    /**
+     * Loads rows in the background or {@code null} if rows are loaded on
+     * request.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private transient Executor loadExecutor;
+
+    /**
+     * The number of rows beyond the displayed ones which are prefetched in
+     * scroll direction.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int prefetchRows;
+
+    /**
+     * Whether runs of identical rows are collapsed into summary rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private boolean collapsingRuns;
+
+    /**
+     * The search whose hits are highlighted in {@link #SEARCH_LAYER} or
+     * {@code null} if nothing has been searched, yet.
      *
      * @author Andreas "PAX" Lück
      */
-    protected byte[] data;
+    private transient SearchTask currentSearch;
+
+    /**
+     * The signature scan whose hits are annotated in {@link #SIGNATURE_LAYER}
+     * or {@code null} if no scan is running.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private transient SignatureScanner currentScan;
+
+    /**
+     * Whether rows are rendered as separate cells or as a single cell.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private RenderMode renderMode = RenderMode.COLUMNS;
+
+    /**
+     * Transfers the raw rows to the browser in {@link RenderMode#CLIENT}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final RawRowRenderer rawRowRenderer = new RawRowRenderer();
 
     /**
      * Responsible for the active CSS in the single table cells.
@@ -76,7 +289,9 @@ public class HexView extends Grid
         addStyleName("hex-grid");
         initColumnHeaders();
         initCellStyleGenerator();
+        initRowStyleGenerator();
         initSelectionMode();
+        initRunToggle();
         setBytes(data);
     }
 
@@ -87,7 +302,7 @@ public class HexView extends Grid
      */
     protected void initColumnHeaders()
     {
-        for (final ColumnTypes column : ColumnTypes.ALL_COLUMN_IDS)
+        for (final Object column : ColumnTypes.getColumnIds(this.rowWidth))
             addColumnProperty(column, String.class, null);
     }
 
@@ -102,6 +317,39 @@ public class HexView extends Grid
         setCellStyleGenerator(this.cellStyleGenerator = new HexCellStyleGenerator());
     }
 
+    /**
+     * Initializes the row style generator which marks the summary rows of
+     * collapsed runs by {@link #RUN_STYLE}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected void initRowStyleGenerator()
+    {
+        setRowStyleGenerator(row ->
+        {
+            if (!this.collapsingRuns)
+                return null;
+
+            final ByteDataItem item = this.hexContainer.getItem(row.getItemId());
+            return item != null && item.isSummary() ? RUN_STYLE : null;
+        });
+    }
+
+    /**
+     * Initializes the toggling of runs of identical rows by double-clicking
+     * one of their rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected void initRunToggle()
+    {
+        addItemClickListener(event ->
+        {
+            if (event.isDoubleClick() && this.collapsingRuns)
+                toggleRun(event.getItemId());
+        });
+    }
+
     /**
      * Initializes the cell selection mode for the grid.
      *
@@ -123,37 +371,1354 @@ public class HexView extends Grid
      */
     public void setBytes(final byte[] bytes)
     {
-        this.data = bytes != null ? bytes : new byte[0];
+        setByteSource(new ByteArraySource(bytes));
+    }
 
-        final GeneratedPropertyContainer container = new GeneratedPropertyContainer(new ReadonlyHexContainer(this.data));
-        container.addGeneratedProperty(ColumnTypes.OFFSET, new OffsetColumn(this.data));
-        container.addGeneratedProperty(ColumnTypes.ASCII, new AsciiDumpColumn(this.data));
+    /**
+     * Specifies the source of the data to be displayed by the view. Only the
+     * bytes of rows requested by the grid are read from it.
+     *
+     * @param source
+     *            The source of the bytes data to be displayed. A value of
+     *            {@code null} would be interpreted as empty source.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setByteSource(final ByteSource source)
+    {
+        cancelSearch();
+        cancelSignatureScan();
+        disposeContainer();
+        closeOwnedData();
+        this.data = source != null ? source : new ByteArraySource(null);
+        this.streamDiscarded = getStreamDiscarded();
+        initContainer();
+    }
 
-        setContainerDataSource(container);
-        setFrozenColumnCount(1);
+    /**
+     * Appends bytes to the displayed {@link StreamingByteSource}, see
+     * {@link #dataAppended()}.
+     *
+     * @param bytes
+     *            The bytes to be appended.
+     * @throws IllegalStateException
+     *             If the displayed source isn't a {@link StreamingByteSource}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void appendBytes(final byte[] bytes)
+    {
+        appendBytes(bytes, 0, bytes.length);
     }
 
     /**
-     * Adds custom CSS classes to be applied to specific cell ranges within the
-     * table.
+     * Appends bytes to the displayed {@link StreamingByteSource}, see
+     * {@link #dataAppended()}.
      *
+     * @param bytes
+     *            Contains the bytes to be appended.
      * @param offset
-     *            The start offset of the range where following condition is
-     *            valid: <span style=
-     *            "white-space:nowrap">{@code 0 <= offset < length}</span>
+     *            The index within {@code bytes} of the first byte to be
+     *            appended.
      * @param length
-     *            The number of bytes occupied by this range.
-     * @param cssClasses
-     *            The name of CSS classes (separated by a blank) to be applied
-     *            to this cell range, e.g.:
-     *            {@code importantSection boldFont highlighted}
+     *            The number of bytes to be appended.
+     * @throws IllegalStateException
+     *             If the displayed source isn't a {@link StreamingByteSource}.
      *
      * @author Andreas "PAX" Lück
      */
-    public void addCustomStyleRange(final int offset, final int length,
-            final String cssClasses)
+    public void appendBytes(final byte[] bytes, final int offset,
+            final int length)
     {
-        this.cellStyleGenerator.addCustomStyleRange(offset, length, cssClasses);
+        if (!(this.data instanceof StreamingByteSource))
+            throw new IllegalStateException("Bytes can only be appended to a StreamingByteSource");
+
+        ((StreamingByteSource) this.data).append(bytes, offset, length);
+        dataAppended();
+    }
+
+    /**
+     * Displays the bytes which have been appended to the displayed source.
+     * Unlike {@link #setByteSource(ByteSource)} the container and the columns
+     * are kept and only the new rows and the previously partial last row are
+     * sent to the browser. If bytes have been discarded from the start of a
+     * {@link StreamingByteSource}, all rows are refreshed and the offset
+     * column continues counting from the discarded bytes. Style ranges refer
+     * to positions within the retained bytes.
+     * <p>
+     * &nbsp;
+     * </p>
+     * Threads which append to the source directly have to invoke this method
+     * by {@link UI#access(Runnable)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void dataAppended()
+    {
+        final long discarded = getStreamDiscarded();
+        if (discarded != this.streamDiscarded)
+        {
+            this.streamDiscarded = discarded;
+            this.hexContainer.setOffsetFormat(this.offsetRadix, this.baseAddress + discarded);
+            this.hexContainer.dataChanged();
+        }
+        else
+        {
+            final long oldLength = this.hexContainer.getLength();
+            this.hexContainer.dataAppended();
+            if (oldLength % this.rowWidth != 0)
+                updateActiveRows(this.hexContainer, Collections.singletonList(oldLength / this.rowWidth * this.rowWidth));
+        }
+
+        if (this.autoScroll)
+            scrollToEnd();
+    }
+
+    /**
+     * @return The number of bytes which have been discarded from the start of
+     *         the displayed source if it's a {@link StreamingByteSource}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long getStreamDiscarded()
+    {
+        return this.data instanceof StreamingByteSource
+                ? ((StreamingByteSource) this.data).getDiscarded() : 0;
+    }
+
+    /**
+     * @return {@code true} if the view scrolls to the end as soon as bytes are
+     *         appended.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isAutoScroll()
+    {
+        return this.autoScroll;
+    }
+
+    /**
+     * Specifies whether the view follows appended bytes like {@code tail -f},
+     * see {@link #dataAppended()}.
+     *
+     * @param autoScroll
+     *            {@code true} in order to scroll to the end as soon as bytes
+     *            are appended.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setAutoScroll(final boolean autoScroll)
+    {
+        this.autoScroll = autoScroll;
+    }
+
+    /**
+     * Stops the background work of the current container, if any, before it
+     * gets replaced or its source gets closed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void disposeContainer()
+    {
+        if (this.hexContainer != null)
+            this.hexContainer.dispose();
+    }
+
+    /**
+     * Creates the container which provides the rows of {@link #data} with the
+     * current row width and shows it. The previous container is disposed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void initContainer()
+    {
+        disposeContainer();
+        this.hexContainer = new ReadonlyHexContainer(this.data, this.rowWidth);
+        this.hexContainer.setDumpEncoding(this.dumpEncoding);
+        this.hexContainer.setOffsetFormat(this.offsetRadix, this.baseAddress + this.streamDiscarded);
+        this.hexContainer.setWordFormat(this.wordFormat);
+        this.hexContainer.getRowCache().setLimits(this.rowCacheRows, this.rowCacheBytes);
+        this.hexContainer.setPrefetchRows(this.prefetchRows);
+        applyAsyncLoading();
+        applyRunCollapsing();
+
+        final GeneratedPropertyContainer container = new GeneratedPropertyContainer(this.hexContainer);
+        container.addGeneratedProperty(ColumnTypes.OFFSET, new OffsetColumn(this.data, this.rowWidth));
+        container.addGeneratedProperty(ColumnTypes.ASCII, new AsciiDumpColumn(this.data, this.rowWidth));
+        container.addGeneratedProperty(ColumnTypes.ROW, new CompactRowColumn(this.data, this.cellStyleGenerator));
+        container.addGeneratedProperty(ColumnTypes.RAW_ROW, new RawRowColumn(this.data, this.cellStyleGenerator));
+
+        // the grid rejects containers lacking the properties of its columns
+        for (final Column column : new ArrayList<>(getColumns()))
+            if (!container.getContainerPropertyIds().contains(column.getPropertyId()))
+                removeColumn(column.getPropertyId());
+
+        setContainerDataSource(container);
+        applyRenderMode();
+    }
+
+    /**
+     * @return The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getRowWidth()
+    {
+        return this.rowWidth;
+    }
+
+    /**
+     * Specifies the number of bytes per row, e.g. 8 for narrow or 32 for wide
+     * screens. The data columns are recreated accordingly, custom styles are
+     * kept.
+     *
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @throws IllegalArgumentException
+     *             If the row width is not within
+     *             <span style="white-space:nowrap">{@code [1, DataColumn.MAX_ROW_WIDTH]}</span>
+     *             or not a multiple of the word size.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setRowWidth(final int rowWidth)
+    {
+        if (this.wordFormat.checkRowWidth(DataColumn.checkRowWidth(rowWidth)) == this.rowWidth)
+            return;
+
+        this.rowWidth = rowWidth;
+        this.cellStyleGenerator.setRowWidth(rowWidth);
+        this.rawRowRenderer.setRowWidth(rowWidth);
+        initContainer();
+    }
+
+    /**
+     * @return The cache of the rendered rows of the current data. Its
+     *         statistics tell how often rows had to be rendered.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RowCache getRowCache()
+    {
+        return this.hexContainer.getRowCache();
+    }
+
+    /**
+     * Limits the rendered rows which are kept in order to serve scrolling
+     * back and forth without reading and formatting them again. The limits
+     * are kept when other data is specified.
+     *
+     * @param maxRows
+     *            The maximum number of cached rows.
+     * @param maxBytes
+     *            The maximum estimated heap usage of all cached rows.
+     * @throws IllegalArgumentException
+     *             If a limit is not positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setRowCacheLimits(final int maxRows, final long maxBytes)
+    {
+        this.hexContainer.getRowCache().setLimits(maxRows, maxBytes);
+        this.rowCacheRows = maxRows;
+        this.rowCacheBytes = maxBytes;
+    }
+
+    /**
+     * @return {@code true} if rows are loaded in the background.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isAsyncLoading()
+    {
+        return this.loadExecutor != null;
+    }
+
+    /**
+     * Specifies whether rows are loaded in the background by a shared
+     * executor, see {@link #setAsyncLoading(Executor)}.
+     *
+     * @param asyncLoading
+     *            {@code true} in order to load rows in the background.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setAsyncLoading(final boolean asyncLoading)
+    {
+        setAsyncLoading(asyncLoading ? ReadonlyHexContainer.getDefaultLoadExecutor()
+                : null);
+    }
+
+    /**
+     * Specifies an executor which loads and renders rows in the background,
+     * e.g. for slow sources like compressed or network files. Rows which
+     * aren't loaded yet are displayed as placeholders with their offset only
+     * and get pushed to the browser by {@link UI#access(Runnable)} as soon as
+     * a block of rows is available. This requires server push or polling to
+     * be enabled for the UI.
+     *
+     * @param executor
+     *            Loads the rows in the background. A value of {@code null}
+     *            loads rows on request again.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setAsyncLoading(final Executor executor)
+    {
+        this.loadExecutor = executor;
+        applyAsyncLoading();
+    }
+
+    /**
+     * @return The number of rows beyond the displayed ones which are
+     *         prefetched in scroll direction.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getPrefetchRows()
+    {
+        return this.prefetchRows;
+    }
+
+    /**
+     * Specifies how many rows beyond the displayed ones are loaded and
+     * rendered in the background while scrolling, so they are already cached
+     * when the user reaches them. The row cache should be large enough for
+     * the displayed and the prefetched rows.
+     *
+     * @param prefetchRows
+     *            The number of rows to be prefetched or {@code 0} in order to
+     *            disable prefetching.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setPrefetchRows(final int prefetchRows)
+    {
+        this.prefetchRows = Math.max(prefetchRows, 0);
+        this.hexContainer.setPrefetchRows(this.prefetchRows);
+    }
+
+    /**
+     * @return {@code true} if runs of identical rows are collapsed into
+     *         summary rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isCollapsingRuns()
+    {
+        return this.collapsingRuns;
+    }
+
+    /**
+     * Specifies whether runs of at least
+     * {@link ReadonlyHexContainer#DEFAULT_MIN_RUN_ROWS} identical rows, e.g.
+     * zero-filled regions of memory dumps, are collapsed into a single summary
+     * row like the star lines of {@code hexdump}. Summary rows display the
+     * first row of their run followed by the number of rows and carry the CSS
+     * class {@link #RUN_STYLE}. Double-clicking a row expands or collapses its
+     * run.
+     * <p>
+     * &nbsp;
+     * </p>
+     * The rows are indexed in the background by the executor of the
+     * asynchronous loading or the default load executor. Found runs are
+     * collapsed incrementally by {@link UI#access(Runnable)}, so server push
+     * or polling has to be enabled for the UI.
+     *
+     * @param collapsingRuns
+     *            {@code true} in order to collapse runs of identical rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setCollapsingRuns(final boolean collapsingRuns)
+    {
+        this.collapsingRuns = collapsingRuns;
+        applyRunCollapsing();
+    }
+
+    /**
+     * Expands a collapsed run of identical rows or collapses an expanded one.
+     *
+     * @param itemId
+     *            The ID of any row of the run.
+     * @return {@code true} if the row belongs to a run at all.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean toggleRun(final Object itemId)
+    {
+        return this.hexContainer.setRunExpanded(itemId, !this.hexContainer.isRunExpanded(itemId));
+    }
+
+    /**
+     * Configures the collapsing of runs of the current container.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void applyRunCollapsing()
+    {
+        final ReadonlyHexContainer container = this.hexContainer;
+        if (this.collapsingRuns)
+            container.setRunCollapsing(ReadonlyHexContainer.DEFAULT_MIN_RUN_ROWS, this.loadExecutor, indexed -> applyIndexedRuns(container));
+        else if (container.isRunCollapsing())
+            container.setRunCollapsing(0, null, null);
+    }
+
+    /**
+     * Collapses the runs which have been found in the background. It's
+     * invoked by the indexing thread.
+     *
+     * @param container
+     *            The container which has indexed the runs. Nothing is
+     *            collapsed if it isn't displayed anymore.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void applyIndexedRuns(final ReadonlyHexContainer container)
+    {
+        accessIf(this, () -> container == this.hexContainer, container::applyIndexedRuns);
+    }
+
+    /**
+     * Runs a command within the session of a component as long as a
+     * condition still holds as soon as the session is locked, e.g. whether
+     * the background task which invokes it is still the current one. Nothing
+     * is run if the component isn't attached.
+     *
+     * @param component
+     *            The component whose session has to be locked.
+     * @param condition
+     *            Checked within the session before the command is run.
+     * @param command
+     *            The command to be run.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static void accessIf(final Component component,
+            final BooleanSupplier condition, final Runnable command)
+    {
+        final UI ui = component.getUI();
+        if (ui != null)
+            ui.access(() ->
+            {
+                if (condition.getAsBoolean())
+                    command.run();
+            });
+    }
+
+    @Override
+    public void attach()
+    {
+        super.attach();
+        // runs found while the view was detached haven't been applied
+        if (this.collapsingRuns)
+            this.hexContainer.applyIndexedRuns();
+    }
+
+    @Override
+    public void detach()
+    {
+        cancelSearch();
+        cancelSignatureScan();
+        super.detach();
+    }
+
+    /**
+     * Configures the asynchronous loading of the current container.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void applyAsyncLoading()
+    {
+        final ReadonlyHexContainer container = this.hexContainer;
+        container.setAsyncLoading(this.loadExecutor, this.loadExecutor != null
+                ? itemIds -> pushLoadedRows(container, itemIds) : null);
+    }
+
+    /**
+     * Sends rows which have been loaded in the background to the browser in a
+     * single batch, if they are still cached by the client. It's invoked by
+     * the loading thread.
+     *
+     * @param container
+     *            The container which has loaded the rows.
+     * @param itemIds
+     *            The IDs of the loaded rows in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void pushLoadedRows(final ReadonlyHexContainer container,
+            final List<Long> itemIds)
+    {
+        final UI ui = getUI();
+        if (ui == null || itemIds.isEmpty())
+            return;
+
+        ui.access(() -> updateActiveRows(container, itemIds));
+    }
+
+    /**
+     * Resends those of the specified rows which are cached by the client.
+     *
+     * @param container
+     *            The container which provides the rows. Nothing is sent if it
+     *            isn't displayed anymore.
+     * @param itemIds
+     *            The IDs of the changed rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void updateActiveRows(final ReadonlyHexContainer container,
+            final List<Long> itemIds)
+    {
+        final List<Long> activeItemIds = container.getActiveItemIds();
+        if (container != this.hexContainer || activeItemIds.isEmpty())
+            return;
+
+        final long activeStart = activeItemIds.get(0);
+        final long activeEnd = activeItemIds.get(activeItemIds.size() - 1);
+        for (final Extension extension : getExtensions())
+            if (extension instanceof RpcDataProviderExtension)
+                for (final Long itemId : itemIds)
+                    if (itemId >= activeStart && itemId <= activeEnd)
+                        ((RpcDataProviderExtension) extension).updateRowData(itemId);
+    }
+
+    /**
+     * @return The number of bytes displayed by each data cell.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public WordSize getWordSize()
+    {
+        return this.wordFormat.getWordSize();
+    }
+
+    /**
+     * @return The order in which the bytes of a word are displayed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Endianness getEndianness()
+    {
+        return this.wordFormat.getEndianness();
+    }
+
+    /**
+     * Specifies how many bytes are grouped to a word and displayed by a
+     * single data cell, e.g. {@link WordSize#DWORD} and
+     * {@link Endianness#LITTLE_ENDIAN} in order to read 32 bit values of an
+     * x86 memory dump. The data columns are recreated accordingly, custom
+     * styles are kept.
+     *
+     * @param wordSize
+     *            The number of bytes displayed by each data cell. A value of
+     *            {@code null} would be interpreted as {@link WordSize#BYTE}.
+     * @param endianness
+     *            The order in which the bytes of a word are displayed. A value
+     *            of {@code null} would be interpreted as
+     *            {@link Endianness#BIG_ENDIAN}.
+     * @throws IllegalArgumentException
+     *             If the row width is not a multiple of the word size.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setWordFormat(final WordSize wordSize,
+            final Endianness endianness)
+    {
+        final WordFormat format = new WordFormat(wordSize != null ? wordSize : WordSize.BYTE,
+                endianness != null ? endianness : Endianness.BIG_ENDIAN);
+        format.checkRowWidth(this.rowWidth);
+
+        this.wordFormat = format;
+        this.cellStyleGenerator.setWordSize(format.getWordSize());
+        this.rawRowRenderer.setWordFormat(format);
+        initContainer();
+    }
+
+    /**
+     * @return Whether rows are rendered as separate cells or as a single cell.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RenderMode getRenderMode()
+    {
+        return this.renderMode;
+    }
+
+    /**
+     * Specifies whether rows are rendered as separate cells or as a single
+     * cell. {@link RenderMode#COMPACT} and {@link RenderMode#CLIENT} are
+     * considerably faster for large data but the single bytes can't be
+     * addressed by CSS rules for grid cells. Custom styles are applied in all
+     * modes.
+     *
+     * @param renderMode
+     *            The way rows are rendered. A value of {@code null} would be
+     *            interpreted as {@link RenderMode#COLUMNS}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setRenderMode(final RenderMode renderMode)
+    {
+        this.renderMode = renderMode != null ? renderMode : RenderMode.COLUMNS;
+        applyRenderMode();
+    }
+
+    /**
+     * Shows the columns required by the current render mode.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void applyRenderMode()
+    {
+        if (this.renderMode == RenderMode.COMPACT)
+        {
+            setFrozenColumnCount(0);
+            setColumns(ColumnTypes.ROW);
+            getColumn(ColumnTypes.ROW).setRenderer(new HtmlRenderer());
+        }
+        else if (this.renderMode == RenderMode.CLIENT)
+        {
+            setFrozenColumnCount(0);
+            setColumns(ColumnTypes.RAW_ROW);
+            if (getColumn(ColumnTypes.RAW_ROW).getRenderer() != this.rawRowRenderer)
+                getColumn(ColumnTypes.RAW_ROW).setRenderer(this.rawRowRenderer);
+        }
+        else
+        {
+            setColumns(ColumnTypes.getColumnIds(this.rowWidth, this.wordFormat).toArray());
+            setFrozenColumnCount(1);
+            for (final DataColumn column : this.wordFormat.getColumns(this.rowWidth))
+                getColumn(column).setHeaderCaption(column.getId());
+        }
+    }
+
+    /**
+     * @return The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public DumpEncoding getDumpEncoding()
+    {
+        return this.dumpEncoding;
+    }
+
+    /**
+     * Specifies the code page which is used by the ASCII column in order to
+     * display the bytes as text, e.g. {@link DumpEncoding#EBCDIC} for mainframe
+     * data.
+     *
+     * @param dumpEncoding
+     *            The code page of the ASCII column. A value of {@code null}
+     *            would be interpreted as {@link DumpEncoding#ISO_8859_1}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setDumpEncoding(final DumpEncoding dumpEncoding)
+    {
+        this.dumpEncoding = dumpEncoding != null ? dumpEncoding
+                : DumpEncoding.ISO_8859_1;
+        this.hexContainer.setDumpEncoding(this.dumpEncoding);
+        this.rawRowRenderer.setDumpEncoding(this.dumpEncoding);
+        refreshAllRows();
+    }
+
+    /**
+     * @return The number system of the offset column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public OffsetRadix getOffsetRadix()
+    {
+        return this.offsetRadix;
+    }
+
+    /**
+     * Specifies the number system of the offset column.
+     *
+     * @param offsetRadix
+     *            The number system of the offset column. A value of
+     *            {@code null} would be interpreted as
+     *            {@link OffsetRadix#HEXADECIMAL}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setOffsetRadix(final OffsetRadix offsetRadix)
+    {
+        this.offsetRadix = offsetRadix != null ? offsetRadix
+                : OffsetRadix.HEXADECIMAL;
+        this.hexContainer.setOffsetFormat(this.offsetRadix, this.baseAddress + this.streamDiscarded);
+        refreshAllRows();
+    }
+
+    /**
+     * @return The value added to each offset displayed by the offset column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getBaseAddress()
+    {
+        return this.baseAddress;
+    }
+
+    /**
+     * Specifies a value to be added to each offset displayed by the offset
+     * column, e.g. the virtual address of a PE section in order to display
+     * addresses instead of file offsets. Item IDs and style ranges still
+     * refer to offsets within the data.
+     *
+     * @param baseAddress
+     *            The value added to each displayed offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setBaseAddress(final long baseAddress)
+    {
+        this.baseAddress = baseAddress;
+        this.hexContainer.setOffsetFormat(this.offsetRadix, this.baseAddress + this.streamDiscarded);
+        refreshAllRows();
+    }
+
+    /**
+     * Resends all rows which are currently cached by the client, e.g. after
+     * their rendering has changed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected void refreshAllRows()
+    {
+        for (final Extension extension : getExtensions())
+            if (extension instanceof RpcDataProviderExtension)
+                ((RpcDataProviderExtension) extension).refreshCache();
+    }
+
+    /**
+     * Resends those rows cached by the client which overlap at least one of
+     * the specified byte ranges, e.g. after their styles have changed. Each
+     * affected row is only sent once, no matter how many ranges overlap it.
+     *
+     * @param ranges
+     *            The byte ranges whose rows have to be refreshed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected void refreshRows(final Collection<StyleRange> ranges)
+    {
+        final List<Long> activeItemIds = this.hexContainer.getActiveItemIds();
+        if (ranges.isEmpty() || activeItemIds.isEmpty())
+            return;
+
+        // collapsed runs may hide rows between the active ones
+        final long activeStart = activeItemIds.get(0);
+        final long activeEnd = Math.min(activeItemIds.get(activeItemIds.size() - 1) + this.rowWidth, this.hexContainer.getLength());
+        final BitSet affectedRows = new BitSet(activeItemIds.size());
+        for (final StyleRange range : ranges)
+        {
+            final long start = Math.max(range.getOffset(), activeStart);
+            final long end = Math.min(range.getOffset() + range.getLength(), activeEnd);
+            if (start < end)
+                affectedRows.set(activeItemIds.indexOf(this.hexContainer.getDisplayedRowId(start)),
+                        activeItemIds.indexOf(this.hexContainer.getDisplayedRowId(end - 1)) + 1);
+        }
+
+        for (final Extension extension : getExtensions())
+            if (extension instanceof RpcDataProviderExtension)
+                for (int row = affectedRows.nextSetBit(0); row >= 0; row = affectedRows.nextSetBit(row + 1))
+                    ((RpcDataProviderExtension) extension).updateRowData(activeItemIds.get(row));
+    }
+
+    /**
+     * Specifies a file whose content has to be displayed by the view. The file
+     * gets memory-mapped in segments, so even multi-gigabyte files neither
+     * need to fit into the heap nor are copied. It remains open until other
+     * data is specified for the view.
+     *
+     * @param file
+     *            The file to be displayed.
+     * @throws IOException
+     *             If the file cannot be opened.
+     * @see MappedFileSource
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setFile(final Path file) throws IOException
+    {
+        setByteSource(new MappedFileSource(file));
+        this.ownsData = true;
+    }
+
+    /**
+     * Specifies a GZIP file whose decompressed content has to be displayed by
+     * the view. The file is decompressed once in order to index it, but only
+     * the blocks of requested rows are kept decompressed. The index remains
+     * until other data is specified for the view.
+     * <p>
+     * &nbsp;
+     * </p>
+     * The file is indexed completely before this method returns, which blocks
+     * the calling request for large files. These are better indexed by a
+     * {@link CompressedByteSource} created in the background and displayed by
+     * {@link #setByteSource(ByteSource)} within {@link UI#access(Runnable)},
+     * which leaves closing the source to the caller.
+     *
+     * @param file
+     *            The GZIP file to be displayed.
+     * @throws IOException
+     *             If the file cannot be read or decompressed.
+     * @see CompressedByteSource
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setCompressedFile(final Path file) throws IOException
+    {
+        setByteSource(new CompressedByteSource(file));
+        this.ownsData = true;
+    }
+
+    /**
+     * Searches the displayed data for a pattern in the background and
+     * highlights the hits in {@link #SEARCH_LAYER} as soon as they are found.
+     * Previous hits are removed and a running search is cancelled, so its
+     * hits aren't highlighted anymore. The hits are highlighted and passed
+     * to the listener by {@link UI#access(Runnable)}, so server push or
+     * polling has to be enabled for the UI. Use
+     * {@link #highlightSearchHits(Collection)} for a view which isn't
+     * attached, yet.
+     *
+     * @param pattern
+     *            The pattern to be found, e.g. {@link BytePattern#fromHex(String)}.
+     * @param listener
+     *            Gets notified about hits within the session or {@code null}.
+     * @return The running search which can be cancelled and provides the hits
+     *         for navigation, see {@link #scrollToHit(SearchHit)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteSearch search(final BytePattern pattern,
+            final SearchListener listener)
+    {
+        final HitHighlighter highlighter = new HitHighlighter(listener);
+        return startSearch(new ByteSearch(this.data, pattern, highlighter), highlighter);
+    }
+
+    /**
+     * Searches the text displayed by the dump column for a regular expression
+     * in the background and highlights the hits in {@link #SEARCH_LAYER} like
+     * {@link #search(BytePattern, SearchListener)}. The text is decoded by the
+     * current {@link #getDumpEncoding() dump encoding}.
+     *
+     * @param regex
+     *            The expression to be found, e.g. {@code https?://\S+}.
+     * @param listener
+     *            Gets notified about hits within the session or {@code null}.
+     * @return The running search which can be cancelled and provides the hits
+     *         for navigation, see {@link #scrollToHit(SearchHit)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RegexSearch searchText(final Pattern regex,
+            final SearchListener listener)
+    {
+        final HitHighlighter highlighter = new HitHighlighter(listener);
+        return startSearch(new RegexSearch(this.data, regex, this.dumpEncoding, highlighter), highlighter);
+    }
+
+    /**
+     * Replaces the current search by a new one and starts it. The running
+     * search is cancelled and its hits are removed.
+     *
+     * @param search
+     *            The search to be started.
+     * @param highlighter
+     *            Highlights the hits of the search.
+     * @return The started search.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private <T extends SearchTask> T startSearch(final T search,
+            final HitHighlighter highlighter)
+    {
+        cancelSearch();
+        clearCustomStyleRanges(SEARCH_LAYER);
+        this.currentSearch = highlighter.search = search;
+        search.start();
+        return search;
+    }
+
+    /**
+     * Cancels the search started by
+     * {@link #search(BytePattern, SearchListener)} or
+     * {@link #searchText(Pattern, SearchListener)}, if any. Hits which have
+     * already been highlighted are kept, further hits are ignored.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void cancelSearch()
+    {
+        if (this.currentSearch != null)
+            this.currentSearch.cancel();
+
+        this.currentSearch = null;
+    }
+
+    /**
+     * Highlights the hits of a search as long as it's the current one and
+     * passes them on to a listener.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private class HitHighlighter implements SearchListener
+    {
+        private static final long serialVersionUID = -1201946468296207093L;
+
+        /**
+         * Gets notified about hits within the session or {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final SearchListener listener;
+
+        /**
+         * The search whose hits are highlighted.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        transient SearchTask search;
+
+        /**
+         * @param listener
+         *            Gets notified about hits within the session or
+         *            {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        HitHighlighter(final SearchListener listener)
+        {
+            this.listener = listener;
+        }
+
+        @Override
+        public void hitsFound(final List<SearchHit> hits)
+        {
+            access(() ->
+            {
+                addCustomStyleRanges(SEARCH_LAYER, toStyleRanges(hits, SEARCH_HIT_STYLE));
+                if (this.listener != null)
+                    this.listener.hitsFound(hits);
+            });
+        }
+
+        @Override
+        public void searchFinished(final SearchTask search)
+        {
+            if (this.listener != null)
+                access(() -> this.listener.searchFinished(search));
+        }
+
+        /**
+         * Runs a command within the session as long as the search is the
+         * current one. It's invoked by background threads.
+         *
+         * @param command
+         *            The command to be run.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private void access(final Runnable command)
+        {
+            accessIf(HexView.this, () -> HexView.this.currentSearch == this.search, command);
+        }
+    }
+
+    /**
+     * @param hits
+     *            The hits to be highlighted, e.g. search hits or differences.
+     * @param cssClasses
+     *            The CSS classes of the highlighted bytes.
+     * @return Style ranges which highlight the hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static List<StyleRange> toStyleRanges(final Collection<SearchHit> hits,
+            final String cssClasses)
+    {
+        final List<StyleRange> result = new ArrayList<>(hits.size());
+        for (final SearchHit hit : hits)
+            result.add(hit.toStyleRange(cssClasses));
+
+        return result;
+    }
+
+    /**
+     * Replaces the highlighted search hits, e.g. by the hits of a finished
+     * search.
+     *
+     * @param hits
+     *            The search hits to be highlighted.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void highlightSearchHits(final Collection<SearchHit> hits)
+    {
+        setCustomStyleRanges(SEARCH_LAYER, toStyleRanges(hits, SEARCH_HIT_STYLE));
+    }
+
+    /**
+     * Scrolls the row containing the start of a search hit into the middle of
+     * the view. A collapsed run containing the row gets expanded.
+     *
+     * @param hit
+     *            The hit to be shown, e.g. {@link SearchTask#getNextHit(long)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void scrollToHit(final SearchHit hit)
+    {
+        final long rowId = hit.getOffset() / this.rowWidth * this.rowWidth;
+        this.hexContainer.setRunExpanded(rowId, true);
+        if (this.hexContainer.indexOfId(rowId) >= 0)
+            scrollTo(rowId, ScrollDestination.MIDDLE);
+    }
+
+    /**
+     * Scans the displayed data for any number of signatures within a single
+     * pass in the background. As soon as the scan has finished, all hits are
+     * annotated at once in {@link #SIGNATURE_LAYER} by the CSS classes of their
+     * signatures, replacing the annotations of a previous scan. A running scan
+     * is cancelled, as well as by new data or detaching the view. The listener
+     * is notified by {@link UI#access(Runnable)}, so server push or polling has
+     * to be enabled for the UI.
+     *
+     * @param signatures
+     *            The signatures to be found.
+     * @param listener
+     *            Gets notified about hits within the session or {@code null}.
+     * @return The running scan which can be cancelled and provides the hits
+     *         for navigation, see {@link #scrollToHit(SearchHit)}.
+     * @throws IllegalArgumentException
+     *             If no signature is specified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SignatureScanner scanSignatures(
+            final Collection<Signature> signatures,
+            final SearchListener listener)
+    {
+        final SignatureAnnotator annotator = new SignatureAnnotator(listener);
+        final SignatureScanner scanner = new SignatureScanner(this.data, signatures, annotator);
+        cancelSignatureScan();
+        this.currentScan = annotator.scanner = scanner;
+        scanner.start();
+        return scanner;
+    }
+
+    /**
+     * Cancels the scan started by
+     * {@link #scanSignatures(Collection, SearchListener)}, if any. Existing
+     * annotations are kept.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void cancelSignatureScan()
+    {
+        if (this.currentScan != null)
+            this.currentScan.cancel();
+
+        this.currentScan = null;
+    }
+
+    /**
+     * Annotates the hits of a signature scan as soon as it has finished as
+     * long as it's the current one and passes the hits on to a listener.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private class SignatureAnnotator implements SearchListener
+    {
+        private static final long serialVersionUID = 3340805478716935525L;
+
+        /**
+         * Gets notified about hits within the session or {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final SearchListener listener;
+
+        /**
+         * The scan whose hits are annotated.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        transient SignatureScanner scanner;
+
+        /**
+         * @param listener
+         *            Gets notified about hits within the session or
+         *            {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        SignatureAnnotator(final SearchListener listener)
+        {
+            this.listener = listener;
+        }
+
+        @Override
+        public void hitsFound(final List<SearchHit> hits)
+        {
+            if (this.listener != null)
+                access(() -> this.listener.hitsFound(hits));
+        }
+
+        @Override
+        public void searchFinished(final SearchTask search)
+        {
+            access(() ->
+            {
+                HexView.this.currentScan = null;
+                setCustomStyleRanges(SIGNATURE_LAYER, this.scanner.getStyleRanges());
+                if (this.listener != null)
+                    this.listener.searchFinished(search);
+            });
+        }
+
+        /**
+         * Runs a command within the session as long as the scan is the
+         * current one. It's invoked by background threads.
+         *
+         * @param command
+         *            The command to be run.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private void access(final Runnable command)
+        {
+            accessIf(HexView.this, () -> this.scanner != null && HexView.this.currentScan == this.scanner, command);
+        }
+    }
+
+    /**
+     * Closes the currently displayed data source if it has been opened by this
+     * view.
+     *
+     * @throws UncheckedIOException
+     *             If the data source cannot be closed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void closeOwnedData()
+    {
+        if (this.ownsData)
+        {
+            this.ownsData = false;
+            try
+            {
+                this.data.close();
+            }
+            catch (final IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Adds custom CSS classes to be applied to specific cell ranges within the
+     * table.
+     *
+     * @param offset
+     *            The start offset of the range where following condition is
+     *            valid: <span style=
+     *            "white-space:nowrap">{@code 0 <= offset < length}</span>
+     * @param length
+     *            The number of bytes occupied by this range.
+     * @param cssClasses
+     *            The name of CSS classes (separated by a blank) to be applied
+     *            to this cell range, e.g.:
+     *            {@code importantSection boldFont highlighted}
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void addCustomStyleRange(final long offset, final long length,
+            final String cssClasses)
+    {
+        this.cellStyleGenerator.addCustomStyleRange(offset, length, cssClasses);
+        refreshRows(Collections.singletonList(new StyleRange(offset, length, cssClasses)));
+    }
+
+    /**
+     * Adds several custom style ranges at once. The cells are restyled by a
+     * single refresh of the affected rows afterwards, so this is considerably
+     * faster than adding thousands of ranges one by one.
+     *
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void addCustomStyleRanges(final Collection<StyleRange> styles)
+    {
+        addCustomStyleRanges(HexCellStyleGenerator.DEFAULT_LAYER, styles);
+    }
+
+    /**
+     * Adds several custom style ranges to a named layer at once. The cells are
+     * restyled by a single refresh of the affected rows afterwards.
+     *
+     * @param layer
+     *            The name of the concerning layer, e.g. {@code "sections"}. It's
+     *            created if it doesn't exist yet.
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void addCustomStyleRanges(final String layer,
+            final Collection<StyleRange> styles)
+    {
+        this.cellStyleGenerator.addCustomStyleRanges(layer, styles);
+        refreshRows(styles);
+    }
+
+    /**
+     * Removes all custom style ranges which match the specified filter, e.g.
+     * all ranges of a specific CSS class. The cells are restyled by a single
+     * refresh of the affected rows afterwards.
+     *
+     * @param filter
+     *            Decides which style ranges are to be removed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void removeCustomStyleRanges(final Predicate<? super StyleRange> filter)
+    {
+        removeCustomStyleRanges(HexCellStyleGenerator.DEFAULT_LAYER, filter);
+    }
+
+    /**
+     * Removes all custom style ranges of a named layer which match the
+     * specified filter. The cells are restyled by a single refresh of the
+     * affected rows afterwards.
+     *
+     * @param layer
+     *            The name of the concerning layer.
+     * @param filter
+     *            Decides which style ranges are to be removed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void removeCustomStyleRanges(final String layer,
+            final Predicate<? super StyleRange> filter)
+    {
+        refreshRows(this.cellStyleGenerator.removeCustomStyleRanges(layer, filter));
+    }
+
+    /**
+     * Replaces all custom style ranges by the specified ones. The cells are
+     * restyled by a single refresh of the affected rows afterwards.
+     *
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be applied from now on.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setCustomStyleRanges(final Collection<StyleRange> styles)
+    {
+        setCustomStyleRanges(HexCellStyleGenerator.DEFAULT_LAYER, styles);
+    }
+
+    /**
+     * Replaces all custom style ranges of a named layer by the specified ones,
+     * e.g. the hits of a new search. The cells are restyled by a single
+     * refresh of the affected rows afterwards.
+     *
+     * @param layer
+     *            The name of the concerning layer. It's created if it doesn't
+     *            exist yet.
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be applied from now on.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setCustomStyleRanges(final String layer,
+            final Collection<StyleRange> styles)
+    {
+        final List<StyleRange> affected = new ArrayList<>(styles);
+        affected.addAll(this.cellStyleGenerator.setCustomStyleRanges(layer, styles));
+        refreshRows(affected);
+    }
+
+    /**
+     * Removes all custom style ranges. The cells are restyled by a single
+     * refresh of the affected rows afterwards.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void clearCustomStyleRanges()
+    {
+        clearCustomStyleRanges(HexCellStyleGenerator.DEFAULT_LAYER);
+    }
+
+    /**
+     * Removes all custom style ranges of a named layer. The cells are restyled
+     * by a single refresh of the affected rows afterwards.
+     *
+     * @param layer
+     *            The name of the concerning layer.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void clearCustomStyleRanges(final String layer)
+    {
+        refreshRows(this.cellStyleGenerator.clearCustomStyleRanges(layer));
+    }
+
+    /**
+     * Removes a named layer and all of its custom style ranges.
+     *
+     * @param layer
+     *            The name of the layer to be removed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void removeStyleLayer(final String layer)
+    {
+        refreshRows(this.cellStyleGenerator.removeStyleLayer(layer));
+    }
+
+    /**
+     * @param layer
+     *            The name of the concerning layer.
+     * @return {@code true} if the layer exists and its styles are applied to
+     *         the cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isStyleLayerVisible(final String layer)
+    {
+        final StyleLayer styleLayer = this.cellStyleGenerator.getStyleLayer(layer);
+        return styleLayer != null && styleLayer.isVisible();
+    }
+
+    /**
+     * Shows or hides the custom styles of a named layer. Only the rows
+     * overlapping its style ranges are refreshed.
+     *
+     * @param layer
+     *            The name of the concerning layer.
+     * @param visible
+     *            Whether the styles of the layer are applied to the cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setStyleLayerVisible(final String layer, final boolean visible)
+    {
+        refreshRows(this.cellStyleGenerator.setStyleLayerVisible(layer, visible));
     }
 
     /**
@@ -171,8 +1736,9 @@ public class HexView extends Grid
      *
      * @author Andreas "PAX" Lück
      */
-    public void removeCustomStyleRange(final int offset, final int length)
+    public void removeCustomStyleRange(final long offset, final long length)
     {
         this.cellStyleGenerator.removeCustomStyleRange(offset, length);
+        refreshRows(Collections.singletonList(new StyleRange(offset, length, null)));
     }
 }
@@ -3,15 +3,31 @@
  */
 package com.github.transcurity.hexview.cells;
 
+import java.io.Serializable;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
+import com.github.transcurity.hexview.container.ReadonlyHexContainer;
 import com.github.transcurity.hexview.properties.ColumnTypes;
+import com.github.transcurity.hexview.properties.DataColumn;
+import com.github.transcurity.hexview.properties.WordSize;
 import com.vaadin.ui.Grid.CellReference;
 import com.vaadin.ui.Grid.CellStyleGenerator;
 
 /**
  * Specifies the CSS style class name to be set to the different table cells.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Custom styles are organized in named {@link StyleLayer layers} which can be
+ * shown or hidden independently. The styles of all data cells of a row are
+ * computed at once when the row is rendered for the first time and cached
+ * afterwards, just like the combined styles of its words. Modifications of a
+ * layer only discard the cached rows they affect.
  *
  * @author Andreas "PAX" Lück
  */
@@ -20,54 +36,291 @@ public class HexCellStyleGenerator implements CellStyleGenerator
     private static final long serialVersionUID = 8558390091681239890L;
 
     /**
-     * Stores custom CSS classes to be applied to specific cell ranges within
-     * the table.
+     * The name of the layer which holds the style ranges of the methods
+     * without a layer parameter.
      *
      * @author Andreas "PAX" Lück
      */
-    private final Collection<StyleRange> customStyleRanges = new LinkedList<>();
+    public static final String DEFAULT_LAYER = "default";
+
+    /**
+     * The CSS class of all data cells. Cells without custom styles only have
+     * this class.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String DATA_CELL_STYLE = "hex-data-cell";
+
+    /**
+     * The number of rows held by {@link #rowStyles}. It covers the rows of a
+     * few grid pages.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final int ROW_STYLE_CACHE_SIZE = 256;
+
+    /**
+     * The style layers in the order they have been created. Their CSS classes
+     * are applied in this order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Map<String, StyleLayer> layers = new LinkedHashMap<>();
+
+    /**
+     * The complete CSS classes of the data cells of recently rendered rows,
+     * indexed by the offset of the row. The least recently rendered row is
+     * discarded first.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Map<Long, RowStyles> rowStyles = new LinkedHashMap<Long, RowStyles>(ROW_STYLE_CACHE_SIZE, 0.75f, true)
+    {
+        private static final long serialVersionUID = 2270135434386391937L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, RowStyles> eldest)
+        {
+            return size() > ROW_STYLE_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The number of bytes per row, i.e. the number of data cells of each row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int rowWidth = DataColumn.DEFAULT_ROW_WIDTH;
+
+    /**
+     * The number of bytes displayed by each data cell.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int wordSize = 1;
+
+    /**
+     * @return The number of bytes per row, i.e. the number of data cells of
+     *         each row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getRowWidth()
+    {
+        return this.rowWidth;
+    }
+
+    /**
+     * Changes the number of bytes per row. All cached row styles are
+     * discarded.
+     *
+     * @param rowWidth
+     *            The number of bytes per row, i.e. the number of data cells of
+     *            each row.
+     * @throws IllegalArgumentException
+     *             If the row width is not within
+     *             <span style="white-space:nowrap">{@code [1, DataColumn.MAX_ROW_WIDTH]}</span>.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setRowWidth(final int rowWidth)
+    {
+        this.rowWidth = DataColumn.checkRowWidth(rowWidth);
+        this.rowStyles.clear();
+    }
+
+    /**
+     * @return The number of bytes displayed by each data cell.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getWordSize()
+    {
+        return this.wordSize;
+    }
+
+    /**
+     * Specifies the number of bytes displayed by each data cell. The cell of
+     * a word gets the custom styles of all its bytes. The cached styles of
+     * words are discarded.
+     *
+     * @param wordSize
+     *            The number of bytes displayed by each data cell.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setWordSize(final WordSize wordSize)
+    {
+        if (this.wordSize == wordSize.getSize())
+            return;
+
+        this.wordSize = wordSize.getSize();
+        for (final RowStyles row : this.rowStyles.values())
+            row.words = null;
+    }
 
     @Override
     public String getStyle(final CellReference cellReference)
     {
-        if (cellReference.getItemId() != null
-                && cellReference.getItemId() instanceof Integer
-                && cellReference.getPropertyId() != null
+        final long rowOffset = ReadonlyHexContainer.toOffset(cellReference.getItemId());
+        if (rowOffset >= 0 && cellReference.getPropertyId() instanceof DataColumn)
+        {
+            final int offsetInRow = ((DataColumn) cellReference.getPropertyId()).getOffsetInRow();
+            if (offsetInRow < this.rowWidth && this.wordSize == 1)
+                return getDataCellStyles(rowOffset)[offsetInRow];
+            if (offsetInRow < this.rowWidth && offsetInRow % this.wordSize == 0)
+                return getWordCellStyles(rowOffset)[offsetInRow / this.wordSize];
+        }
+        else if (rowOffset >= 0 && cellReference.getPropertyId() != null
                 && cellReference.getPropertyId() instanceof ColumnTypes)
         {
-            final int rowOffset = (int) cellReference.getItemId();
             final ColumnTypes column = (ColumnTypes) cellReference.getPropertyId();
-            final String customStyle = getCustomStyles(rowOffset
-                    + column.getOffsetInRow());
             switch (column)
             {
             case OFFSET:
                 return "hex-offset-cell";
-            case COL_0:
-            case COL_1:
-            case COL_2:
-            case COL_3:
-            case COL_4:
-            case COL_5:
-            case COL_6:
-            case COL_7:
-            case COL_8:
-            case COL_9:
-            case COL_A:
-            case COL_B:
-            case COL_C:
-            case COL_D:
-            case COL_E:
-            case COL_F:
-                return "hex-data-cell" + customStyle;
             case ASCII:
                 return "hex-ascii-cell";
+            case ROW:
+            case RAW_ROW:
+                return "hex-row-cell";
             }
         }
 
         return null;
     }
 
+    /**
+     * Obtains the complete CSS classes of all data cells of a row, i.e.
+     * {@code hex-data-cell} followed by the custom styles of the concerning
+     * byte.
+     *
+     * @param rowOffset
+     *            The byte offset of the row.
+     * @return The CSS classes of each data cell, indexed by its offset within
+     *         the row. The array is cached and must not be modified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String[] getDataCellStyles(final long rowOffset)
+    {
+        return getRowStyles(rowOffset).cells;
+    }
+
+    /**
+     * Obtains the complete CSS classes of all word cells of a row, which are
+     * combined from the styles of their bytes when they are requested for the
+     * first time.
+     *
+     * @param rowOffset
+     *            The byte offset of the row.
+     * @return The CSS classes of each word cell, indexed by the offset of the
+     *         word within the row divided by the word size. The array is
+     *         cached and must not be modified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private String[] getWordCellStyles(final long rowOffset)
+    {
+        final RowStyles row = getRowStyles(rowOffset);
+        if (row.words == null)
+        {
+            row.words = new String[(this.rowWidth + this.wordSize - 1) / this.wordSize];
+            for (int i = 0; i < row.words.length; i++)
+                row.words[i] = combineWordStyles(row.cells, i * this.wordSize);
+        }
+
+        return row.words;
+    }
+
+    /**
+     * @param rowOffset
+     *            The byte offset of the row.
+     * @return The cached styles of the row, which are computed if the row
+     *         hasn't been rendered recently.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private RowStyles getRowStyles(final long rowOffset)
+    {
+        RowStyles result = this.rowStyles.get(rowOffset);
+        if (result == null)
+        {
+            final String[] cells = new String[this.rowWidth];
+            for (int i = 0; i < cells.length; i++)
+                cells[i] = DATA_CELL_STYLE + getCustomStyles(rowOffset + i);
+
+            result = new RowStyles(cells);
+            this.rowStyles.put(rowOffset, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Combines the CSS classes of the bytes of a word. Usually all bytes of a
+     * word have the same classes, so nothing has to be combined.
+     *
+     * @param dataCellStyles
+     *            The CSS classes of each data cell of the row.
+     * @param start
+     *            The index of the first byte of the word within the row.
+     * @return The CSS classes of the first byte followed by those classes of
+     *         the other bytes which are missing so far.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private String combineWordStyles(final String[] dataCellStyles,
+            final int start)
+    {
+        String result = dataCellStyles[start];
+        for (int i = start + 1; i < start + this.wordSize && i < dataCellStyles.length; i++)
+            if (!dataCellStyles[i].equals(result))
+                for (final String style : dataCellStyles[i].split(" "))
+                    if (!(" " + result + " ").contains(" " + style + " "))
+                        result += " " + style;
+
+        return result;
+    }
+
+    /**
+     * Discards the cached styles of all rows overlapping the specified ranges.
+     *
+     * @param ranges
+     *            The style ranges whose cells are to be restyled.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void invalidateRows(final Collection<StyleRange> ranges)
+    {
+        if (this.rowStyles.isEmpty() || ranges.isEmpty())
+            return;
+
+        final StyleRangeIndex index = new StyleRangeIndex(ranges);
+        this.rowStyles.keySet().removeIf(row -> index.overlaps(row, row + this.rowWidth));
+    }
+
+    /**
+     * Obtains potential blank separated CSS class names for the specified table
+     * cell if it has a custom style. Only visible layers are taken into
+     * account. Offsets within the {@code int} range are passed on to
+     * {@link #getCustomStyles(int)}, so subclasses overriding it keep working.
+     *
+     * @param offset
+     *            The byte offset of the concerning cell.
+     * @return Either an empty string or one or more CSS class names (blank
+     *         separated)with a leading blank that belong to the specified table
+     *         cell, e.g.: {@code " importantSection boldFont highlighted"}
+     *
+     * @author Andreas "PAX" Lück
+     */
+    @SuppressWarnings("deprecation")
+    protected String getCustomStyles(final long offset)
+    {
+        return offset <= Integer.MAX_VALUE ? getCustomStyles((int) offset)
+                : getLayerStyles(offset);
+    }
+
     /**
      * Obtains potential blank separated CSS class names for the specified table
      * cell if it has a custom style.
@@ -77,30 +330,227 @@ public class HexCellStyleGenerator implements CellStyleGenerator
      * @return Either an empty string or one or more CSS class names (blank
      *         separated)with a leading blank that belong to the specified table
      *         cell, e.g.: {@code " importantSection boldFont highlighted"}
+     * @deprecated Offsets beyond 2 GB aren't passed to this method. Override
+     *             {@link #getCustomStyles(long)} instead.
      *
      * @author Andreas "PAX" Lück
      */
+    @Deprecated
     protected String getCustomStyles(final int offset)
     {
-        final StringBuilder result = new StringBuilder();
-        getCustomStyleRanges().forEach(range -> {
-            if (offset >= range.getOffset()
-                    && offset < range.getOffset() + range.getLength())
-                result.append(' ').append(range.getCssClasses());
-        });
+        return getLayerStyles(offset);
+    }
+
+    /**
+     * @param offset
+     *            The byte offset of the concerning cell.
+     * @return The CSS class names of all visible layers for the specified
+     *         cell, see {@link #getCustomStyles(long)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private String getLayerStyles(final long offset)
+    {
+        String result = "";
+        for (final StyleLayer layer : this.layers.values())
+            if (layer.isVisible())
+                result = result.isEmpty() ? layer.getStyles(offset)
+                        : result + layer.getStyles(offset);
 
-        return result.toString();
+        return result;
     }
 
     /**
-     * @return Stores custom CSS classes to be applied to specific cell ranges
-     *         within the table.
+     * @return The custom CSS classes of the {@link #DEFAULT_LAYER default
+     *         layer} in the order they have been added. The collection cannot
+     *         be modified.
+     * @deprecated The ranges are stored in indexed {@link StyleLayer layers},
+     *             so this collection is merely a view of the default layer.
+     *             Neither modifying nor overriding it affects the styles of
+     *             the cells anymore. Use {@link #getStyleLayer(String)} and
+     *             the methods adding or removing custom style ranges instead.
      *
      * @author Andreas "PAX" Lück
      */
+    @Deprecated
     protected Collection<StyleRange> getCustomStyleRanges()
     {
-        return this.customStyleRanges;
+        final StyleLayer layer = getStyleLayer(DEFAULT_LAYER);
+        return layer != null ? layer.getRanges() : Collections.emptyList();
+    }
+
+    /**
+     * @param name
+     *            The name of the requested layer.
+     * @return The layer with the specified name or {@code null} if there's no
+     *         such layer.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public StyleLayer getStyleLayer(final String name)
+    {
+        return this.layers.get(name);
+    }
+
+    /**
+     * @return All style layers in the order their styles are applied. The
+     *         collection cannot be modified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Collection<StyleLayer> getStyleLayers()
+    {
+        return Collections.unmodifiableCollection(this.layers.values());
+    }
+
+    /**
+     * Shows or hides the styles of a layer.
+     *
+     * @param name
+     *            The name of the concerning layer.
+     * @param visible
+     *            Whether the styles of the layer are applied to the cells.
+     * @return The style ranges whose cells have to be restyled, which is empty
+     *         if the visibility hasn't changed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> setStyleLayerVisible(final String name,
+            final boolean visible)
+    {
+        final StyleLayer layer = getStyleLayer(name);
+        if (layer == null || layer.isVisible() == visible)
+            return Collections.emptyList();
+
+        layer.setVisible(visible);
+        invalidateRows(layer.getRanges());
+        return layer.getRanges();
+    }
+
+    /**
+     * Removes a layer and all of its styles.
+     *
+     * @param name
+     *            The name of the layer to be removed.
+     * @return The removed style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> removeStyleLayer(final String name)
+    {
+        final StyleLayer layer = this.layers.remove(name);
+        if (layer == null)
+            return Collections.emptyList();
+
+        if (layer.isVisible())
+            invalidateRows(layer.getRanges());
+
+        return layer.getRanges();
+    }
+
+    /**
+     * Obtains the layer with the specified name and creates it if it doesn't
+     * exist yet. New layers are visible and their styles are applied after
+     * the styles of all existing layers.
+     *
+     * @param name
+     *            The name of the concerning layer.
+     * @return The layer with the specified name.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private StyleLayer obtainStyleLayer(final String name)
+    {
+        return this.layers.computeIfAbsent(name, StyleLayer::new);
+    }
+
+    /**
+     * Adds several custom style ranges to a layer at once. Unlike adding them
+     * one by one the lookup index of the layer is only rebuilt once afterwards.
+     *
+     * @param layerName
+     *            The name of the concerning layer. It's created if it doesn't
+     *            exist yet.
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be added in the order of iteration.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void addCustomStyleRanges(final String layerName,
+            final Collection<StyleRange> styles)
+    {
+        final StyleLayer layer = obtainStyleLayer(layerName);
+        layer.add(styles);
+        if (layer.isVisible())
+            invalidateRows(styles);
+    }
+
+    /**
+     * Removes all custom style ranges of a layer which match the specified
+     * filter in a single pass.
+     *
+     * @param layerName
+     *            The name of the concerning layer.
+     * @param filter
+     *            Decides which style ranges are to be removed.
+     * @return The removed style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> removeCustomStyleRanges(final String layerName,
+            final Predicate<? super StyleRange> filter)
+    {
+        final StyleLayer layer = getStyleLayer(layerName);
+        if (layer == null)
+            return Collections.emptyList();
+
+        final List<StyleRange> removed = layer.remove(filter);
+        if (layer.isVisible())
+            invalidateRows(removed);
+
+        return removed;
+    }
+
+    /**
+     * Replaces all custom style ranges of a layer by the specified ones.
+     *
+     * @param layerName
+     *            The name of the concerning layer. It's created if it doesn't
+     *            exist yet.
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be applied from now on.
+     * @return The replaced style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> setCustomStyleRanges(final String layerName,
+            final Collection<StyleRange> styles)
+    {
+        final StyleLayer layer = obtainStyleLayer(layerName);
+        final List<StyleRange> replaced = layer.set(styles);
+        if (layer.isVisible())
+        {
+            invalidateRows(replaced);
+            invalidateRows(layer.getRanges());
+        }
+
+        return replaced;
+    }
+
+    /**
+     * Removes all custom style ranges of a layer. The layer itself is kept.
+     *
+     * @param layerName
+     *            The name of the concerning layer.
+     * @return The removed style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> clearCustomStyleRanges(final String layerName)
+    {
+        return removeCustomStyleRanges(layerName, range -> true);
     }
 
     /**
@@ -135,10 +585,72 @@ public class HexCellStyleGenerator implements CellStyleGenerator
      *
      * @author Andreas "PAX" Lück
      */
-    public void addCustomStyleRange(final int offset, final int length,
+    public void addCustomStyleRange(final long offset, final long length,
             final String cssClasses)
     {
-        getCustomStyleRanges().add(new StyleRange(offset, length, cssClasses));
+        addCustomStyleRanges(Collections.singletonList(new StyleRange(offset, length, cssClasses)));
+    }
+
+    /**
+     * Adds several custom style ranges to the {@link #DEFAULT_LAYER default
+     * layer} at once.
+     *
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be added in the order of iteration.
+     * @see #addCustomStyleRanges(String, Collection)
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void addCustomStyleRanges(final Collection<StyleRange> styles)
+    {
+        addCustomStyleRanges(DEFAULT_LAYER, styles);
+    }
+
+    /**
+     * Removes all custom style ranges of the {@link #DEFAULT_LAYER default
+     * layer} which match the specified filter in a single pass.
+     *
+     * @param filter
+     *            Decides which style ranges are to be removed.
+     * @return The removed style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> removeCustomStyleRanges(
+            final Predicate<? super StyleRange> filter)
+    {
+        return removeCustomStyleRanges(DEFAULT_LAYER, filter);
+    }
+
+    /**
+     * Replaces all custom style ranges of the {@link #DEFAULT_LAYER default
+     * layer} by the specified ones.
+     *
+     * @param styles
+     *            The start offsets, lengths and CSS class names of the cell
+     *            ranges to be applied from now on.
+     * @return The replaced style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> setCustomStyleRanges(
+            final Collection<StyleRange> styles)
+    {
+        return setCustomStyleRanges(DEFAULT_LAYER, styles);
+    }
+
+    /**
+     * Removes all custom style ranges of the {@link #DEFAULT_LAYER default
+     * layer}.
+     *
+     * @return The removed style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> clearCustomStyleRanges()
+    {
+        return clearCustomStyleRanges(DEFAULT_LAYER);
     }
 
     /**
@@ -156,9 +668,45 @@ public class HexCellStyleGenerator implements CellStyleGenerator
      *
      * @author Andreas "PAX" Lück
      */
-    public void removeCustomStyleRange(final int offset, final int length)
+    public void removeCustomStyleRange(final long offset, final long length)
     {
-        getCustomStyleRanges().removeIf(range -> range.getOffset() == offset
+        removeCustomStyleRanges(range -> range.getOffset() == offset
                 && range.getLength() == length);
     }
+
+    /**
+     * The cached CSS classes of the data cells and word cells of a row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final class RowStyles implements Serializable
+    {
+        private static final long serialVersionUID = -3958307482766104325L;
+
+        /**
+         * The complete CSS classes of each data cell.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        final String[] cells;
+
+        /**
+         * The combined CSS classes of each word cell or {@code null} if they
+         * haven't been requested for the current word size, yet.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        String[] words;
+
+        /**
+         * @param cells
+         *            The complete CSS classes of each data cell.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        RowStyles(final String[] cells)
+        {
+            this.cells = cells;
+        }
+    }
 }
@@ -0,0 +1,187 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.cells;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A named set of custom style ranges which can be shown or hidden as a whole,
+ * e.g. the sections of a file format, search hits or differences. Layers are
+ * managed by {@link HexCellStyleGenerator}, so the rendered rows can be
+ * invalidated whenever a layer changes.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class StyleLayer implements Serializable
+{
+    private static final long serialVersionUID = -1528617365210448092L;
+
+    /**
+     * The unique name of the layer.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final String name;
+
+    /**
+     * The style ranges of the layer in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final List<StyleRange> ranges = new ArrayList<>();
+
+    /**
+     * Answers the lookups of {@link #getStyles(long)}. It's built on the first
+     * lookup after {@link #ranges} has been modified, so consecutive
+     * modifications don't rebuild it each time.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private StyleRangeIndex index = StyleRangeIndex.EMPTY;
+
+    /**
+     * Whether the styles of the layer are applied to the cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private boolean visible = true;
+
+    /**
+     * @param name
+     *            The unique name of the layer.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    StyleLayer(final String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return The unique name of the layer.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return Whether the styles of the layer are applied to the cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isVisible()
+    {
+        return this.visible;
+    }
+
+    /**
+     * @param visible
+     *            Whether the styles of the layer are applied to the cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    void setVisible(final boolean visible)
+    {
+        this.visible = visible;
+    }
+
+    /**
+     * @return The style ranges of the layer in the order they have been added.
+     *         The list cannot be modified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> getRanges()
+    {
+        return Collections.unmodifiableList(this.ranges);
+    }
+
+    /**
+     * Obtains the CSS class names of all ranges of this layer containing the
+     * specified offset, regardless of the visibility of the layer.
+     *
+     * @param offset
+     *            The byte offset of the concerning cell.
+     * @return Either an empty string or one or more CSS class names (blank
+     *         separated) with a leading blank.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    String getStyles(final long offset)
+    {
+        if (this.index == null)
+            this.index = new StyleRangeIndex(this.ranges);
+
+        return this.index.getStyles(offset);
+    }
+
+    /**
+     * @param styles
+     *            The style ranges to be added in the order of iteration.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    void add(final Collection<StyleRange> styles)
+    {
+        if (!styles.isEmpty())
+        {
+            this.ranges.addAll(styles);
+            this.index = null;
+        }
+    }
+
+    /**
+     * Removes all style ranges which match the specified filter in a single
+     * pass.
+     *
+     * @param filter
+     *            Decides which style ranges are to be removed.
+     * @return The removed style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    List<StyleRange> remove(final Predicate<? super StyleRange> filter)
+    {
+        final List<StyleRange> removed = new ArrayList<>();
+        final List<StyleRange> retained = new ArrayList<>(this.ranges.size());
+        for (final StyleRange range : this.ranges)
+            (filter.test(range) ? removed : retained).add(range);
+
+        if (!removed.isEmpty())
+        {
+            this.ranges.clear();
+            this.ranges.addAll(retained);
+            this.index = null;
+        }
+
+        return removed;
+    }
+
+    /**
+     * Replaces all style ranges by the specified ones.
+     *
+     * @param styles
+     *            The style ranges to be applied from now on.
+     * @return The replaced style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    List<StyleRange> set(final Collection<StyleRange> styles)
+    {
+        final List<StyleRange> replaced = new ArrayList<>(this.ranges);
+        this.ranges.clear();
+        this.ranges.addAll(styles);
+        this.index = null;
+
+        return replaced;
+    }
+}
@@ -3,6 +3,8 @@
  */
 package com.github.transcurity.hexview.cells;
 
+import java.io.Serializable;
+
 /**
  * Remembers the CSS style and an offset range where it must be used.
  * <p>
@@ -13,22 +15,24 @@ package com.github.transcurity.hexview.cells;
  *
  * @author Andreas "PAX" Lück
  */
-public class StyleRange
+public class StyleRange implements Serializable
 {
+    private static final long serialVersionUID = 6930813745318787040L;
+
     /**
      * The start offset of the range where following condition is valid:
      * <nobr>{@code 0 <= offset < length}</nobr>
      *
      * @author Andreas "PAX" Lück
      */
-    private final int offset;
+    private final long offset;
 
     /**
      * The number of bytes occupied by this range.
      *
      * @author Andreas "PAX" Lück
      */
-    private final int length;
+    private final long length;
 
     /**
      * The name of CSS classes (separated by a blank) to be applied to this cell
@@ -47,7 +51,7 @@ public class StyleRange
      *
      * @author Andreas "PAX" Lück
      */
-    StyleRange(final int offset, final int length)
+    StyleRange(final long offset, final long length)
     {
         this(offset, length, "");
     }
@@ -66,7 +70,7 @@ public class StyleRange
      *
      * @author Andreas "PAX" Lück
      */
-    public StyleRange(final int offset, final int length,
+    public StyleRange(final long offset, final long length,
             final String cssClasses)
     {
         this.offset = offset;
@@ -74,6 +78,29 @@ public class StyleRange
         this.cssClasses = cssClasses;
     }
 
+    /**
+     * @param offset
+     *            The start offset of the range where following condition is
+     *            valid: <span style=
+     *            "white-space:nowrap">{@code 0 <= offset < length}</span>
+     * @param length
+     *            The number of bytes occupied by this range.
+     * @param cssClasses
+     *            The name of CSS classes (separated by a blank) to be applied
+     *            to this cell range, e.g.:
+     *            {@code importantSection boldFont highlighted}
+     * @deprecated Kept for binary compatibility of compiled callers. Use
+     *             {@link #StyleRange(long, long, String)} instead.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    @Deprecated
+    public StyleRange(final int offset, final int length,
+            final String cssClasses)
+    {
+        this((long) offset, (long) length, cssClasses);
+    }
+
     /**
      * @return The start offset of the range where following condition is valid:
      *         <span style=
@@ -81,7 +108,7 @@ public class StyleRange
      *
      * @author Andreas "PAX" Lück
      */
-    public int getOffset()
+    public long getOffset()
     {
         return this.offset;
     }
@@ -91,7 +118,7 @@ public class StyleRange
      *
      * @author Andreas "PAX" Lück
      */
-    public int getLength()
+    public long getLength()
     {
         return this.length;
     }
@@ -120,8 +147,8 @@ public class StyleRange
     {
         final int prime = 31;
         int result = 1;
-        result = prime * result + this.length;
-        result = prime * result + this.offset;
+        result = prime * result + Long.hashCode(this.length);
+        result = prime * result + Long.hashCode(this.offset);
         return result;
     }
 
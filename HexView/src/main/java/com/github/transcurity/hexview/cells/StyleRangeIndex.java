@@ -0,0 +1,331 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.cells;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * An immutable index of style ranges which answers the CSS classes of a single
+ * byte offset in {@code O(log n + k)} where {@code n} is the number of ranges
+ * and {@code k} the number of ranges containing the offset.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The boundaries of all ranges split the offsets into elementary segments,
+ * each of them covered by the same set of ranges. A lookup finds the segment
+ * of an offset by binary search. The CSS classes of a segment are computed on
+ * first request by a stabbing query on an augmented interval tree and cached
+ * afterwards, so the class string of each segment is built only once.
+ * Segments covered by the same set of ranges don't share their strings.
+ *
+ * @author Andreas "PAX" Lück
+ */
+final class StyleRangeIndex implements Serializable
+{
+    private static final long serialVersionUID = -5713651716025620484L;
+
+    /**
+     * An index without any ranges.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static final StyleRangeIndex EMPTY = new StyleRangeIndex(new StyleRange[0]);
+
+    /**
+     * The non-empty ranges sorted by their start offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final StyleRange[] ranges;
+
+    /**
+     * The insertion order of {@link #ranges} which determines the order of the
+     * CSS classes of overlapping ranges.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] order;
+
+    /**
+     * The highest end offset (exclusive) of all ranges within the subtree of
+     * the implicit binary search tree whose root is the concerning index.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long[] maxEnd;
+
+    /**
+     * The sorted distinct start and end offsets of all ranges. Segment
+     * {@code i} covers {@code [boundaries[i], boundaries[i + 1])}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long[] boundaries;
+
+    /**
+     * The lazily computed CSS classes of each segment.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final String[] segmentStyles;
+
+    /**
+     * Builds the index of the specified ranges.
+     *
+     * @param ranges
+     *            The style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    StyleRangeIndex(final Collection<StyleRange> ranges)
+    {
+        this(ranges.toArray(new StyleRange[ranges.size()]));
+    }
+
+    /**
+     * @param ranges
+     *            The style ranges in the order they have been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private StyleRangeIndex(final StyleRange[] ranges)
+    {
+        final Integer[] sorted = new Integer[ranges.length];
+        int count = 0;
+        for (int i = 0; i < ranges.length; i++)
+            if (ranges[i].getLength() > 0)
+                sorted[count++] = i;
+
+        Arrays.sort(sorted, 0, count, Comparator.comparingLong(i -> ranges[i].getOffset()));
+
+        this.ranges = new StyleRange[count];
+        this.order = new int[count];
+        final long[] allBoundaries = new long[count * 2];
+        for (int i = 0; i < count; i++)
+        {
+            this.ranges[i] = ranges[sorted[i]];
+            this.order[i] = sorted[i];
+            allBoundaries[i * 2] = this.ranges[i].getOffset();
+            allBoundaries[i * 2 + 1] = end(this.ranges[i]);
+        }
+
+        this.maxEnd = new long[count];
+        buildMaxEnd(0, count - 1);
+
+        Arrays.sort(allBoundaries);
+        int distinct = 0;
+        for (int i = 0; i < allBoundaries.length; i++)
+            if (distinct == 0 || allBoundaries[distinct - 1] != allBoundaries[i])
+                allBoundaries[distinct++] = allBoundaries[i];
+
+        this.boundaries = Arrays.copyOf(allBoundaries, distinct);
+        this.segmentStyles = new String[Math.max(distinct - 1, 0)];
+    }
+
+    /**
+     * @param range
+     *            A style range.
+     * @return The end offset (exclusive) of the specified range.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static long end(final StyleRange range)
+    {
+        return range.getOffset() + range.getLength();
+    }
+
+    /**
+     * Computes {@link #maxEnd} for the subtree of the specified index range.
+     *
+     * @param low
+     *            The first index of the subtree.
+     * @param high
+     *            The last index of the subtree.
+     * @return The highest end offset within the subtree.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long buildMaxEnd(final int low, final int high)
+    {
+        if (low > high)
+            return Long.MIN_VALUE;
+
+        final int middle = (low + high) >>> 1;
+        this.maxEnd[middle] = Math.max(end(this.ranges[middle]), Math.max(buildMaxEnd(low, middle
+                - 1), buildMaxEnd(middle + 1, high)));
+        return this.maxEnd[middle];
+    }
+
+    /**
+     * @return The number of indexed non-empty ranges.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int size()
+    {
+        return this.ranges.length;
+    }
+
+    /**
+     * Checks whether at least one range overlaps the specified offsets.
+     *
+     * @param start
+     *            The first offset.
+     * @param end
+     *            The end offset (exclusive).
+     * @return {@code true} if a range contains one of the offsets.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    boolean overlaps(final long start, final long end)
+    {
+        return overlaps(0, this.ranges.length - 1, start, end);
+    }
+
+    /**
+     * Checks whether at least one range of a subtree overlaps the specified
+     * offsets.
+     *
+     * @param low
+     *            The first index of the subtree.
+     * @param high
+     *            The last index of the subtree.
+     * @param start
+     *            The first offset.
+     * @param end
+     *            The end offset (exclusive).
+     * @return {@code true} if a range of the subtree contains one of the
+     *         offsets.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private boolean overlaps(final int low, final int high, final long start,
+            final long end)
+    {
+        if (low > high)
+            return false;
+
+        final int middle = (low + high) >>> 1;
+        if (this.maxEnd[middle] <= start)
+            return false; // no range of this subtree reaches the offsets
+        if (overlaps(low, middle - 1, start, end))
+            return true;
+        if (this.ranges[middle].getOffset() >= end)
+            return false; // all following ranges start behind the offsets
+
+        return end(this.ranges[middle]) > start
+                || overlaps(middle + 1, high, start, end);
+    }
+
+    /**
+     * Obtains the CSS class names of all ranges containing the specified
+     * offset.
+     *
+     * @param offset
+     *            The byte offset of the concerning cell.
+     * @return Either an empty string or one or more CSS class names (blank
+     *         separated) with a leading blank, in the order their ranges have
+     *         been added.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    String getStyles(final long offset)
+    {
+        int segment = Arrays.binarySearch(this.boundaries, offset);
+        if (segment < 0)
+            segment = -segment - 2;
+
+        if (segment < 0 || segment >= this.segmentStyles.length)
+            return "";
+
+        String result = this.segmentStyles[segment];
+        if (result == null)
+        {
+            result = computeStyles(this.boundaries[segment]);
+            this.segmentStyles[segment] = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Determines the CSS class names of all ranges containing the specified
+     * offset by a stabbing query.
+     *
+     * @param offset
+     *            The byte offset.
+     * @return The blank separated CSS class names with a leading blank.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private String computeStyles(final long offset)
+    {
+        final int count = collect(0, this.ranges.length - 1, offset, null, 0);
+        if (count == 0)
+            return "";
+
+        final int[] matches = new int[count];
+        collect(0, this.ranges.length - 1, offset, matches, 0);
+
+        // restore the insertion order: sort by order (high bits), keep index
+        final long[] keys = new long[count];
+        for (int i = 0; i < count; i++)
+            keys[i] = (long) this.order[matches[i]] << 32 | matches[i];
+        Arrays.sort(keys);
+
+        final StringBuilder result = new StringBuilder();
+        for (final long key : keys)
+            result.append(' ').append(this.ranges[(int) key].getCssClasses());
+
+        return result.toString();
+    }
+
+    /**
+     * Collects the indexes of all ranges of a subtree which contain the
+     * specified offset.
+     *
+     * @param low
+     *            The first index of the subtree.
+     * @param high
+     *            The last index of the subtree.
+     * @param offset
+     *            The byte offset.
+     * @param result
+     *            Receives the indexes of the matching ranges or {@code null}
+     *            if they only have to be counted.
+     * @param count
+     *            The number of already collected indexes.
+     * @return The number of collected indexes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int collect(final int low, final int high, final long offset,
+            final int[] result, final int count)
+    {
+        if (low > high)
+            return count;
+
+        final int middle = (low + high) >>> 1;
+        if (this.maxEnd[middle] <= offset)
+            return count; // no range of this subtree reaches the offset
+
+        int found = collect(low, middle - 1, offset, result, count);
+        if (this.ranges[middle].getOffset() <= offset)
+        {
+            if (end(this.ranges[middle]) > offset)
+            {
+                if (result != null)
+                    result[found] = middle;
+                found++;
+            }
+
+            found = collect(middle + 1, high, offset, result, found);
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.client;
+
+import com.github.transcurity.hexview.renderers.RawRowRenderer;
+import com.github.transcurity.hexview.shared.RawRowRendererState;
+import com.vaadin.client.communication.StateChangeEvent;
+import com.vaadin.client.connectors.AbstractRendererConnector;
+import com.vaadin.client.renderers.Renderer;
+import com.vaadin.client.widget.grid.RendererCellReference;
+import com.vaadin.shared.ui.Connect;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
+/**
+ * The browser counterpart of {@link RawRowRenderer}. It formats the offset,
+ * the hex values and the dump text of a row from its raw bytes.
+ *
+ * @author Andreas "PAX" Lück
+ */
+@Connect(RawRowRenderer.class)
+public class RawRowRendererConnector extends
+        AbstractRendererConnector<JsonObject>
+{
+    /**
+     * Formats a raw row as HTML with the same structure as the compact render
+     * mode of the server.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static class HexRowRenderer implements Renderer<JsonObject>
+    {
+        /**
+         * The hex digits indexed by their value.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private static final String DIGITS = "0123456789ABCDEF";
+
+        /**
+         * The displayed characters of the dump column indexed by the unsigned
+         * value of the byte they represent, or {@code null} for UTF-16LE.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private String codePage;
+
+        /**
+         * The number of bytes of a complete row.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private int rowWidth = 16;
+
+        /**
+         * The number of bytes which are grouped to a word.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private int wordSize = 1;
+
+        /**
+         * Whether the bytes of each word are displayed in reverse order.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private boolean littleEndian;
+
+        /**
+         * @param codePage
+         *            The displayed characters of the dump column indexed by the
+         *            unsigned value of the byte they represent, or
+         *            {@code null} for UTF-16LE.
+         * @param rowWidth
+         *            The number of bytes of a complete row.
+         * @param wordSize
+         *            The number of bytes which are grouped to a word.
+         * @param littleEndian
+         *            Whether the bytes of each word are displayed in reverse
+         *            order.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        void configure(final String codePage, final int rowWidth,
+                final int wordSize, final boolean littleEndian)
+        {
+            this.codePage = codePage;
+            this.rowWidth = rowWidth;
+            this.wordSize = wordSize;
+            this.littleEndian = littleEndian;
+        }
+
+        @Override
+        public void render(final RendererCellReference cell,
+                final JsonObject row)
+        {
+            if (row == null)
+            {
+                cell.getElement().setInnerHTML("");
+                return;
+            }
+
+            final String bytes = decodeBase64(row.getString("b"));
+            final String[] styles = new String[bytes.length()];
+            final JsonArray styleRuns = row.getArray("s");
+            for (int i = 0; i + 2 < styleRuns.length(); i += 3)
+            {
+                final int start = (int) styleRuns.getNumber(i);
+                final int end = start + (int) styleRuns.getNumber(i + 1);
+                for (int j = start; j < end && j < styles.length; j++)
+                    styles[j] = styleRuns.getString(i + 2);
+            }
+
+            final StringBuilder html = new StringBuilder(160 + this.rowWidth * 3);
+            html.append("<span class=\"hex-row-offset\">")
+                    .append(row.getString("o"))
+                    .append("</span><span class=\"hex-row-data\">");
+            for (int i = 0; i < this.rowWidth; i++)
+            {
+                if (i > 0 && i % this.wordSize == 0)
+                    html.append(' ');
+
+                if (i >= bytes.length())
+                {
+                    html.append("  "); // keeps the dump column aligned
+                    continue;
+                }
+
+                final int index = getByteIndex(i, bytes.length());
+                if (styles[index] != null)
+                {
+                    // custom CSS classes are arbitrary strings of the server
+                    html.append("<span class=\"");
+                    for (int j = 0; j < styles[index].length(); j++)
+                        appendEscaped(html, styles[index].charAt(j));
+
+                    html.append("\">");
+                }
+
+                final int value = bytes.charAt(index) & 0xFF;
+                html.append(DIGITS.charAt(value >> 4)).append(DIGITS.charAt(value & 0xF));
+
+                if (styles[index] != null)
+                    html.append("</span>");
+            }
+
+            html.append("</span><span class=\"hex-row-ascii\">");
+            appendDump(html, bytes);
+            if (row.hasKey("r"))
+                html.append("  * ").append((long) row.getNumber("r")).append(" rows");
+
+            html.append("</span>");
+
+            cell.getElement().setInnerHTML(html.toString());
+        }
+
+        /**
+         * Obtains the index of the byte which is displayed at a certain
+         * position of a row, like {@code WordFormat.getByteIndex(int, int)} of
+         * the server.
+         *
+         * @param position
+         *            The position within the displayed row.
+         * @param rowLength
+         *            The number of bytes of the row.
+         * @return The index of the byte within the row.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private int getByteIndex(final int position, final int rowLength)
+        {
+            if (!this.littleEndian || this.wordSize == 1)
+                return position;
+
+            final int wordStart = position - position % this.wordSize;
+            final int wordEnd = Math.min(wordStart + this.wordSize, rowLength);
+            return wordEnd - 1 - (position - wordStart);
+        }
+
+        /**
+         * Appends the dump text of the specified bytes with all HTML special
+         * characters replaced by entities.
+         *
+         * @param html
+         *            Receives the dump text.
+         * @param bytes
+         *            The bytes as binary string.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private void appendDump(final StringBuilder html, final String bytes)
+        {
+            if (this.codePage != null)
+                for (int i = 0; i < bytes.length(); i++)
+                    appendEscaped(html, this.codePage.charAt(bytes.charAt(i) & 0xFF));
+            else
+                for (int i = 0; i < bytes.length(); i += 2)
+                {
+                    final char character = i + 1 < bytes.length()
+                            ? (char) ((bytes.charAt(i) & 0xFF) | (bytes.charAt(i + 1) & 0xFF) << 8)
+                            : '.';
+                    appendEscaped(html, isPrintable(character) ? character
+                            : '.');
+                }
+        }
+
+        /**
+         * @param character
+         *            A decoded UTF-16 character.
+         * @return {@code true} unless the character is a control character, a
+         *         surrogate or the replacement character. Unlike the server no
+         *         Unicode tables are available, so undefined characters pass.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private static boolean isPrintable(final char character)
+        {
+            return character >= 0x20 && (character < 0x7F || character > 0x9F)
+                    && (character < 0xD800 || character > 0xDFFF)
+                    && character != 0xFFFD;
+        }
+
+        /**
+         * Appends a character and replaces HTML special characters by
+         * entities.
+         *
+         * @param html
+         *            Receives the character.
+         * @param character
+         *            The character to be appended.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private static void appendEscaped(final StringBuilder html,
+                final char character)
+        {
+            switch (character)
+            {
+            case '&':
+                html.append("&amp;");
+                break;
+            case '<':
+                html.append("&lt;");
+                break;
+            case '>':
+                html.append("&gt;");
+                break;
+            case '"':
+                html.append("&quot;");
+                break;
+            default:
+                html.append(character);
+            }
+        }
+
+        /**
+         * Decodes Base64 by the browser.
+         *
+         * @param base64
+         *            The Base64 encoded bytes.
+         * @return A binary string which contains one character per byte.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private static native String decodeBase64(final String base64)
+        /*-{
+            return $wnd.atob(base64);
+        }-*/;
+    }
+
+    @Override
+    public HexRowRenderer getRenderer()
+    {
+        return (HexRowRenderer) super.getRenderer();
+    }
+
+    @Override
+    public JsonObject decode(final JsonValue value)
+    {
+        // the rows are already JSON objects, no need for reflective decoding
+        return value.getType() == JsonType.OBJECT ? (JsonObject) value : null;
+    }
+
+    @Override
+    public RawRowRendererState getState()
+    {
+        return (RawRowRendererState) super.getState();
+    }
+
+    @Override
+    public void onStateChanged(final StateChangeEvent stateChangeEvent)
+    {
+        super.onStateChanged(stateChangeEvent);
+        getRenderer().configure(getState().codePage, getState().rowWidth,
+                getState().wordSize, getState().littleEndian);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.client;
+
+import com.github.transcurity.hexview.diff.ScrollSynchronizer;
+import com.github.transcurity.hexview.shared.ScrollSynchronizerState;
+import com.vaadin.client.ServerConnector;
+import com.vaadin.client.connectors.GridConnector;
+import com.vaadin.client.extensions.AbstractExtensionConnector;
+import com.vaadin.client.widget.grid.events.ScrollEvent;
+import com.vaadin.client.widget.grid.events.ScrollHandler;
+import com.vaadin.client.widgets.Grid;
+import com.vaadin.shared.ui.Connect;
+
+import elemental.json.JsonObject;
+
+/**
+ * The browser counterpart of {@link ScrollSynchronizer}. It copies the scroll
+ * position of the extended grid to the grid of the partner whenever the user
+ * scrolls.
+ *
+ * @author Andreas "PAX" Lück
+ */
+@Connect(ScrollSynchronizer.class)
+public class ScrollSynchronizerConnector extends AbstractExtensionConnector
+{
+    /**
+     * The extended grid.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private Grid<JsonObject> grid;
+
+    /**
+     * Whether the next scroll event has been caused by the partner and must
+     * not be copied back, e.g. because the grid is shorter and couldn't
+     * follow completely.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private boolean followingPartner;
+
+    @Override
+    protected void extend(final ServerConnector target)
+    {
+        this.grid = ((GridConnector) target).getWidget();
+        this.grid.addScrollHandler(new ScrollHandler()
+        {
+            @Override
+            public void onScroll(final ScrollEvent event)
+            {
+                if (ScrollSynchronizerConnector.this.followingPartner)
+                    ScrollSynchronizerConnector.this.followingPartner = false;
+                else if (getState().partner instanceof ScrollSynchronizerConnector)
+                    ((ScrollSynchronizerConnector) getState().partner).follow(ScrollSynchronizerConnector.this.grid);
+            }
+        });
+    }
+
+    /**
+     * Scrolls the extended grid to the position of the partner's grid.
+     *
+     * @param leader
+     *            The grid which has been scrolled by the user.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    void follow(final Grid<JsonObject> leader)
+    {
+        final double scrollTop = this.grid.getScrollTop();
+        final double scrollLeft = this.grid.getScrollLeft();
+        this.grid.setScrollTop(leader.getScrollTop());
+        this.grid.setScrollLeft(leader.getScrollLeft());
+        this.followingPartner = this.grid.getScrollTop() != scrollTop || this.grid.getScrollLeft() != scrollLeft;
+    }
+
+    @Override
+    public ScrollSynchronizerState getState()
+    {
+        return (ScrollSynchronizerState) super.getState();
+    }
+}
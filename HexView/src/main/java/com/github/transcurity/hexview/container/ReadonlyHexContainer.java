@@ -7,30 +7,234 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.vaadin.data.Container.Indexed;
+import com.vaadin.data.Container.ItemSetChangeEvent;
+import com.vaadin.data.Container.ItemSetChangeListener;
+import com.vaadin.data.Container.ItemSetChangeNotifier;
 import com.vaadin.data.Container.Sortable;
 import com.github.transcurity.hexview.properties.ByteDataItem;
 import com.github.transcurity.hexview.properties.ColumnTypes;
-import com.github.transcurity.hexview.properties.RowProperty;
+import com.github.transcurity.hexview.properties.DataColumn;
+import com.github.transcurity.hexview.properties.DumpEncoding;
+import com.github.transcurity.hexview.properties.OffsetFormat;
+import com.github.transcurity.hexview.properties.OffsetRadix;
+import com.github.transcurity.hexview.properties.WordFormat;
+import com.github.transcurity.hexview.source.ByteArraySource;
+import com.github.transcurity.hexview.source.ByteSource;
 import com.vaadin.data.Item;
 import com.vaadin.data.Property;
 
 /**
  * Used for holding binary raw data.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Runs of identical rows, e.g. the zero-filled regions of memory dumps and
+ * disk images, can be collapsed into single summary rows like the star lines
+ * of {@code hexdump}, see
+ * {@link #setRunCollapsing(int, Executor, RowRunListener)}.
  *
  * @author Andreas "PAX" Lück
  */
-public class ReadonlyHexContainer implements Indexed, Sortable
+public class ReadonlyHexContainer implements Indexed, Sortable,
+        ItemSetChangeNotifier
 {
     private static final long serialVersionUID = -8341383986795200317L;
 
     /**
-     * The binary data to be hold.
+     * The number of rows which are loaded at once in the background. Grid
+     * pages are of a similar size.
      *
      * @author Andreas "PAX" Lück
      */
-    private final byte[] data;
+    private static final int LOAD_BLOCK_ROWS = 64;
+
+    /**
+     * The default minimum number of identical rows which are collapsed into a
+     * summary row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_MIN_RUN_ROWS = 3;
+
+    /**
+     * The number of rows which are read at once while indexing runs of
+     * identical rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final int RUN_SCAN_ROWS = 4096;
+
+    /**
+     * The minimum number of milliseconds between two notifications about
+     * found runs while the indexing is still running.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final long RUN_NOTIFICATION_INTERVAL = 250;
+
+    /**
+     * The source of the binary data to be hold.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteSource data;
+
+    /**
+     * The total number of bytes provided by {@link #data}. It only changes if
+     * the container is notified about changed data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long length;
+
+    /**
+     * The number of bytes per row. Item IDs are multiples of it.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int rowWidth;
+
+    /**
+     * Recently requested rows. Rows are immutable and reused for every lookup
+     * of their cells, so rendering a grid page hardly allocates objects.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final RowCache rowCache;
+
+    /**
+     * Loads and renders rows in the background or {@code null} if rows are
+     * loaded on request.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private transient Executor loadExecutor;
+
+    /**
+     * Gets notified as soon as rows have been loaded in the background.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private RowLoadListener loadListener;
+
+    /**
+     * The offsets of the row blocks which are currently being loaded in the
+     * background.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Set<Long> pendingBlocks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Incremented whenever the rendering of rows changes, so rows which have
+     * been loaded in the background meanwhile are discarded. It's guarded by
+     * {@link #rowCache}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int renderGeneration;
+
+    /**
+     * The number of rows beyond the requested ones which are loaded in the
+     * background in scroll direction.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int prefetchRows;
+
+    /**
+     * Get notified as soon as rows are added or changed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final List<ItemSetChangeListener> itemSetChangeListeners = new ArrayList<>();
+
+    /**
+     * The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private DumpEncoding dumpEncoding = DumpEncoding.ISO_8859_1;
+
+    /**
+     * The format of the offset column. It's computed once for the data
+     * instead of once per rendered offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private OffsetFormat offsetFormat;
+
+    /**
+     * The format of the data cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private WordFormat wordFormat = WordFormat.BYTES;
+
+    /**
+     * The index of the first row most recently requested by
+     * {@link #getItemIds(int, int)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long activeFirstIndex;
+
+    /**
+     * The number of rows most recently requested by
+     * {@link #getItemIds(int, int)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int activeCount;
+
+    /**
+     * The runs of identical rows which have been found so far. It's replaced
+     * as a whole and only while holding the lock of {@link #rowCache}, so
+     * rows loaded in the background refer to a consistent index.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private volatile RowRunIndex runIndex = RowRunIndex.EMPTY;
+
+    /**
+     * The minimum number of identical rows which are collapsed or {@code 0}
+     * if runs aren't collapsed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int minRunRows;
+
+    /**
+     * Indexes the runs of identical rows in the background or {@code null} if
+     * the default load executor is used.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private transient Executor runExecutor;
+
+    /**
+     * Gets notified as soon as runs of identical rows have been found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private RowRunListener runListener;
+
+    /**
+     * The most recently started indexing of runs or {@code null} if runs
+     * aren't indexed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private transient RunScanner runScanner;
 
     /**
      * @param data
@@ -38,25 +242,1061 @@ public class ReadonlyHexContainer implements Indexed, Sortable
      *
      * @author Andreas "PAX" Lück
      */
-    public ReadonlyHexContainer(final byte[] data)
+    public ReadonlyHexContainer(final byte[] data)
+    {
+        this(new ByteArraySource(data));
+    }
+
+    /**
+     * @param data
+     *            The source of the binary data to be hold. Bytes are only read
+     *            from it for rows which are actually requested.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ReadonlyHexContainer(final ByteSource data)
+    {
+        this(data, DataColumn.DEFAULT_ROW_WIDTH);
+    }
+
+    /**
+     * @param data
+     *            The source of the binary data to be hold. Bytes are only read
+     *            from it for rows which are actually requested.
+     * @param rowWidth
+     *            The number of bytes per row, e.g. 8 for narrow or 32 for wide
+     *            screens.
+     * @throws IllegalArgumentException
+     *             If the row width is not within
+     *             <span style="white-space:nowrap">{@code [1, DataColumn.MAX_ROW_WIDTH]}</span>.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ReadonlyHexContainer(final ByteSource data, final int rowWidth)
+    {
+        this.data = data;
+        this.rowWidth = DataColumn.checkRowWidth(rowWidth);
+        this.rowCache = new RowCache(rowWidth);
+        this.length = data.length();
+        this.offsetFormat = new OffsetFormat(this.length, this.rowWidth);
+    }
+
+    /**
+     * @return The source of the binary data to be hold.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteSource getByteSource()
+    {
+        return this.data;
+    }
+
+    /**
+     * @return The number of displayed bytes. It's updated by
+     *         {@link #dataAppended()} and {@link #dataChanged()}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getLength()
+    {
+        return this.length;
+    }
+
+    /**
+     * Takes bytes into account which have been appended to the source since
+     * the last notification. Only the added rows are announced to the
+     * listeners, unless the width of the offset column has changed or the
+     * source has shrunk. A partial last row which got more bytes is rendered
+     * anew on its next request. Collapsed runs are kept and the appended
+     * rows are indexed as soon as the running indexing has finished.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void dataAppended()
+    {
+        final long oldLength = this.length;
+        final long oldRowCount = getRowCount();
+        final int oldSize = size();
+        final long newLength = this.data.length();
+        if (newLength == oldLength)
+            return;
+
+        final OffsetFormat offsetFormat = new OffsetFormat(newLength, this.rowWidth, this.offsetFormat.getRadix(), this.offsetFormat.getBaseAddress());
+        if (newLength < oldLength
+                || offsetFormat.getWidth() != this.offsetFormat.getWidth())
+        {
+            dataChanged();
+            return;
+        }
+
+        this.length = newLength;
+        this.offsetFormat = offsetFormat;
+        if (oldLength % this.rowWidth != 0)
+            this.rowCache.remove((oldRowCount - 1) * this.rowWidth);
+
+        if (size() > oldSize)
+            fireItemSetChange(new RowsAddedEvent(this, oldSize, size() - oldSize, getRowId(oldSize)));
+
+        resumeRunScan();
+    }
+
+    /**
+     * Takes arbitrary changes of the source into account, e.g. bytes which
+     * have been discarded from the start of a stream. All rendered rows are
+     * discarded and the listeners are notified that all rows may have changed.
+     * Runs of identical rows are indexed anew.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void dataChanged()
+    {
+        this.length = this.data.length();
+        this.offsetFormat = new OffsetFormat(this.length, this.rowWidth, this.offsetFormat.getRadix(), this.offsetFormat.getBaseAddress());
+        restartRunScan();
+        invalidateRows();
+        fireItemSetChange(new RowSetChangeEvent(this));
+    }
+
+    /**
+     * Notifies all registered listeners about changed rows.
+     *
+     * @param event
+     *            Describes the changed rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void fireItemSetChange(final ItemSetChangeEvent event)
+    {
+        for (final ItemSetChangeListener listener : new ArrayList<>(this.itemSetChangeListeners))
+            listener.containerItemSetChange(event);
+    }
+
+    @Override
+    public void addItemSetChangeListener(final ItemSetChangeListener listener)
+    {
+        this.itemSetChangeListeners.add(listener);
+    }
+
+    /**
+     * @deprecated As of 7.0, replaced by
+     *             {@link #addItemSetChangeListener(ItemSetChangeListener)}
+     */
+    @Deprecated
+    @Override
+    public void addListener(final ItemSetChangeListener listener)
+    {
+        addItemSetChangeListener(listener);
+    }
+
+    @Override
+    public void removeItemSetChangeListener(final ItemSetChangeListener listener)
+    {
+        this.itemSetChangeListeners.remove(listener);
+    }
+
+    /**
+     * @deprecated As of 7.0, replaced by
+     *             {@link #removeItemSetChangeListener(ItemSetChangeListener)}
+     */
+    @Deprecated
+    @Override
+    public void removeListener(final ItemSetChangeListener listener)
+    {
+        removeItemSetChangeListener(listener);
+    }
+
+    /**
+     * @return The number of bytes per row. Item IDs are multiples of it.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getRowWidth()
+    {
+        return this.rowWidth;
+    }
+
+    /**
+     * @return The cache of recently requested rows. Its limits can be
+     *         adjusted and its statistics tell how often rows are rendered.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RowCache getRowCache()
+    {
+        return this.rowCache;
+    }
+
+    /**
+     * @return {@code true} if rows which aren't cached are loaded in the
+     *         background.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isAsyncLoading()
+    {
+        return this.loadExecutor != null;
+    }
+
+    /**
+     * Specifies whether rows which aren't cached are loaded in the background.
+     * In this case {@link #getItem(Object)} returns a
+     * {@link ByteDataItem#isPlaceholder() placeholder} immediately and the
+     * block of rows around it gets loaded and rendered by the specified
+     * executor. The listener is notified as soon as the rows are available
+     * from the row cache, so the row cache should be able to hold all rows
+     * which are displayed at once.
+     * <p>
+     * &nbsp;
+     * </p>
+     * The executor isn't serialized along with the container, so the
+     * asynchronous loading has to be enabled again after deserialization.
+     *
+     * @param executor
+     *            Loads the rows in the background. A value of {@code null}
+     *            loads rows on request again.
+     * @param listener
+     *            Gets notified about the loaded rows by the loading thread.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setAsyncLoading(final Executor executor,
+            final RowLoadListener listener)
+    {
+        this.loadExecutor = executor;
+        this.loadListener = listener;
+    }
+
+    /**
+     * @return The number of rows beyond the requested ones which are loaded in
+     *         the background in scroll direction.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getPrefetchRows()
+    {
+        return this.prefetchRows;
+    }
+
+    /**
+     * Specifies how many rows beyond the ones requested by
+     * {@link #getItemIds(int, int)} are loaded and rendered in the background
+     * into the row cache. The scroll direction is derived from successive
+     * requests, so only the rows the user is heading for are prefetched.
+     * Prefetching is limited to the part of the row cache which isn't
+     * occupied by the requested rows. It uses the executor of the
+     * asynchronous loading or {@link #getDefaultLoadExecutor()}.
+     *
+     * @param prefetchRows
+     *            The number of rows to be prefetched or {@code 0} in order to
+     *            disable prefetching.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setPrefetchRows(final int prefetchRows)
+    {
+        this.prefetchRows = Math.max(prefetchRows, 0);
+    }
+
+    /**
+     * @return A shared executor for loading rows in the background. It uses
+     *         virtual threads where available and a few daemon threads
+     *         otherwise.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static Executor getDefaultLoadExecutor()
+    {
+        return DefaultLoadExecutor.INSTANCE;
+    }
+
+    /**
+     * Holds the executor of {@link #getDefaultLoadExecutor()}, which is
+     * created on first use only.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final class DefaultLoadExecutor
+    {
+        /**
+         * The shared executor for loading rows in the background.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        static final Executor INSTANCE = create();
+
+        /**
+         * @return An executor which uses virtual threads if the runtime
+         *         provides them or a fixed number of daemon threads otherwise.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private static Executor create()
+        {
+            try
+            {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            }
+            catch (final ReflectiveOperationException e)
+            {
+                final AtomicInteger count = new AtomicInteger();
+                return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable ->
+                {
+                    final Thread thread = new Thread(runnable, "hex-row-loader-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if runs of identical rows are collapsed into
+     *         summary rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isRunCollapsing()
+    {
+        return this.minRunRows > 0;
+    }
+
+    /**
+     * @return The minimum number of identical rows which are collapsed or
+     *         {@code 0} if runs aren't collapsed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getMinRunRows()
+    {
+        return this.minRunRows;
+    }
+
+    /**
+     * Specifies whether runs of identical rows are collapsed into summary
+     * rows. The rows are indexed by the specified executor in the background,
+     * reading each byte once. Found runs are published incrementally to the
+     * listener, but they only take effect as soon as
+     * {@link #applyIndexedRuns()} is invoked, so the displayed rows don't
+     * change while the grid is accessing them.
+     * <p>
+     * &nbsp;
+     * </p>
+     * A collapsed run is displayed as its first row only, which is a
+     * {@link ByteDataItem#isSummary() summary} of the whole run. The IDs of
+     * its other rows aren't part of this container until the run gets
+     * expanded by {@link #setRunExpanded(Object, boolean)}. Only complete rows
+     * are indexed, so a partial last row is never collapsed.
+     * <p>
+     * &nbsp;
+     * </p>
+     * The executor isn't serialized along with the container, so the
+     * collapsing has to be enabled again after deserialization in order to
+     * index changed data.
+     *
+     * @param minRunRows
+     *            The minimum number of identical rows which are collapsed,
+     *            e.g. {@link #DEFAULT_MIN_RUN_ROWS}. A value less than
+     *            {@code 2} displays all rows again.
+     * @param executor
+     *            Indexes the rows in the background or {@code null} in order
+     *            to use {@link #getDefaultLoadExecutor()}.
+     * @param listener
+     *            Gets notified about found runs by the indexing thread or
+     *            {@code null}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setRunCollapsing(final int minRunRows, final Executor executor,
+            final RowRunListener listener)
+    {
+        final boolean hadRuns = this.runIndex.getRunCount() > 0;
+        this.minRunRows = minRunRows >= 2 ? minRunRows : 0;
+        this.runExecutor = executor;
+        this.runListener = listener;
+        restartRunScan();
+        if (hadRuns)
+        {
+            invalidateRows();
+            fireItemSetChange(new RowSetChangeEvent(this));
+        }
+    }
+
+    /**
+     * Takes the runs into account which have been found since the last
+     * invocation. Their rows are collapsed and the listeners are notified
+     * that all rows may have changed. As soon as the indexing has finished,
+     * rows appended meanwhile are indexed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void applyIndexedRuns()
+    {
+        final RunScanner scanner = this.runScanner;
+        if (scanner == null)
+            return;
+
+        final List<long[]> runs = new ArrayList<>();
+        for (long[] run = scanner.runs.poll(); run != null; run = scanner.runs.poll())
+            runs.add(run);
+
+        if (!runs.isEmpty())
+        {
+            synchronized (this.rowCache)
+            {
+                this.renderGeneration++;
+                this.runIndex = this.runIndex.append(runs);
+                for (final long[] run : runs)
+                    this.rowCache.remove(run[0] * this.rowWidth);
+            }
+
+            fireItemSetChange(new RowSetChangeEvent(this));
+        }
+
+        resumeRunScan();
+    }
+
+    /**
+     * @return {@code true} if all complete rows have been indexed and all
+     *         found runs have been applied.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isRunIndexComplete()
+    {
+        final RunScanner scanner = this.runScanner;
+        return scanner != null && scanner.complete && scanner.runs.isEmpty()
+                && scanner.endRow >= this.length / this.rowWidth;
+    }
+
+    /**
+     * @return The number of rows which are hidden by collapsed runs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getCollapsedRows()
+    {
+        return this.runIndex.getHiddenRows();
+    }
+
+    /**
+     * @param itemId
+     *            The ID of a row or any offset within it.
+     * @return {@code true} if the row belongs to an expanded run of identical
+     *         rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isRunExpanded(final Object itemId)
+    {
+        final long offset = toOffset(itemId);
+        final RowRunIndex runs = this.runIndex;
+        final int run = offset >= 0 ? runs.findRun(offset / this.rowWidth) : -1;
+        return run >= 0 && runs.isExpanded(run);
+    }
+
+    /**
+     * Expands or collapses the run of identical rows which contains a row.
+     * The listeners are notified that all rows may have changed.
+     *
+     * @param itemId
+     *            The ID of a row or any offset within it, e.g. of a summary
+     *            row.
+     * @param expanded
+     *            {@code true} in order to display all rows of the run or
+     *            {@code false} in order to display its summary row only.
+     * @return {@code true} if the row belongs to a run at all.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean setRunExpanded(final Object itemId, final boolean expanded)
     {
-        this.data = data;
+        final long offset = toOffset(itemId);
+        final RowRunIndex runs = this.runIndex;
+        final int run = offset >= 0 ? runs.findRun(offset / this.rowWidth) : -1;
+        if (run < 0)
+            return false;
+
+        if (runs.isExpanded(run) != expanded)
+        {
+            synchronized (this.rowCache)
+            {
+                this.renderGeneration++;
+                this.runIndex = runs.withExpanded(run, expanded);
+                this.rowCache.remove(runs.getStart(run) * this.rowWidth);
+            }
+
+            fireItemSetChange(new RowSetChangeEvent(this));
+        }
+
+        return true;
+    }
+
+    /**
+     * @param offset
+     *            Any offset within the data.
+     * @return The ID of the displayed row which contains the offset or
+     *         summarizes the row containing it, or {@code -1} if the offset
+     *         is out of range.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getDisplayedRowId(final long offset)
+    {
+        return offset >= 0 && offset < this.length ? toDisplayedRowId(offset)
+                : -1;
+    }
+
+    /**
+     * @param offset
+     *            Any non-negative offset.
+     * @return The ID of the row which contains the offset or the ID of its
+     *         summary row if the row is hidden.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long toDisplayedRowId(final long offset)
+    {
+        final RowRunIndex runs = this.runIndex;
+        final long row = offset / this.rowWidth;
+        return (runs.isHidden(row) ? runs.getStart(runs.findRun(row)) : row)
+                * this.rowWidth;
+    }
+
+    /**
+     * @param index
+     *            The index of a displayed row.
+     * @return The ID of the displayed row. It's beyond the data if the index
+     *         is out of range.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long getRowId(final long index)
+    {
+        return this.runIndex.toRowIndex(index) * this.rowWidth;
+    }
+
+    /**
+     * Discards the index of runs and starts indexing all rows anew if runs
+     * are collapsed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void restartRunScan()
+    {
+        if (this.runScanner != null)
+            this.runScanner.cancelled = true;
+
+        this.runScanner = null;
+        this.runIndex = RowRunIndex.EMPTY;
+        if (this.minRunRows > 0)
+            startRunScan(1, 0);
+    }
+
+    /**
+     * Continues indexing rows which have been appended since the most recent
+     * indexing has started, unless it's still running or its runs haven't
+     * been applied, yet.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void resumeRunScan()
+    {
+        final RunScanner scanner = this.runScanner;
+        if (scanner != null && scanner.complete && scanner.runs.isEmpty()
+                && scanner.endRow < this.length / this.rowWidth)
+            startRunScan(Math.max(scanner.endRow, 1), scanner.openRunStart);
+    }
+
+    /**
+     * Starts indexing the runs of identical rows in the background.
+     *
+     * @param firstRow
+     *            The index of the first row which is compared with its
+     *            predecessor.
+     * @param runStart
+     *            The index of the first row of the run which contains the
+     *            predecessor of {@code firstRow}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void startRunScan(final long firstRow, final long runStart)
+    {
+        final RunScanner scanner = new RunScanner(firstRow, runStart);
+        this.runScanner = scanner;
+        (this.runExecutor != null ? this.runExecutor : getDefaultLoadExecutor()).execute(scanner);
+    }
+
+    /**
+     * Finds the runs of identical complete rows by comparing each row with
+     * its predecessor. The rows are read in large blocks, so each byte is
+     * read once. Completed runs and the run in progress are queued for
+     * {@link ReadonlyHexContainer#applyIndexedRuns()}, the latter replaces
+     * itself as soon as it grows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final class RunScanner implements Runnable
+    {
+        /**
+         * The index of the first row which is compared with its predecessor.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final long firstRow;
+
+        /**
+         * The number of complete rows when the indexing has been started.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        final long endRow;
+
+        /**
+         * The minimum number of identical rows of a run.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final int minRows;
+
+        /**
+         * Gets notified about found runs or {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final RowRunListener listener;
+
+        /**
+         * The found runs which haven't been applied, yet, as pairs of the
+         * first row and the row following the last row.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        final Queue<long[]> runs = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The index of the first row of the run which contains the last
+         * indexed row. Appended rows may continue this run.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        volatile long openRunStart;
+
+        /**
+         * Whether the indexing has been cancelled.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        volatile boolean cancelled;
+
+        /**
+         * Whether all rows up to {@link #endRow} have been indexed.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        volatile boolean complete;
+
+        /**
+         * @param firstRow
+         *            The index of the first row which is compared with its
+         *            predecessor.
+         * @param runStart
+         *            The index of the first row of the run which contains the
+         *            predecessor of {@code firstRow}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        RunScanner(final long firstRow, final long runStart)
+        {
+            this.firstRow = firstRow;
+            this.openRunStart = runStart;
+            this.endRow = ReadonlyHexContainer.this.length / ReadonlyHexContainer.this.rowWidth;
+            this.minRows = ReadonlyHexContainer.this.minRunRows;
+            this.listener = ReadonlyHexContainer.this.runListener;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                scan();
+            }
+            catch (final RuntimeException e)
+            {
+                // the source may be closed as soon as its container is disposed
+                if (!this.cancelled)
+                    throw e;
+            }
+        }
+
+        /**
+         * Indexes the rows, queues the found runs and notifies the listener.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private void scan()
+        {
+            final int rowWidth = ReadonlyHexContainer.this.rowWidth;
+            final ByteSource data = ReadonlyHexContainer.this.data;
+            // the buffer starts with the predecessor of the read rows
+            final byte[] buffer = new byte[(RUN_SCAN_ROWS + 1) * rowWidth];
+            long runStart = this.openRunStart;
+            long row = this.firstRow;
+            long notified = System.currentTimeMillis();
+            if (row < this.endRow)
+                data.read((row - 1) * rowWidth, buffer, 0, rowWidth);
+
+            while (row < this.endRow && !this.cancelled)
+            {
+                final int count = data.read(row * rowWidth, buffer, rowWidth, (int) Math.min(RUN_SCAN_ROWS, this.endRow - row) * rowWidth) / rowWidth;
+                if (count == 0)
+                    break;
+
+                for (int i = 1; i <= count; i++, row++)
+                    if (!equalsPredecessor(buffer, i * rowWidth, rowWidth))
+                    {
+                        if (row - runStart >= this.minRows)
+                            this.runs.add(new long[] { runStart, row });
+
+                        runStart = row;
+                    }
+
+                System.arraycopy(buffer, count * rowWidth, buffer, 0, rowWidth);
+                final long now = System.currentTimeMillis();
+                if (now - notified >= RUN_NOTIFICATION_INTERVAL)
+                {
+                    notified = now;
+                    if (row - runStart >= this.minRows)
+                        this.runs.add(new long[] { runStart, row });
+
+                    if (this.listener != null && !this.runs.isEmpty())
+                        this.listener.runsIndexed(ReadonlyHexContainer.this);
+                }
+            }
+
+            if (this.cancelled)
+                return;
+
+            if (row - runStart >= this.minRows)
+                this.runs.add(new long[] { runStart, row });
+
+            this.openRunStart = runStart;
+            this.complete = true;
+            if (this.listener != null)
+                this.listener.runsIndexed(ReadonlyHexContainer.this);
+        }
+
+        /**
+         * @param buffer
+         *            Contains the rows.
+         * @param start
+         *            The index of the first byte of a row within the buffer.
+         * @param rowWidth
+         *            The number of bytes per row.
+         * @return {@code true} if the row equals the preceding one.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private boolean equalsPredecessor(final byte[] buffer, final int start,
+                final int rowWidth)
+        {
+            for (int i = start; i < start + rowWidth; i++)
+                if (buffer[i] != buffer[i - rowWidth])
+                    return false;
+
+            return true;
+        }
+    }
+
+    /**
+     * Stops all work of this container in the background, e.g. as soon as it
+     * gets replaced by another container or its source gets closed. The
+     * indexing of runs is cancelled, rows which are currently being loaded
+     * are discarded and no listener is notified about them anymore. Rows
+     * requested afterwards are loaded on request.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void dispose()
+    {
+        if (this.runScanner != null)
+            this.runScanner.cancelled = true;
+
+        this.runScanner = null;
+        this.runListener = null;
+        this.loadExecutor = null;
+        this.loadListener = null;
+        invalidateRows();
+        this.pendingBlocks.clear();
+    }
+
+    /**
+     * Discards all rendered rows, including those which are currently being
+     * loaded in the background.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void invalidateRows()
+    {
+        synchronized (this.rowCache)
+        {
+            this.renderGeneration++;
+            this.rowCache.clear();
+        }
+    }
+
+    /**
+     * @return The number of rows which are loaded at once in the background.
+     *         A block must not evict itself from the row cache.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int getBlockRows()
+    {
+        return Math.max(1, Math.min(LOAD_BLOCK_ROWS, this.rowCache.getCapacity() / 2));
+    }
+
+    /**
+     * Loads the blocks of rows which follow the requested rows in scroll
+     * direction in the background unless they are already cached.
+     *
+     * @param previousFirstIndex
+     *            The index of the first row of the previous request.
+     * @param firstIndex
+     *            The index of the first requested row.
+     * @param count
+     *            The number of requested rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void prefetch(final long previousFirstIndex, final long firstIndex,
+            final int count)
+    {
+        final int rows = Math.min(this.prefetchRows, this.rowCache.getCapacity() - count);
+        if (rows <= 0 || firstIndex == previousFirstIndex)
+            return;
+
+        final long start = firstIndex > previousFirstIndex ? firstIndex + count
+                : Math.max(firstIndex - rows, 0);
+        final long end = Math.min(firstIndex > previousFirstIndex ? start + rows
+                : firstIndex, size());
+        final Executor executor = this.loadExecutor != null ? this.loadExecutor
+                : getDefaultLoadExecutor();
+        final int blockRows = getBlockRows();
+        for (long block = start / blockRows * blockRows; block < end; block += blockRows)
+        {
+            final long last = Math.min(block + blockRows, size()) - 1;
+            if (!this.rowCache.contains(getRowId(block))
+                    || !this.rowCache.contains(getRowId(last)))
+                requestBlock(getRowId(block), executor);
+        }
+    }
+
+    /**
+     * Loads the block of displayed rows around the specified row in the
+     * background unless it's already being loaded.
+     *
+     * @param offset
+     *            The offset of the requested row.
+     * @param executor
+     *            Loads the rows in the background.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void requestBlock(final long offset, final Executor executor)
+    {
+        final int blockRows = getBlockRows();
+        final int generation;
+        final RowRunIndex runs;
+        synchronized (this.rowCache)
+        {
+            generation = this.renderGeneration;
+            runs = this.runIndex;
+        }
+
+        final long first = runs.toDisplayIndex(offset / this.rowWidth) / blockRows * blockRows;
+        final long start = runs.toRowIndex(first) * this.rowWidth;
+        if (!this.pendingBlocks.add(start))
+            return;
+
+        final long end = Math.min(first + blockRows, getRowCount() - runs.getHiddenRows());
+
+        final OffsetFormat offsetFormat = this.offsetFormat;
+        final WordFormat wordFormat = this.wordFormat;
+        final DumpEncoding dumpEncoding = this.dumpEncoding;
+        final RowLoadListener listener = this.loadListener;
+        executor.execute(() ->
+        {
+            try
+            {
+                final List<ByteDataItem> rows = new ArrayList<>(blockRows);
+                for (long index = first; index < end; index++)
+                {
+                    final long rowIndex = runs.toRowIndex(index);
+                    final ByteDataItem row = new ByteDataItem(rowIndex * this.rowWidth, this.data, this.rowWidth, offsetFormat, wordFormat, dumpEncoding, runs.getRepeatedRows(rowIndex));
+                    row.prerender();
+                    rows.add(row);
+                }
+
+                synchronized (this.rowCache)
+                {
+                    if (generation != this.renderGeneration)
+                        return;
+
+                    for (final ByteDataItem row : rows)
+                        this.rowCache.put(row);
+                }
+
+                if (listener != null)
+                    listener.rowsLoaded(new RowIdList(first, rows.size(), this.rowWidth, runs));
+            }
+            catch (final RuntimeException e)
+            {
+                // the source may be closed as soon as the container is disposed
+                synchronized (this.rowCache)
+                {
+                    if (generation == this.renderGeneration)
+                        throw e;
+                }
+            }
+            finally
+            {
+                this.pendingBlocks.remove(start);
+            }
+        });
+    }
+
+    /**
+     * @return The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public DumpEncoding getDumpEncoding()
+    {
+        return this.dumpEncoding;
+    }
+
+    /**
+     * Specifies the code page of the ASCII column. Already rendered rows are
+     * discarded.
+     *
+     * @param dumpEncoding
+     *            The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setDumpEncoding(final DumpEncoding dumpEncoding)
+    {
+        this.dumpEncoding = dumpEncoding;
+        invalidateRows();
+    }
+
+    /**
+     * @return The format of the offset column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public OffsetFormat getOffsetFormat()
+    {
+        return this.offsetFormat;
+    }
+
+    /**
+     * Specifies how the offset column displays the row offsets. Already
+     * rendered rows are discarded.
+     *
+     * @param radix
+     *            The number system of the displayed offsets.
+     * @param baseAddress
+     *            The value to be added to each displayed offset, e.g. the
+     *            virtual address of the displayed data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setOffsetFormat(final OffsetRadix radix, final long baseAddress)
+    {
+        this.offsetFormat = new OffsetFormat(this.length, this.rowWidth, radix, baseAddress);
+        invalidateRows();
+    }
+
+    /**
+     * @return The format of the data cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public WordFormat getWordFormat()
+    {
+        return this.wordFormat;
+    }
+
+    /**
+     * Specifies how many bytes are displayed by each data cell and in which
+     * order. Only the data columns of the first byte of each word remain
+     * properties of this container. Already rendered rows are discarded.
+     *
+     * @param wordFormat
+     *            The format of the data cells.
+     * @throws IllegalArgumentException
+     *             If the row width is not a multiple of the word size.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setWordFormat(final WordFormat wordFormat)
+    {
+        wordFormat.checkRowWidth(this.rowWidth);
+        this.wordFormat = wordFormat;
+        invalidateRows();
+    }
+
+    /**
+     * Converts the specified item ID into the byte offset it represents. Item
+     * IDs of this container are {@link Long} values, but {@link Integer} values
+     * are accepted as well.
+     *
+     * @param itemId
+     *            The item ID to be converted.
+     * @return The byte offset represented by the specified item ID or
+     *         {@code -1} if it's not an offset at all.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static long toOffset(final Object itemId)
+    {
+        if (itemId instanceof Long || itemId instanceof Integer)
+            return ((Number) itemId).longValue();
+
+        return -1;
+    }
+
+    /**
+     * @return The total number of hex view rows which is required in order to
+     *         display all bytes. Unlike {@link #size()} this number includes
+     *         the rows hidden by collapsed runs and isn't limited to the range
+     *         of {@code int}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getRowCount()
+    {
+        if (this.length % this.rowWidth == 0)
+            return this.length / this.rowWidth;
+
+        return this.length / this.rowWidth + 1;
     }
 
     @Override
     public Object nextItemId(final Object itemId)
     {
-        if (itemId != null && itemId instanceof Integer)
+        final long offset = toOffset(itemId);
+        if (offset >= 0)
         {
-            final int offset = (int) itemId;
-            if (offset < 0)
-                return null;
+            final RowRunIndex runs = this.runIndex;
+            long nextRow = offset / this.rowWidth + 1;
+            if (runs.isHidden(nextRow))
+                nextRow = runs.toRowIndex(runs.toDisplayIndex(nextRow) + 1);
 
-            int nextOffset = offset + 16;
-            if (offset % 16 > 0)
-                nextOffset = (offset / 16) * 16 + 16;
-
-            return nextOffset < this.data.length ? nextOffset : null;
+            final long nextOffset = nextRow * this.rowWidth;
+            return nextOffset < this.length ? nextOffset : null;
         }
 
         return null;
@@ -65,20 +1305,17 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public Object prevItemId(final Object itemId)
     {
-        if (itemId != null && itemId instanceof Integer)
+        final long offset = toOffset(itemId);
+        if (offset >= 0)
         {
-            final int offset = (int) itemId;
-            if (offset < 0)
-                return null;
-
-            int prevOffset = offset - 16;
+            long prevOffset = offset - this.rowWidth;
             if (prevOffset < 0)
-                return offset > 0 && offset < this.data.length ? 0 : null;
-            if (offset % 16 > 0)
-                prevOffset = (offset / 16) * 16;
+                return offset > 0 && offset < this.length ? 0L : null;
+            if (offset % this.rowWidth > 0)
+                prevOffset = (offset / this.rowWidth) * this.rowWidth;
 
-            return prevOffset < this.data.length && prevOffset >= 0 ? prevOffset
-                    : null;
+            return prevOffset < this.length && prevOffset >= 0
+                    ? toDisplayedRowId(prevOffset) : null;
         }
 
         return null;
@@ -87,8 +1324,8 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public Object firstItemId()
     {
-        if (this.data.length > 0)
-            return 0;
+        if (this.length > 0)
+            return 0L;
 
         return null;
     }
@@ -96,9 +1333,8 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public Object lastItemId()
     {
-        if (this.data.length > 0)
-            return this.data.length % 16 == 0 ? this.data.length - 16
-                    : (this.data.length / 16) * 16;
+        if (this.length > 0)
+            return toDisplayedRowId(this.length - 1);
 
         return null;
     }
@@ -106,8 +1342,8 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public boolean isFirstId(final Object itemId)
     {
-        if (itemId != null && itemId instanceof Integer)
-            return this.data.length > 0 ? ((int) itemId) == 0 : false;
+        if (toOffset(itemId) >= 0)
+            return this.length > 0 ? toOffset(itemId) == 0 : false;
 
         return false;
     }
@@ -115,8 +1351,8 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public boolean isLastId(final Object itemId)
     {
-        if (itemId != null && itemId instanceof Integer)
-            return (int) itemId == (this.data.length / 16) * 16;
+        if (toOffset(itemId) >= 0)
+            return toOffset(itemId) == toDisplayedRowId(this.length);
 
         return false;
     }
@@ -136,55 +1372,58 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     }
 
     @Override
-    public Item getItem(final Object itemId)
+    public ByteDataItem getItem(final Object itemId)
     {
-        if (itemId != null && itemId instanceof Integer)
+        final long offset = toOffset(itemId);
+        if (this.length > 0 && offset >= 0 && (offset % this.rowWidth == 0))
         {
-            final int offset = (int) itemId;
-            if (this.data.length > 0 && offset >= 0 && (offset % 16 == 0))
-                return new ByteDataItem(offset, this.data);
+            final RowRunIndex runs = this.runIndex;
+            if (runs.isHidden(offset / this.rowWidth))
+                return null;
+
+            ByteDataItem item = this.rowCache.get(offset);
+            if (item == null && this.loadExecutor != null)
+            {
+                requestBlock(offset, this.loadExecutor);
+                return ByteDataItem.createPlaceholder(offset, this.rowWidth, this.offsetFormat, this.wordFormat, this.dumpEncoding);
+            }
+
+            if (item == null)
+            {
+                item = new ByteDataItem(offset, this.data, this.rowWidth, this.offsetFormat, this.wordFormat, this.dumpEncoding, runs.getRepeatedRows(offset / this.rowWidth));
+                this.rowCache.put(item);
+            }
+
+            return item;
         }
 
         return null;
     }
 
     @Override
-    public Collection<ColumnTypes> getContainerPropertyIds()
+    public Collection<DataColumn> getContainerPropertyIds()
     {
-        return ColumnTypes.DATA_COLUMN_IDS;
+        return this.wordFormat.getColumns(this.rowWidth);
     }
 
+    /**
+     * @return A lazy view of all displayed row IDs which occupies constant
+     *         memory, regardless of the number of rows.
+     */
     @Override
-    public Collection<?> getItemIds()
+    public List<Long> getItemIds()
     {
-        final List<Integer> result = new ArrayList<>();
-        final int total = this.data.length % 16 > 0 ? this.data.length / 16 + 1
-                : this.data.length / 16;
-        for (int id = 0, i = 0; i < total; id += 16, i++)
-            result.add(id);
-
-        return result;
+        return new RowIdList(0, size(), this.rowWidth, this.runIndex);
     }
 
     @Override
     public Property<String> getContainerProperty(final Object itemId,
             final Object propertyId)
     {
-        final Item item = getItem(itemId);
-        if (item != null && propertyId != null && itemId instanceof Integer)
-        {
-            // search column of hex row
-            final Collection<ColumnTypes> allPropertyIds = getContainerPropertyIds();
-            for (final ColumnTypes id : allPropertyIds)
-                if (propertyId.equals(id))
-                {
-                    // extract value of cell
-                    final String columnValue = id.getDisplayValue(this.data, (int) itemId);
-                    return columnValue != null
-                            ? new RowProperty(columnValue)
-                            : null;
-                }
-        }
+        final ByteDataItem item = getItem(itemId);
+        if (item != null && propertyId instanceof DataColumn
+                && ((DataColumn) propertyId).getOffsetInRow() < this.rowWidth)
+            return item.getDataProperty((DataColumn) propertyId);
 
         return null;
     }
@@ -192,7 +1431,7 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public Class<?> getType(final Object propertyId)
     {
-        if (propertyId != null && propertyId instanceof ColumnTypes)
+        if (propertyId instanceof DataColumn || propertyId instanceof ColumnTypes)
             return String.class;
 
         return Object.class;
@@ -201,22 +1440,16 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public int size()
     {
-        if (this.data.length % 16 == 0)
-            return this.data.length / 16;
-
-        return this.data.length / 16 + 1;
+        // Vaadin containers are indexed by int
+        return (int) Math.min(getRowCount() - this.runIndex.getHiddenRows(), Integer.MAX_VALUE);
     }
 
     @Override
     public boolean containsId(final Object itemId)
     {
-        if (itemId != null && itemId instanceof Integer)
-        {
-            final int offset = (int) itemId;
-            return offset >= 0 && offset < this.data.length && offset % 16 == 0;
-        }
-
-        return false;
+        final long offset = toOffset(itemId);
+        return offset >= 0 && offset < this.length && offset % this.rowWidth == 0
+                && !this.runIndex.isHidden(offset / this.rowWidth);
     }
 
     @Override
@@ -263,11 +1496,13 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public int indexOfId(final Object itemId)
     {
-        if (itemId != null && itemId instanceof Integer)
+        final long offset = toOffset(itemId);
+        if (offset >= 0 && offset % this.rowWidth == 0 && offset < this.length)
         {
-            final int offset = (int) itemId;
-            return offset % 16 == 0 && offset < this.data.length ? offset / 16
-                    : -1;
+            final RowRunIndex runs = this.runIndex;
+            final long row = offset / this.rowWidth;
+            if (!runs.isHidden(row) && runs.toDisplayIndex(row) < Integer.MAX_VALUE)
+                return (int) runs.toDisplayIndex(row);
         }
 
         return -1;
@@ -276,30 +1511,40 @@ public class ReadonlyHexContainer implements Indexed, Sortable
     @Override
     public Object getIdByIndex(final int index)
     {
-        final int offset = index * 16;
-        return offset < this.data.length ? offset : null;
+        final long offset = index >= 0 ? getRowId(index) : -1;
+        return offset >= 0 && offset < this.length ? offset : null;
     }
 
+    /**
+     * @return A lazy view of the requested row IDs which occupies constant
+     *         memory. Indexes out of range are skipped.
+     */
     @Override
-    public List<Integer> getItemIds(final int startIndex,
+    public List<Long> getItemIds(final int startIndex,
             final int numberOfItems)
     {
-        final List<Integer> result = new ArrayList<>();
-        final Object lastItemId = lastItemId();
-        for (int i = startIndex; i < startIndex + numberOfItems; i++)
-        {
-            if (lastItemId == null)
-                break;
+        final long first = Math.max(startIndex, 0);
+        final long end = Math.min((long) startIndex + numberOfItems, size());
+        final long previousFirstIndex = this.activeFirstIndex;
+        this.activeFirstIndex = first;
+        this.activeCount = (int) Math.max(end - first, 0);
+        if (this.prefetchRows > 0)
+            prefetch(previousFirstIndex, first, this.activeCount);
 
-            if (i < 0)
-                continue;
-
-            final int offset = i * 16;
-            if (offset <= (int) lastItemId)
-                result.add(offset);
-        }
+        return new RowIdList(first, this.activeCount, this.rowWidth, this.runIndex);
+    }
 
-        return result;
+    /**
+     * @return The row IDs most recently requested by
+     *         {@link #getItemIds(int, int)}. The grid requests the entire range
+     *         of rows cached by its client, so these are the only rows which
+     *         have to be resent after their rendering has changed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<Long> getActiveItemIds()
+    {
+        return new RowIdList(this.activeFirstIndex, this.activeCount, this.rowWidth, this.runIndex);
     }
 
     @Override
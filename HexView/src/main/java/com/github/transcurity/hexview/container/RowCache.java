@@ -0,0 +1,301 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.container;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.transcurity.hexview.properties.ByteDataItem;
+
+/**
+ * A bounded cache of rendered rows indexed by their offset. The least recently
+ * used row is discarded first as soon as either the maximum number of rows or
+ * the memory budget is exceeded. Rows are immutable, so the offset, data and
+ * ASCII cells of a cached row are rendered only once, no matter how often the
+ * user scrolls back and forth over it.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Hits and misses are counted in order to tune the limits.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class RowCache implements Serializable
+{
+    private static final long serialVersionUID = 6093582261745394203L;
+
+    /**
+     * The default maximum number of cached rows. It covers the rows of a few
+     * grid pages.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_MAX_ROWS = 256;
+
+    /**
+     * The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int rowWidth;
+
+    /**
+     * The maximum number of cached rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int maxRows = DEFAULT_MAX_ROWS;
+
+    /**
+     * The maximum estimated heap usage of all cached rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long maxBytes = Long.MAX_VALUE;
+
+    /**
+     * The number of rows which can be cached within both limits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int capacity = DEFAULT_MAX_ROWS;
+
+    /**
+     * The number of lookups which found a cached row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups which didn't find a cached row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long missCount;
+
+    /**
+     * The cached rows in the order of their last access.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Map<Long, ByteDataItem> rows = new LinkedHashMap<Long, ByteDataItem>(DEFAULT_MAX_ROWS, 0.75f, true)
+    {
+        private static final long serialVersionUID = -2640497262437911504L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, ByteDataItem> eldest)
+        {
+            return size() > RowCache.this.capacity;
+        }
+    };
+
+    /**
+     * @param rowWidth
+     *            The number of bytes per row, which is required in order to
+     *            estimate the heap usage of a row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RowCache(final int rowWidth)
+    {
+        this.rowWidth = rowWidth;
+    }
+
+    /**
+     * Estimates the heap usage of a rendered row including its raw bytes, its
+     * data cells and its offset and ASCII cells.
+     *
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @return The estimated number of bytes of a cached row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static long estimateRowSize(final int rowWidth)
+    {
+        // item and cell objects plus a raw byte, two hex digits and an ASCII
+        // character per byte
+        return 192 + 7L * rowWidth;
+    }
+
+    /**
+     * @return The maximum number of cached rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized int getMaxRows()
+    {
+        return this.maxRows;
+    }
+
+    /**
+     * @return The maximum estimated heap usage of all cached rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized long getMaxBytes()
+    {
+        return this.maxBytes;
+    }
+
+    /**
+     * @return The number of rows which can be cached within both limits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * Specifies the limits of the cache. The least recently used rows are
+     * discarded until both limits are satisfied, but at least one row is
+     * always cached.
+     *
+     * @param maxRows
+     *            The maximum number of cached rows.
+     * @param maxBytes
+     *            The maximum estimated heap usage of all cached rows, see
+     *            {@link #estimateRowSize(int)}.
+     * @throws IllegalArgumentException
+     *             If a limit is not positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized void setLimits(final int maxRows, final long maxBytes)
+    {
+        if (maxRows < 1 || maxBytes < 1)
+            throw new IllegalArgumentException("Row cache limits must be positive: "
+                    + maxRows + " rows, " + maxBytes + " bytes");
+
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.capacity = (int) Math.max(1, Math.min(maxRows, maxBytes / estimateRowSize(this.rowWidth)));
+
+        final Iterator<ByteDataItem> eldest = this.rows.values().iterator();
+        while (this.rows.size() > this.capacity)
+        {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Looks up a rendered row and counts the lookup as hit or miss.
+     *
+     * @param offset
+     *            The offset of the row.
+     * @return Either the cached row or {@code null} if it has to be rendered.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized ByteDataItem get(final long offset)
+    {
+        final ByteDataItem result = this.rows.get(offset);
+        if (result != null)
+            this.hitCount++;
+        else
+            this.missCount++;
+
+        return result;
+    }
+
+    /**
+     * Checks whether a row is cached without counting a lookup or changing the
+     * order of eviction.
+     *
+     * @param offset
+     *            The offset of the row.
+     * @return {@code true} if the row is cached.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized boolean contains(final long offset)
+    {
+        return this.rows.containsKey(offset);
+    }
+
+    /**
+     * Adds a rendered row. It replaces a cached row with the same offset.
+     *
+     * @param row
+     *            The row to be cached.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized void put(final ByteDataItem row)
+    {
+        this.rows.put(row.getOffset(), row);
+    }
+
+    /**
+     * Discards a single row, e.g. because further bytes have been appended to
+     * it.
+     *
+     * @param offset
+     *            The offset of the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized void remove(final long offset)
+    {
+        this.rows.remove(offset);
+    }
+
+    /**
+     * Discards all cached rows, e.g. because their rendering has changed. The
+     * statistics are kept.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized void clear()
+    {
+        this.rows.clear();
+    }
+
+    /**
+     * @return The number of currently cached rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized int size()
+    {
+        return this.rows.size();
+    }
+
+    /**
+     * @return The number of lookups which found a cached row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    /**
+     * @return The number of lookups which didn't find a cached row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    /**
+     * Sets the hit and miss counters to zero.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized void resetStatistics()
+    {
+        this.hitCount = 0;
+        this.missCount = 0;
+    }
+}
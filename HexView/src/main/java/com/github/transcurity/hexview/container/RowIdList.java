@@ -0,0 +1,138 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.container;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of consecutive hex view row IDs which computes its
+ * elements on demand instead of storing them. Therefore it occupies constant
+ * memory, regardless of the number of rows it represents. Rows hidden by
+ * collapsed runs of identical rows are skipped.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class RowIdList extends AbstractList<Long> implements RandomAccess, Serializable
+{
+    private static final long serialVersionUID = 5409417632590226728L;
+
+    /**
+     * The index of the first element among the displayed rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long firstIndex;
+
+    /**
+     * The number of elements.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int size;
+
+    /**
+     * The number of bytes per row which is the distance between two
+     * consecutive row IDs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int rowWidth;
+
+    /**
+     * Maps the indexes of the displayed rows to row IDs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final RowRunIndex runIndex;
+
+    /**
+     * @param firstIndex
+     *            The row index of the first element.
+     * @param size
+     *            The number of elements.
+     * @param rowWidth
+     *            The number of bytes per row which is the distance between two
+     *            consecutive row IDs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    RowIdList(final long firstIndex, final int size, final int rowWidth)
+    {
+        this(firstIndex, size, rowWidth, RowRunIndex.EMPTY);
+    }
+
+    /**
+     * @param firstIndex
+     *            The index of the first element among the displayed rows.
+     * @param size
+     *            The number of elements.
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @param runIndex
+     *            Maps the indexes of the displayed rows to row IDs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    RowIdList(final long firstIndex, final int size, final int rowWidth,
+            final RowRunIndex runIndex)
+    {
+        this.firstIndex = firstIndex;
+        this.size = Math.max(size, 0);
+        this.rowWidth = rowWidth;
+        this.runIndex = runIndex;
+    }
+
+    @Override
+    public Long get(final int index)
+    {
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index " + index
+                    + " is out of range [0, " + this.size + ")");
+
+        return this.runIndex.toRowIndex(this.firstIndex + index) * this.rowWidth;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public int indexOf(final Object o)
+    {
+        final long offset = ReadonlyHexContainer.toOffset(o);
+        if (offset < 0 || offset % this.rowWidth != 0
+                || this.runIndex.isHidden(offset / this.rowWidth))
+            return -1;
+
+        final long index = this.runIndex.toDisplayIndex(offset / this.rowWidth) - this.firstIndex;
+        return index >= 0 && index < this.size ? (int) index : -1;
+    }
+
+    @Override
+    public int lastIndexOf(final Object o)
+    {
+        // each ID is unique
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(final Object o)
+    {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public RowIdList subList(final int fromIndex, final int toIndex)
+    {
+        if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", "
+                    + toIndex + ") is out of range [0, " + this.size + ")");
+
+        return new RowIdList(this.firstIndex + fromIndex, toIndex - fromIndex, this.rowWidth, this.runIndex);
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.container;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Gets notified as soon as rows which have been requested as placeholders are
+ * loaded in the background. It's invoked by the loading thread, so it must not
+ * access UI components without holding the session lock, e.g. by means of
+ * {@code UI.access(Runnable)}.
+ *
+ * @author Andreas "PAX" Lück
+ */
+@FunctionalInterface
+public interface RowLoadListener extends Serializable
+{
+    /**
+     * Invoked once per loaded block of rows.
+     *
+     * @param itemIds
+     *            The IDs of the loaded rows in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    void rowsLoaded(List<Long> itemIds);
+}
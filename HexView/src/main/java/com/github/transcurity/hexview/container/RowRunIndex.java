@@ -0,0 +1,325 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.container;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable index of runs of identical rows which maps between the indexes
+ * of all rows and the indexes of the displayed rows. A collapsed run is
+ * displayed as its first row only, which summarizes the following identical
+ * rows like the star line of {@code hexdump}. An expanded run displays all of
+ * its rows.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Changes create a new index, so background threads can keep using the index
+ * they have started with.
+ *
+ * @author Andreas "PAX" Lück
+ */
+final class RowRunIndex implements Serializable
+{
+    private static final long serialVersionUID = 4613902847361085216L;
+
+    /**
+     * An index without any runs which displays all rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static final RowRunIndex EMPTY = new RowRunIndex(new long[0], new long[0], new boolean[0]);
+
+    /**
+     * The row indexes of the first rows of the runs in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long[] starts;
+
+    /**
+     * The row indexes following the last rows of the runs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long[] ends;
+
+    /**
+     * Whether the runs display all of their rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final boolean[] expanded;
+
+    /**
+     * The number of rows hidden by the runs preceding each run.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long[] hiddenBefore;
+
+    /**
+     * The number of rows hidden by all runs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long hiddenRows;
+
+    /**
+     * @param starts
+     *            The row indexes of the first rows of the runs in ascending
+     *            order.
+     * @param ends
+     *            The row indexes following the last rows of the runs.
+     * @param expanded
+     *            Whether the runs display all of their rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private RowRunIndex(final long[] starts, final long[] ends,
+            final boolean[] expanded)
+    {
+        this.starts = starts;
+        this.ends = ends;
+        this.expanded = expanded;
+        this.hiddenBefore = new long[starts.length];
+
+        long hidden = 0;
+        for (int i = 0; i < starts.length; i++)
+        {
+            this.hiddenBefore[i] = hidden;
+            hidden += getHiddenRows(i);
+        }
+
+        this.hiddenRows = hidden;
+    }
+
+    /**
+     * Adds runs which follow the indexed ones. A run which starts at the same
+     * row as the last indexed run replaces it, e.g. because more identical
+     * rows have been appended to the data. It keeps its expansion state.
+     *
+     * @param runs
+     *            The first row and the row following the last row of each run
+     *            in ascending order. Every run comprises at least two rows.
+     * @return A new index containing the indexed and the added runs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    RowRunIndex append(final List<long[]> runs)
+    {
+        if (runs.isEmpty())
+            return this;
+
+        int count = this.starts.length;
+        final long[] newStarts = Arrays.copyOf(this.starts, count + runs.size());
+        final long[] newEnds = Arrays.copyOf(this.ends, newStarts.length);
+        final boolean[] newExpanded = Arrays.copyOf(this.expanded, newStarts.length);
+        for (final long[] run : runs)
+        {
+            if (count == 0 || newStarts[count - 1] != run[0])
+                newStarts[count++] = run[0];
+
+            newEnds[count - 1] = run[1];
+        }
+
+        return new RowRunIndex(Arrays.copyOf(newStarts, count), Arrays.copyOf(newEnds, count), Arrays.copyOf(newExpanded, count));
+    }
+
+    /**
+     * @param run
+     *            The index of a run.
+     * @param expand
+     *            {@code true} in order to display all rows of the run or
+     *            {@code false} in order to display its first row only.
+     * @return A new index with the changed expansion state of the run.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    RowRunIndex withExpanded(final int run, final boolean expand)
+    {
+        if (this.expanded[run] == expand)
+            return this;
+
+        final boolean[] newExpanded = this.expanded.clone();
+        newExpanded[run] = expand;
+        return new RowRunIndex(this.starts, this.ends, newExpanded);
+    }
+
+    /**
+     * @return The number of indexed runs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int getRunCount()
+    {
+        return this.starts.length;
+    }
+
+    /**
+     * @return The number of rows hidden by all collapsed runs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    long getHiddenRows()
+    {
+        return this.hiddenRows;
+    }
+
+    /**
+     * @param run
+     *            The index of a run.
+     * @return The number of rows hidden by the run, which are all rows but the
+     *         first one if the run is collapsed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long getHiddenRows(final int run)
+    {
+        return this.expanded[run] ? 0 : this.ends[run] - this.starts[run] - 1;
+    }
+
+    /**
+     * @param run
+     *            The index of a run.
+     * @return The row index of the first row of the run.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    long getStart(final int run)
+    {
+        return this.starts[run];
+    }
+
+    /**
+     * @param run
+     *            The index of a run.
+     * @return {@code true} if the run displays all of its rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    boolean isExpanded(final int run)
+    {
+        return this.expanded[run];
+    }
+
+    /**
+     * @param row
+     *            A row index.
+     * @return The index of the last run starting at or before the row or
+     *         {@code -1} if there's none.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int findPrecedingRun(final long row)
+    {
+        int low = 0;
+        int high = this.starts.length - 1;
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            if (this.starts[middle] <= row)
+                low = middle + 1;
+            else
+                high = middle - 1;
+        }
+
+        return high;
+    }
+
+    /**
+     * @param row
+     *            A row index.
+     * @return The index of the run containing the row or {@code -1} if the
+     *         row isn't part of a run.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int findRun(final long row)
+    {
+        final int run = findPrecedingRun(row);
+        return run >= 0 && row < this.ends[run] ? run : -1;
+    }
+
+    /**
+     * @param row
+     *            A row index.
+     * @return {@code true} if the row belongs to a collapsed run without being
+     *         its first row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    boolean isHidden(final long row)
+    {
+        final int run = findRun(row);
+        return run >= 0 && !this.expanded[run] && row > this.starts[run];
+    }
+
+    /**
+     * @param row
+     *            A row index.
+     * @return The number of rows summarized by the row, which is the length of
+     *         the run if it's the first row of a collapsed run and {@code 1}
+     *         otherwise.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    long getRepeatedRows(final long row)
+    {
+        final int run = findRun(row);
+        return run >= 0 && !this.expanded[run] && row == this.starts[run]
+                ? this.ends[run] - this.starts[run] : 1;
+    }
+
+    /**
+     * @param row
+     *            A row index.
+     * @return The index of the displayed row which represents the row. Hidden
+     *         rows are represented by the first row of their run.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    long toDisplayIndex(final long row)
+    {
+        final int run = findPrecedingRun(row);
+        if (run < 0)
+            return row;
+
+        final long displayStart = this.starts[run] - this.hiddenBefore[run];
+        if (row < this.ends[run])
+            return this.expanded[run] ? displayStart + row - this.starts[run]
+                    : displayStart;
+
+        return row - this.hiddenBefore[run] - getHiddenRows(run);
+    }
+
+    /**
+     * @param displayIndex
+     *            The index of a displayed row.
+     * @return The row index of the displayed row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    long toRowIndex(final long displayIndex)
+    {
+        int low = 0;
+        int high = this.starts.length - 1;
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            if (this.starts[middle] - this.hiddenBefore[middle] <= displayIndex)
+                low = middle + 1;
+            else
+                high = middle - 1;
+        }
+
+        if (high < 0)
+            return displayIndex;
+
+        final long displayStart = this.starts[high] - this.hiddenBefore[high];
+        return displayIndex == displayStart ? this.starts[high]
+                : displayIndex + this.hiddenBefore[high] + getHiddenRows(high);
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.container;
+
+import java.io.Serializable;
+
+/**
+ * Gets notified as soon as runs of identical rows have been found in the
+ * background, see {@link ReadonlyHexContainer#setRunCollapsing(int, java.util.concurrent.Executor, RowRunListener)}.
+ * It's invoked by the indexing thread, so it must not access UI components
+ * without holding the session lock, e.g. by means of
+ * {@code UI.access(Runnable)}.
+ *
+ * @author Andreas "PAX" Lück
+ */
+@FunctionalInterface
+public interface RowRunListener extends Serializable
+{
+    /**
+     * Invoked repeatedly while the data is being indexed and once as soon as
+     * the indexing has finished. The found runs take effect as soon as
+     * {@link ReadonlyHexContainer#applyIndexedRuns()} is invoked.
+     *
+     * @param container
+     *            The container whose rows have been indexed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    void runsIndexed(ReadonlyHexContainer container);
+}
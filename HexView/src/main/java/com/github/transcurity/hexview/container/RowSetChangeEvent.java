@@ -0,0 +1,43 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.container;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Container.ItemSetChangeEvent;
+
+/**
+ * Notifies that the rows of a hex view container may have changed
+ * arbitrarily, e.g. because bytes have been discarded from the start of a
+ * stream.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class RowSetChangeEvent implements ItemSetChangeEvent
+{
+    private static final long serialVersionUID = 1875044193702384371L;
+
+    /**
+     * The container whose rows have changed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Container container;
+
+    /**
+     * @param container
+     *            The container whose rows have changed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    RowSetChangeEvent(final Container container)
+    {
+        this.container = container;
+    }
+
+    @Override
+    public Container getContainer()
+    {
+        return this.container;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.container;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Container.Indexed.ItemAddEvent;
+
+/**
+ * Notifies that rows have been appended to a hex view container, so only
+ * these rows have to be sent to the browser.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class RowsAddedEvent extends RowSetChangeEvent implements ItemAddEvent
+{
+    private static final long serialVersionUID = -5309937402741553516L;
+
+    /**
+     * The index of the first added row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int firstIndex;
+
+    /**
+     * The number of added rows.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int count;
+
+    /**
+     * The ID of the first added row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long firstItemId;
+
+    /**
+     * @param container
+     *            The container whose rows have been added.
+     * @param firstIndex
+     *            The index of the first added row.
+     * @param count
+     *            The number of added rows.
+     * @param firstItemId
+     *            The ID of the first added row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    RowsAddedEvent(final Container container, final int firstIndex,
+            final int count, final long firstItemId)
+    {
+        super(container);
+        this.firstIndex = firstIndex;
+        this.count = count;
+        this.firstItemId = firstItemId;
+    }
+
+    @Override
+    public Object getFirstItemId()
+    {
+        return this.firstItemId;
+    }
+
+    @Override
+    public int getFirstIndex()
+    {
+        return this.firstIndex;
+    }
+
+    @Override
+    public int getAddedItemsCount()
+    {
+        return this.count;
+    }
+}
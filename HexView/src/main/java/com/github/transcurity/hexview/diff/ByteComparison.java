@@ -0,0 +1,361 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.diff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import com.github.transcurity.hexview.search.SearchHit;
+import com.github.transcurity.hexview.search.SearchListener;
+import com.github.transcurity.hexview.search.SearchTask;
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * Compares two sources byte by byte in the background and collects the ranges
+ * of differing bytes as {@link SearchHit hits}, so they can be highlighted and
+ * navigated like search hits. Bytes beyond the end of the shorter source form
+ * a differing range, too.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The sources are split into chunks which are compared in parallel. Equal
+ * bytes are skipped a word of eight bytes at a time. Adjacent differing
+ * ranges of neighbouring chunks are merged, so the result is the same as of a
+ * sequential comparison. Ranges which touch a chunk boundary are therefore
+ * reported as soon as the neighbouring chunk has been compared, all other
+ * ranges immediately.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class ByteComparison extends SearchTask
+{
+    /**
+     * The default number of bytes per chunk (1 MiB).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * The source which is compared to {@link #getSource()}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteSource other;
+
+    /**
+     * The number of bytes per chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int chunkSize;
+
+    /**
+     * Creates a comparison using the default chunk size.
+     *
+     * @param source
+     *            The original data.
+     * @param other
+     *            The data which is compared to the original one.
+     * @param listener
+     *            Gets notified about differing ranges or {@code null}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteComparison(final ByteSource source, final ByteSource other,
+            final SearchListener listener)
+    {
+        this(source, other, listener, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param source
+     *            The original data.
+     * @param other
+     *            The data which is compared to the original one.
+     * @param listener
+     *            Gets notified about differing ranges or {@code null}.
+     * @param chunkSize
+     *            The number of bytes per chunk compared by one thread.
+     * @throws IllegalArgumentException
+     *             If {@code chunkSize} isn't positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteComparison(final ByteSource source, final ByteSource other,
+            final SearchListener listener, final int chunkSize)
+    {
+        super(source, listener);
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+
+        this.other = other;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return The data which is compared to the original one.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteSource getOther()
+    {
+        return this.other;
+    }
+
+    /**
+     * @return The number of bytes per chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getChunkSize()
+    {
+        return this.chunkSize;
+    }
+
+    @Override
+    protected void search()
+    {
+        final long length = getSource().length();
+        final long otherLength = this.other.length();
+        final long common = Math.min(length, otherLength);
+        final Edges edges = new ChunkTask(0, (common + this.chunkSize - 1) / this.chunkSize, common).invoke();
+
+        // the surplus bytes of the longer source continue a trailing range
+        final long longer = Math.max(length, otherLength);
+        if (longer > common && !isStopped())
+        {
+            final SearchHit surplus = edges.trailing != null
+                    ? new SearchHit(edges.trailing.getOffset(), longer - edges.trailing.getOffset())
+                    : new SearchHit(common, longer - common);
+            if (edges.leading == edges.trailing)
+                edges.leading = surplus;
+            edges.trailing = surplus;
+            searched(Math.max(0, length - common));
+        }
+
+        final List<SearchHit> remaining = new ArrayList<>(2);
+        if (edges.leading != null)
+            remaining.add(edges.leading);
+        if (edges.trailing != null && edges.trailing != edges.leading)
+            remaining.add(edges.trailing);
+        report(remaining);
+    }
+
+    /**
+     * Compares the bytes of a single chunk.
+     *
+     * @param bytes
+     *            The bytes of the original data.
+     * @param otherBytes
+     *            The bytes of the compared data.
+     * @param length
+     *            The number of bytes to be compared.
+     * @param position
+     *            The position of the chunk within the sources.
+     * @return The differing ranges in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static List<SearchHit> compare(final byte[] bytes,
+            final byte[] otherBytes, final int length, final long position)
+    {
+        final ByteBuffer words = ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+        final ByteBuffer otherWords = ByteBuffer.wrap(otherBytes).order(ByteOrder.nativeOrder());
+        final List<SearchHit> result = new ArrayList<>();
+        int i = 0;
+        while (i < length)
+        {
+            while (i + Long.BYTES <= length && words.getLong(i) == otherWords.getLong(i))
+                i += Long.BYTES;
+            while (i < length && bytes[i] == otherBytes[i])
+                i++;
+            if (i == length)
+                break;
+
+            final int start = i;
+            while (i < length && bytes[i] != otherBytes[i])
+                i++;
+            result.add(new SearchHit(position + start, i - start));
+        }
+
+        return result;
+    }
+
+    /**
+     * @param range
+     *            A differing range.
+     * @return The position after the last byte of the range.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static long getEnd(final SearchHit range)
+    {
+        return range.getOffset() + range.getLength();
+    }
+
+    /**
+     * The differing ranges of a range of chunks which touch its bounds and
+     * haven't been reported, yet, because they may continue in the
+     * neighbouring chunks. A single range may touch both bounds.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final class Edges
+    {
+        /**
+         * The differing range starting at the first byte or {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        SearchHit leading;
+
+        /**
+         * The differing range ending at the last byte or {@code null}.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        SearchHit trailing;
+    }
+
+    /**
+     * Compares a range of chunks by splitting it until single chunks remain
+     * and merges the differing ranges at the boundaries of the halves.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private class ChunkTask extends RecursiveTask<Edges>
+    {
+        private static final long serialVersionUID = 2407125530891427516L;
+
+        /**
+         * The index of the first chunk to be compared.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final long first;
+
+        /**
+         * The index after the last chunk to be compared.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final long end;
+
+        /**
+         * The number of bytes both sources provide.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final long common;
+
+        /**
+         * @param first
+         *            The index of the first chunk to be compared.
+         * @param end
+         *            The index after the last chunk to be compared.
+         * @param common
+         *            The number of bytes both sources provide.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        ChunkTask(final long first, final long end, final long common)
+        {
+            this.first = first;
+            this.end = end;
+            this.common = common;
+        }
+
+        @Override
+        protected Edges compute()
+        {
+            if (isStopped() || this.end <= this.first)
+                return new Edges();
+
+            if (this.end - this.first > 1)
+            {
+                final long middle = (this.first + this.end) >>> 1;
+                final ChunkTask right = new ChunkTask(middle, this.end, this.common);
+                right.fork();
+                final Edges leftEdges = new ChunkTask(this.first, middle, this.common).compute();
+                return merge(leftEdges, right.join());
+            }
+
+            final int size = ByteComparison.this.chunkSize;
+            final long position = this.first * size;
+            final int length = (int) Math.min(size, this.common - position);
+            final byte[] bytes = new byte[length];
+            final byte[] otherBytes = new byte[length];
+            final int read = Math.min(getSource().read(position, bytes, 0, length), ByteComparison.this.other.read(position, otherBytes, 0, length));
+            final List<SearchHit> ranges = compare(bytes, otherBytes, read, position);
+
+            // bytes which can't be read anymore, e.g. of a truncated file, differ
+            if (read < length)
+            {
+                final int last = ranges.size() - 1;
+                final long start = last >= 0 && getEnd(ranges.get(last)) == position + read
+                        ? ranges.remove(last).getOffset() : position + read;
+                ranges.add(new SearchHit(start, position + length - start));
+            }
+
+            final Edges result = new Edges();
+            if (!ranges.isEmpty() && ranges.get(0).getOffset() == position)
+                result.leading = ranges.get(0);
+            if (!ranges.isEmpty() && getEnd(ranges.get(ranges.size() - 1)) == position + length)
+                result.trailing = ranges.get(ranges.size() - 1);
+
+            final int from = result.leading != null ? 1 : 0;
+            final int to = ranges.size() - (result.trailing != null ? 1 : 0);
+            if (from < to)
+                report(ranges.subList(from, to));
+
+            searched(length);
+            return result;
+        }
+
+        /**
+         * Merges the pending ranges of two neighbouring ranges of chunks. A
+         * range which doesn't touch the bounds of the merged range anymore is
+         * reported.
+         *
+         * @param left
+         *            The pending ranges of the lower range of chunks.
+         * @param right
+         *            The pending ranges of the upper range of chunks.
+         * @return The pending ranges of the merged range of chunks.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private Edges merge(final Edges left, final Edges right)
+        {
+            final Edges result = new Edges();
+            if (left.trailing != null && right.leading != null)
+            {
+                final SearchHit merged = new SearchHit(left.trailing.getOffset(), getEnd(right.leading) - left.trailing.getOffset());
+                result.leading = left.leading == left.trailing ? merged : left.leading;
+                result.trailing = right.trailing == right.leading ? merged : right.trailing;
+                if (result.leading != merged && result.trailing != merged)
+                    report(Collections.singletonList(merged));
+
+                return result;
+            }
+
+            final List<SearchHit> inner = new ArrayList<>(2);
+            if (left.trailing != null && left.trailing != left.leading)
+                inner.add(left.trailing);
+            if (right.leading != null && right.leading != right.trailing)
+                inner.add(right.leading);
+            if (!inner.isEmpty())
+                report(inner);
+
+            result.leading = left.leading;
+            result.trailing = right.trailing;
+            return result;
+        }
+    }
+}
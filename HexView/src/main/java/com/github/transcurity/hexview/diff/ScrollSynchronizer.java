@@ -0,0 +1,109 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.diff;
+
+import com.github.transcurity.hexview.HexView;
+import com.github.transcurity.hexview.properties.RenderMode;
+import com.github.transcurity.hexview.shared.ScrollSynchronizerState;
+import com.vaadin.server.AbstractExtension;
+import com.vaadin.server.Extension;
+
+/**
+ * Synchronizes the scroll positions of two hex views in the browser, so
+ * scrolling either view scrolls the other one, too. The scroll events aren't
+ * sent to the server.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Like {@link RenderMode#CLIENT}, the extension requires the client side of
+ * the hex view within the widgetset of the application.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class ScrollSynchronizer extends AbstractExtension
+{
+    private static final long serialVersionUID = 4001316563937771474L;
+
+    /**
+     * @param view
+     *            The extended view.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private ScrollSynchronizer(final HexView view)
+    {
+        super(view);
+    }
+
+    /**
+     * Synchronizes the scroll positions of two views. Previous
+     * synchronizations of the views are removed.
+     *
+     * @param view
+     *            A view to be synchronized.
+     * @param other
+     *            The other view to be synchronized.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static void synchronize(final HexView view, final HexView other)
+    {
+        unsynchronize(view);
+        unsynchronize(other);
+
+        final ScrollSynchronizer extension = new ScrollSynchronizer(view);
+        final ScrollSynchronizer otherExtension = new ScrollSynchronizer(other);
+        extension.getState().partner = otherExtension;
+        otherExtension.getState().partner = extension;
+    }
+
+    /**
+     * Stops synchronizing the scroll position of a view and of its partner.
+     *
+     * @param view
+     *            A synchronized view.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static void unsynchronize(final HexView view)
+    {
+        for (final Extension extension : view.getExtensions().toArray(new Extension[0]))
+            if (extension instanceof ScrollSynchronizer)
+            {
+                final ScrollSynchronizer partner = (ScrollSynchronizer) ((ScrollSynchronizer) extension).getState(false).partner;
+                extension.remove();
+                if (partner != null && partner.getParent() != null)
+                    partner.remove();
+            }
+    }
+
+    /**
+     * @param view
+     *            A view.
+     * @return {@code true} if the scroll position of the view is synchronized
+     *         with another view.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static boolean isSynchronized(final HexView view)
+    {
+        for (final Extension extension : view.getExtensions())
+            if (extension instanceof ScrollSynchronizer)
+                return true;
+
+        return false;
+    }
+
+    @Override
+    protected ScrollSynchronizerState getState()
+    {
+        return (ScrollSynchronizerState) super.getState();
+    }
+
+    @Override
+    protected ScrollSynchronizerState getState(final boolean markAsDirty)
+    {
+        return (ScrollSynchronizerState) super.getState(markAsDirty);
+    }
+}
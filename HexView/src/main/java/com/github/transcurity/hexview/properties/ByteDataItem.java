@@ -4,16 +4,24 @@
 package com.github.transcurity.hexview.properties;
 
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 
 import com.github.transcurity.hexview.container.ReadonlyHexContainer;
+import com.github.transcurity.hexview.source.ByteArraySource;
+import com.github.transcurity.hexview.source.ByteSource;
 import com.github.transcurity.hexview.util.ByteUtilities;
 import com.vaadin.data.Item;
 import com.vaadin.data.Property;
 
 /**
  * Wrapper for item IDs in {@link ReadonlyHexContainer}.
+ * <p>
+ * &nbsp;
+ * </p>
+ * An item is an immutable snapshot of one hex view row: The bytes of the row
+ * are read once on construction and each cell value gets rendered at most once
+ * on first request. So an item can be reused for every lookup of the row and
+ * its properties are cheap views into it.
  *
  * @author Andreas "PAX" Lück
  */
@@ -21,27 +29,102 @@ public class ByteDataItem implements Item
 {
     private static final long serialVersionUID = 3040125623506873209L;
 
+    /**
+     * Shared by all cells beyond the end of the data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final RowProperty EMPTY_PROPERTY = new RowProperty(null);
+
+    /**
+     * Shared properties of all data cells indexed by the unsigned value of the
+     * byte they display. Data cells don't require any allocation this way.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final RowProperty[] HEX_PROPERTIES = new RowProperty[256];
+
+    static
+    {
+        for (int i = 0; i < HEX_PROPERTIES.length; i++)
+            HEX_PROPERTIES[i] = new RowProperty(ByteUtilities.byteToHex((byte) i));
+    }
+
     /**
      * The hex view row offset. Each hex view row represents one item and the
      * start offset positions of each row represent the IDs.
      *
      * @author Andreas "PAX" Lück
      */
-    private final int offset;
+    private final long offset;
+
+    /**
+     * The format of the offset column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final OffsetFormat offsetFormat;
+
+    /**
+     * The bytes represented by this hex view row. Only the first
+     * {@link #rowLength} bytes are valid.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final byte[] row;
+
+    /**
+     * The number of bytes represented by this hex view row which is less than
+     * the row width for the last row of the data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int rowLength;
+
+    /**
+     * The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final DumpEncoding encoding;
 
     /**
-     * The underlying byte data.
+     * The format of the data cells.
      *
      * @author Andreas "PAX" Lück
      */
-    private final byte[] data;
+    private final WordFormat wordFormat;
 
     /**
-     * Identifiers for each single byte represented by this hex view row.
+     * The properties of the data cells indexed by the word they display. They
+     * are rendered at once on the first request of a data cell, unless each
+     * cell displays a single byte.
      *
      * @author Andreas "PAX" Lück
      */
-    private List<ColumnTypes> propertyIds;
+    private RowProperty[] wordProperties;
+
+    /**
+     * Whether this row stands in for a row which is still being loaded.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final boolean placeholder;
+
+    /**
+     * The number of identical rows summarized by this row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long repeatedRows;
+
+    /**
+     * The already rendered values of the offset and ASCII cell indexed by the
+     * ordinal of their column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final RowProperty[] properties = new RowProperty[ColumnTypes.values().length];
 
     /**
      * @param offset
@@ -52,25 +135,378 @@ public class ByteDataItem implements Item
      *
      * @author Andreas "PAX" Lück
      */
-    public ByteDataItem(final int offset, final byte[] data)
+    public ByteDataItem(final long offset, final byte[] data)
+    {
+        this(offset, new ByteArraySource(data));
+    }
+
+    /**
+     * @param offset
+     *            The hex view row offset. Each hex view row represents one item
+     *            and the start offset positions of each row represent the IDs.
+     * @param data
+     *            The source of the underlying byte data. Only the bytes of this
+     *            row are read from it.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteDataItem(final long offset, final ByteSource data)
+    {
+        this(offset, data, DataColumn.DEFAULT_ROW_WIDTH);
+    }
+
+    /**
+     * @param offset
+     *            The hex view row offset. Each hex view row represents one item
+     *            and the start offset positions of each row represent the IDs.
+     * @param data
+     *            The source of the underlying byte data. Only the bytes of this
+     *            row are read from it.
+     * @param rowWidth
+     *            The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteDataItem(final long offset, final ByteSource data,
+            final int rowWidth)
+    {
+        this(offset, data, rowWidth, new OffsetFormat(data.length(), rowWidth), DumpEncoding.ISO_8859_1);
+    }
+
+    /**
+     * @param offset
+     *            The hex view row offset. Each hex view row represents one item
+     *            and the start offset positions of each row represent the IDs.
+     * @param data
+     *            The source of the underlying byte data. Only the bytes of this
+     *            row are read from it.
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @param offsetFormat
+     *            The format of the offset column.
+     * @param encoding
+     *            The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteDataItem(final long offset, final ByteSource data,
+            final int rowWidth, final OffsetFormat offsetFormat,
+            final DumpEncoding encoding)
+    {
+        this(offset, data, rowWidth, offsetFormat, WordFormat.BYTES, encoding);
+    }
+
+    /**
+     * @param offset
+     *            The hex view row offset. Each hex view row represents one item
+     *            and the start offset positions of each row represent the IDs.
+     * @param data
+     *            The source of the underlying byte data. Only the bytes of this
+     *            row are read from it. A value of {@code null} creates a
+     *            placeholder without any bytes.
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @param offsetFormat
+     *            The format of the offset column.
+     * @param wordFormat
+     *            The format of the data cells. The row width must be a
+     *            multiple of its word size.
+     * @param encoding
+     *            The code page of the ASCII column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteDataItem(final long offset, final ByteSource data,
+            final int rowWidth, final OffsetFormat offsetFormat,
+            final WordFormat wordFormat, final DumpEncoding encoding)
+    {
+        this(offset, data, rowWidth, offsetFormat, wordFormat, encoding, 1);
+    }
+
+    /**
+     * @param offset
+     *            The hex view row offset. Each hex view row represents one item
+     *            and the start offset positions of each row represent the IDs.
+     * @param data
+     *            The source of the underlying byte data. Only the bytes of this
+     *            row are read from it. A value of {@code null} creates a
+     *            placeholder without any bytes.
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @param offsetFormat
+     *            The format of the offset column.
+     * @param wordFormat
+     *            The format of the data cells. The row width must be a
+     *            multiple of its word size.
+     * @param encoding
+     *            The code page of the ASCII column.
+     * @param repeatedRows
+     *            The number of identical rows summarized by this row, starting
+     *            with itself. The ASCII column of a row summarizing more than
+     *            one row is followed by {@link #getRunMarker(long)}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteDataItem(final long offset, final ByteSource data,
+            final int rowWidth, final OffsetFormat offsetFormat,
+            final WordFormat wordFormat, final DumpEncoding encoding,
+            final long repeatedRows)
     {
         this.offset = offset;
-        this.data = data;
+        this.offsetFormat = offsetFormat;
+        this.wordFormat = wordFormat;
+        this.encoding = encoding;
+        this.row = new byte[wordFormat.checkRowWidth(DataColumn.checkRowWidth(rowWidth))];
+        this.rowLength = data != null ? data.read(offset, this.row, this.row.length)
+                : 0;
+        this.placeholder = data == null;
+        this.repeatedRows = Math.max(repeatedRows, 1);
+    }
+
+    /**
+     * Creates a row which stands in for a row which is still being loaded.
+     * It displays its offset only.
+     *
+     * @param offset
+     *            The hex view row offset.
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @param offsetFormat
+     *            The format of the offset column.
+     * @param wordFormat
+     *            The format of the data cells.
+     * @param encoding
+     *            The code page of the ASCII column.
+     * @return A row without any bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static ByteDataItem createPlaceholder(final long offset,
+            final int rowWidth, final OffsetFormat offsetFormat,
+            final WordFormat wordFormat, final DumpEncoding encoding)
+    {
+        return new ByteDataItem(offset, null, rowWidth, offsetFormat, wordFormat, encoding);
+    }
+
+    /**
+     * @return {@code true} if this row stands in for a row which is still
+     *         being loaded.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isPlaceholder()
+    {
+        return this.placeholder;
+    }
+
+    /**
+     * @return The number of identical rows summarized by this row, starting
+     *         with itself.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getRepeatedRows()
+    {
+        return this.repeatedRows;
+    }
+
+    /**
+     * @return {@code true} if this row summarizes a run of identical rows
+     *         which aren't displayed on their own.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isSummary()
+    {
+        return this.repeatedRows > 1;
+    }
+
+    /**
+     * Creates the text which follows the ASCII column of a row summarizing a
+     * run of identical rows, like the star line of {@code hexdump}.
+     *
+     * @param repeatedRows
+     *            The number of summarized rows.
+     * @return The marker of the run.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static String getRunMarker(final long repeatedRows)
+    {
+        return "  * " + repeatedRows + " rows";
+    }
+
+    /**
+     * Renders all cells of this row in advance, e.g. on a background thread,
+     * so the first lookup of a cell doesn't have to.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void prerender()
+    {
+        getProperty(ColumnTypes.OFFSET);
+        getProperty(ColumnTypes.ASCII);
+        if (this.rowLength > 0)
+            getProperty(DataColumn.of(0));
+    }
+
+    /**
+     * @return The hex view row offset. Each hex view row represents one item
+     *         and the start offset positions of each row represent the IDs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getOffset()
+    {
+        return this.offset;
+    }
+
+    /**
+     * @return The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getRowWidth()
+    {
+        return this.row.length;
+    }
+
+    /**
+     * @return The format of the data cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public WordFormat getWordFormat()
+    {
+        return this.wordFormat;
+    }
+
+    /**
+     * @return The number of bytes of this row, which is less than the row
+     *         width for the last row only.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getRowLength()
+    {
+        return this.rowLength;
+    }
+
+    /**
+     * @param index
+     *            The index of the requested byte within this row where
+     *            following condition is valid: <span style=
+     *            "white-space:nowrap">{@code 0 <= index < getRowLength()}</span>
+     * @return The requested byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public byte getByte(final int index)
+    {
+        return this.row[index];
+    }
+
+    /**
+     * Obtains the rendered value of an offset or ASCII cell of this row. The
+     * value is rendered once on the first request.
+     *
+     * @param column
+     *            The column of the cell.
+     * @return Either the value to be displayed or {@code null} if there's no
+     *         data at the requested location.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getDisplayValue(final ColumnTypes column)
+    {
+        final RowProperty property = getProperty(column);
+        return property != EMPTY_PROPERTY ? property.getValue() : null;
+    }
+
+    /**
+     * Obtains the property of a data cell of this row. Single bytes share
+     * their properties with all rows, words are rendered for the whole row
+     * at once.
+     *
+     * @param column
+     *            The column of the cell.
+     * @return The property of the cell or {@link #EMPTY_PROPERTY} if there's no
+     *         data at the requested location, e.g. within a word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private RowProperty getProperty(final DataColumn column)
+    {
+        final int index = column.getOffsetInRow();
+        if (index >= this.rowLength)
+            return EMPTY_PROPERTY;
+
+        final int wordSize = this.wordFormat.getWordSize().getSize();
+        if (wordSize == 1)
+            return HEX_PROPERTIES[ByteUtilities.byteToInt(this.row[index])];
+
+        if (index % wordSize != 0)
+            return EMPTY_PROPERTY;
+
+        if (this.wordProperties == null)
+        {
+            final String[] words = this.wordFormat.format(this.row, this.rowLength);
+            this.wordProperties = new RowProperty[words.length];
+            for (int i = 0; i < words.length; i++)
+                this.wordProperties[i] = new RowProperty(words[i]);
+        }
+
+        return this.wordProperties[index / wordSize];
+    }
+
+    /**
+     * Obtains the cached property of an offset or ASCII cell of this row and
+     * renders it if it's requested for the first time.
+     *
+     * @param column
+     *            The column of the cell.
+     * @return The property of the cell or {@link #EMPTY_PROPERTY} if there's no
+     *         data at the requested location.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private RowProperty getProperty(final ColumnTypes column)
+    {
+        RowProperty property = this.properties[column.ordinal()];
+        if (property == null)
+        {
+            String value = column.getDisplayValue(this.row, this.rowLength, this.offset, this.offsetFormat, this.encoding);
+            if (value != null && column == ColumnTypes.ASCII && isSummary())
+                value += getRunMarker(this.repeatedRows);
+
+            property = value != null ? new RowProperty(value) : EMPTY_PROPERTY;
+            this.properties[column.ordinal()] = property;
+        }
+
+        return property;
+    }
+
+    /**
+     * Obtains the property of a data cell of this row.
+     *
+     * @param column
+     *            The column of the cell.
+     * @return Either the property of the cell or {@code null} if there's no
+     *         data at the requested location.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Property<String> getDataProperty(final DataColumn column)
+    {
+        final RowProperty property = getProperty(column);
+        return property != EMPTY_PROPERTY ? property : null;
     }
 
     @Override
     public Property<String> getItemProperty(final Object propertyId)
     {
-        for (int idIndex = 0; idIndex < ColumnTypes.DATA_COLUMN_IDS.size(); idIndex++)
-            if (ColumnTypes.DATA_COLUMN_IDS.get(idIndex).equals(propertyId))
-            {
-                String value = null;
-                if (this.offset + idIndex < this.data.length)
-                    value = ByteUtilities.bytesToHex(new byte[]
-                    { this.data[this.offset + idIndex] });
-
-                return new RowProperty(value);
-            }
+        if (propertyId instanceof DataColumn)
+            return getProperty((DataColumn) propertyId);
 
         return null;
     }
@@ -78,15 +514,9 @@ public class ByteDataItem implements Item
     @Override
     public Collection<?> getItemPropertyIds()
     {
-        if (this.propertyIds == null)
-        {
-            this.propertyIds = new LinkedList<>();
-            for (int i = this.offset; i < this.data.length; i++)
-                this.propertyIds.add(ColumnTypes.DATA_COLUMN_IDS.get(i
-                        - this.offset));
-        }
-
-        return this.propertyIds;
+        final List<DataColumn> columns = this.wordFormat.getColumns(this.row.length);
+        final int wordSize = this.wordFormat.getWordSize().getSize();
+        return columns.subList(0, (this.rowLength + wordSize - 1) / wordSize);
     }
 
     @Override
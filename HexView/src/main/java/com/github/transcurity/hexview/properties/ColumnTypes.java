@@ -3,14 +3,16 @@
  */
 package com.github.transcurity.hexview.properties;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
-import com.github.transcurity.hexview.util.ByteUtilities;
+import com.github.transcurity.hexview.source.ByteArraySource;
+import com.github.transcurity.hexview.source.ByteSource;
 
 /**
- * Constants for identification of the hex view columns.
+ * Constants for identification of the hex view columns which don't display a
+ * single byte. The number of byte columns depends on the row width, so they
+ * are identified by {@link DataColumn} instead.
  *
  * @author Andreas "PAX" Lück
  */
@@ -25,155 +27,68 @@ public enum ColumnTypes
     OFFSET("Offset"),
 
     /**
-     * This column displays the offset by 0 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_0("0", 0),
-
-    /**
-     * This column displays the offset by 1 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_1("1", 1),
-
-    /**
-     * This column displays the offset by 2 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_2("2", 2),
-
-    /**
-     * This column displays the offset by 3 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_3("3", 3),
-
-    /**
-     * This column displays the offset by 4 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_4("4", 4),
-
-    /**
-     * This column displays the offset by 5 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_5("5", 5),
-
-    /**
-     * This column displays the offset by 6 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_6("6", 6),
-
-    /**
-     * This column displays the offset by 7 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_7("7", 7),
-
-    /**
-     * This column displays the offset by 8 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_8("8", 8),
-
-    /**
-     * This column displays the offset by 9 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_9("9", 9),
-
-    /**
-     * This column displays the offset by 10 of the concerning cell from the
-     * beginning of the row.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    COL_A("A", 10),
-
-    /**
-     * This column displays the offset by 11 of the concerning cell from the
-     * beginning of the row.
+     * This column displays the ASCII representation of the concerning row.
      *
      * @author Andreas "PAX" Lück
      */
-    COL_B("B", 11),
+    ASCII("Dump"),
 
     /**
-     * This column displays the offset by 12 of the concerning cell from the
-     * beginning of the row.
+     * This column displays an entire hex view row, i.e. the offset, all bytes
+     * and the ASCII representation, within a single cell. It's only used by
+     * {@link RenderMode#COMPACT}.
      *
      * @author Andreas "PAX" Lück
      */
-    COL_C("C", 12),
+    ROW("Row"),
 
     /**
-     * This column displays the offset by 13 of the concerning cell from the
-     * beginning of the row.
+     * This column provides the raw bytes of an entire hex view row which are
+     * formatted by the browser. It's only used by {@link RenderMode#CLIENT}.
      *
      * @author Andreas "PAX" Lück
      */
-    COL_D("D", 13),
+    RAW_ROW("Raw row");
 
     /**
-     * This column displays the offset by 14 of the concerning cell from the
-     * beginning of the row.
+     * Obtains the column IDs of all columns of the hex view with a column per
+     * byte, inclusive columns that don't show data (offset column) or prepared
+     * information (ASCII column).
      *
-     * @author Andreas "PAX" Lück
-     */
-    COL_E("E", 14),
-
-    /**
-     * This column displays the offset by 15 of the concerning cell from the
-     * beginning of the row.
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @return The column IDs in the order of display.
      *
      * @author Andreas "PAX" Lück
      */
-    COL_F("F", 15),
+    public static List<Object> getColumnIds(final int rowWidth)
+    {
+        return getColumnIds(rowWidth, WordFormat.BYTES);
+    }
 
     /**
-     * This column displays the ASCII representation of the concerning row.
+     * Obtains the column IDs of all columns of the hex view with a column per
+     * word, inclusive columns that don't show data (offset column) or prepared
+     * information (ASCII column).
      *
-     * @author Andreas "PAX" Lück
-     */
-    ASCII("Dump");
-
-    /**
-     * Aggregates all column IDs of a hex view row, inclusive columns that don't
-     * show data (offset column) or prepared information (ASCII column).
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @param wordFormat
+     *            The format of the data cells.
+     * @return The column IDs in the order of display.
      *
      * @author Andreas "PAX" Lück
      */
-    public static final List<ColumnTypes> ALL_COLUMN_IDS = Arrays.asList(ColumnTypes.OFFSET, ColumnTypes.COL_0, ColumnTypes.COL_1, ColumnTypes.COL_2, ColumnTypes.COL_3, ColumnTypes.COL_4, ColumnTypes.COL_5, ColumnTypes.COL_6, ColumnTypes.COL_7, ColumnTypes.COL_8, ColumnTypes.COL_9, ColumnTypes.COL_A, ColumnTypes.COL_B, ColumnTypes.COL_C, ColumnTypes.COL_D, ColumnTypes.COL_E, ColumnTypes.COL_F, ColumnTypes.ASCII);
-
-    /**
-     * Aggregates all column IDs of a hex view row that show the data as hex
-     * value.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    public static final List<ColumnTypes> DATA_COLUMN_IDS = Arrays.asList(ColumnTypes.COL_0, ColumnTypes.COL_1, ColumnTypes.COL_2, ColumnTypes.COL_3, ColumnTypes.COL_4, ColumnTypes.COL_5, ColumnTypes.COL_6, ColumnTypes.COL_7, ColumnTypes.COL_8, ColumnTypes.COL_9, ColumnTypes.COL_A, ColumnTypes.COL_B, ColumnTypes.COL_C, ColumnTypes.COL_D, ColumnTypes.COL_E, ColumnTypes.COL_F);
+    public static List<Object> getColumnIds(final int rowWidth,
+            final WordFormat wordFormat)
+    {
+        final List<DataColumn> dataColumns = wordFormat.getColumns(rowWidth);
+        final List<Object> result = new ArrayList<>(dataColumns.size() + 2);
+        result.add(OFFSET);
+        result.addAll(dataColumns);
+        result.add(ASCII);
+        return result;
+    }
 
     /**
      * The unique identifier for the column.
@@ -182,26 +97,9 @@ public enum ColumnTypes
      */
     private final String id;
 
-    /**
-     * The byte offset within the hex view row which represents the byte value
-     * of the concerning column: <nobr>{@code Row offset + column offset}</nobr>
-     * <p/>
-     * If the concerning column type doesn't describe a single byte from the
-     * data then this value has no meaning.
-     *
-     * @author Andreas "PAX" Lück
-     */
-    private int offsetInRow;
-
     private ColumnTypes(final String id)
-    {
-        this(id, 0);
-    }
-
-    private ColumnTypes(final String id, final int columnOffset)
     {
         this.id = id;
-        this.offsetInRow = columnOffset;
     }
 
     /**
@@ -215,28 +113,34 @@ public enum ColumnTypes
     }
 
     /**
-     * @return The byte offset within the hex view row which represents the byte
-     *         value of the concerning column: <span style=
-     *         "white-space:nowrap">{@code Row offset + column offset}</span>
-     *         <p>
-     *         &nbsp;
-     *         </p>
-     *         If the concerning column type doesn't describe a single byte from
-     *         the data then this value has no meaning.
+     * Extracts a displayable value for a view component for the current hex
+     * view column represented by the current enumeration constant.
+     *
+     * @param data
+     *            The raw bytes displayed by the hex view.
+     * @param offset
+     *            The offset of the hex view row.
+     * @return Either the extracted value which can be displayed by the view,
+     *         directly, or {@code null} if there's no data at the requested
+     *         location.
      *
      * @author Andreas "PAX" Lück
      */
-    public int getOffsetInRow()
+    public String getDisplayValue(final byte[] data, final long offset)
     {
-        return this.offsetInRow;
+        if (data == null)
+            return null;
+
+        return getDisplayValue(new ByteArraySource(data), offset);
     }
 
     /**
      * Extracts a displayable value for a view component for the current hex
-     * view column represented by the current enumeration constant.
+     * view column represented by the current enumeration constant. Only the
+     * bytes of the requested row are read from the specified source.
      *
      * @param data
-     *            The raw bytes displayed by the hex view.
+     *            The source of the raw bytes displayed by the hex view.
      * @param offset
      *            The offset of the hex view row.
      * @return Either the extracted value which can be displayed by the view,
@@ -245,67 +149,76 @@ public enum ColumnTypes
      *
      * @author Andreas "PAX" Lück
      */
-    public String getDisplayValue(final byte[] data, final int offset)
+    public String getDisplayValue(final ByteSource data, final long offset)
+    {
+        return getDisplayValue(data, offset, DataColumn.DEFAULT_ROW_WIDTH);
+    }
+
+    /**
+     * Extracts a displayable value for a view component for the current hex
+     * view column represented by the current enumeration constant. Only the
+     * bytes of the requested row are read from the specified source.
+     *
+     * @param data
+     *            The source of the raw bytes displayed by the hex view.
+     * @param offset
+     *            The offset of the hex view row.
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @return Either the extracted value which can be displayed by the view,
+     *         directly, or {@code null} if there's no data at the requested
+     *         location.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getDisplayValue(final ByteSource data, final long offset,
+            final int rowWidth)
     {
         if (data == null || offset < 0)
             return null;
 
-        int byteOffset = offset;
-        switch (this)
-        {
-        case OFFSET:
-            final String hexOffset = Integer.toHexString(offset).toUpperCase();
-            return prependZeros(hexOffset, data.length);
-        case ASCII:
-            final String asciiDump = new String(Arrays.copyOfRange(data, offset, Math.min(offset
-                    + 16, data.length)), StandardCharsets.ISO_8859_1).replaceAll("[\\x00-\\x1F\\x7F-\\x9F]", ".");
-            return asciiDump;
-        default:
-            byteOffset += getOffsetInRow();
-            break;
-        }
-
-        if (byteOffset < data.length)
-            return ByteUtilities.bytesToHex(new byte[]
-            { data[byteOffset] });
-
-        return null;
+        final byte[] row = new byte[rowWidth];
+        final int rowLength = data.read(offset, row, row.length);
+        return getDisplayValue(row, rowLength, offset, new OffsetFormat(data.length(), row.length), DumpEncoding.ISO_8859_1);
     }
 
     /**
-     * Appends zero digits at the beginning of the specified hex number until:
-     * <ul style="list-type: circle">
-     * <li>The hex number has an even number of digits</li>
-     * <li>The hex number has the full digit length in order to hold the highest
-     * row offset number depending on the total number of data bytes to be
-     * displayed by the hex view</li>
-     * </ul>
+     * Extracts a displayable value for a view component for the current hex
+     * view column represented by the current enumeration constant from the
+     * already read bytes of a hex view row.
      *
-     * @param hexNumber
-     *            A hex number which represents a row offset of a hex view.
-     * @param dataSize
-     *            The total number of bytes displayed by the hex view
-     *            (influences the totally possible number of hex row offsets.
-     * @return The specified hex number with potentially prepended zeros.
+     * @param row
+     *            The bytes of the hex view row.
+     * @param rowLength
+     *            The number of valid bytes within {@code row}.
+     * @param offset
+     *            The offset of the hex view row.
+     * @param offsetFormat
+     *            The format of the offset column.
+     * @param encoding
+     *            The code page of the ASCII column.
+     * @return Either the extracted value which can be displayed by the view,
+     *         directly, or {@code null} if there's no data at the requested
+     *         location.
      *
      * @author Andreas "PAX" Lück
      */
-    private String prependZeros(final String hexNumber, final int dataSize)
+    public String getDisplayValue(final byte[] row, final int rowLength,
+            final long offset, final OffsetFormat offsetFormat,
+            final DumpEncoding encoding)
     {
-        final StringBuilder result = new StringBuilder(hexNumber);
-        final int hexRows = dataSize % 16 == 0 ? dataSize / 16
-                : dataSize / 16 + 1;
-        final int maxValue = hexRows * 16;
-        final long requiredDigits = (long) Math.ceil(Math.log10(maxValue)
-                / Math.log10(16));
-
-        while (result.length() < requiredDigits)
-            result.insert(0, '0');
-
-        if (result.length() % 2 != 0)
-            result.insert(0, '0');
+        if (row == null || offset < 0)
+            return null;
 
-        return result.toString();
+        switch (this)
+        {
+        case OFFSET:
+            return offsetFormat.format(offset);
+        case ASCII:
+            return encoding.render(row, 0, rowLength);
+        default:
+            return null;
+        }
     }
 
     @Override
@@ -0,0 +1,158 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import com.github.transcurity.hexview.cells.HexCellStyleGenerator;
+import com.github.transcurity.hexview.source.ByteSource;
+import com.github.transcurity.hexview.util.ByteUtilities;
+
+/**
+ * A synthetic column which renders an entire hex view row as a single HTML
+ * cell for {@link RenderMode#COMPACT}. The offset, the hex values and the
+ * ASCII representation are wrapped in one span each. Only bytes with custom
+ * styles get a span of their own which carries the same CSS classes as the
+ * data cell of {@link RenderMode#COLUMNS} would.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class CompactRowColumn extends RowValueGenerator<String>
+{
+    private static final long serialVersionUID = 4807187012553695466L;
+
+    /**
+     * The source of the binary data to be hold.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteSource data;
+
+    /**
+     * Provides the CSS classes of the single bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final HexCellStyleGenerator styleGenerator;
+
+    /**
+     * @param data
+     *            The source of the binary data to be hold.
+     * @param styleGenerator
+     *            Provides the CSS classes of the single bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public CompactRowColumn(final ByteSource data,
+            final HexCellStyleGenerator styleGenerator)
+    {
+        this.data = data;
+        this.styleGenerator = styleGenerator;
+    }
+
+    @Override
+    protected String getRowValue(final ByteDataItem row)
+    {
+        return render(row);
+    }
+
+    @Override
+    protected String getRowValue(final long rowOffset)
+    {
+        if (rowOffset < this.data.length())
+            return render(new ByteDataItem(rowOffset, this.data, this.styleGenerator.getRowWidth()));
+
+        return null;
+    }
+
+    /**
+     * Renders the HTML of a row.
+     *
+     * @param row
+     *            The row to be rendered.
+     * @return The HTML of the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected String render(final ByteDataItem row)
+    {
+        final String[] styles = this.styleGenerator.getDataCellStyles(row.getOffset());
+        final WordFormat wordFormat = row.getWordFormat();
+        final int wordSize = wordFormat.getWordSize().getSize();
+        final int rowWidth = row.getRowWidth();
+        final StringBuilder result = new StringBuilder(160 + rowWidth * 3);
+
+        result.append("<span class=\"hex-row-offset\">")
+                .append(row.getDisplayValue(ColumnTypes.OFFSET))
+                .append("</span><span class=\"hex-row-data\">");
+        for (int i = 0; i < rowWidth; i++)
+        {
+            if (i > 0 && i % wordSize == 0)
+                result.append(' ');
+
+            if (i >= row.getRowLength())
+            {
+                result.append("  "); // keeps the ASCII column aligned
+                continue;
+            }
+
+            // the bytes of a reversed word keep their own styles
+            final int index = wordFormat.getByteIndex(i, row.getRowLength());
+            if (styles[index].length() > HexCellStyleGenerator.DATA_CELL_STYLE.length())
+            {
+                // custom CSS classes are arbitrary strings of the caller
+                result.append("<span class=\"");
+                appendEscaped(result, styles[index]);
+                result.append("\">").append(ByteUtilities.byteToHex(row.getByte(index)))
+                        .append("</span>");
+            }
+            else
+                result.append(ByteUtilities.byteToHex(row.getByte(index)));
+        }
+
+        result.append("</span><span class=\"hex-row-ascii\">");
+        appendEscaped(result, row.getDisplayValue(ColumnTypes.ASCII));
+        return result.append("</span>").toString();
+    }
+
+    /**
+     * Appends text with all HTML special characters replaced by entities.
+     *
+     * @param target
+     *            Receives the escaped text.
+     * @param text
+     *            The text to be escaped.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static void appendEscaped(final StringBuilder target,
+            final String text)
+    {
+        for (int i = 0; i < text.length(); i++)
+        {
+            final char c = text.charAt(i);
+            switch (c)
+            {
+            case '&':
+                target.append("&amp;");
+                break;
+            case '<':
+                target.append("&lt;");
+                break;
+            case '>':
+                target.append("&gt;");
+                break;
+            case '"':
+                target.append("&quot;");
+                break;
+            default:
+                target.append(c);
+            }
+        }
+    }
+
+    @Override
+    public Class<String> getType()
+    {
+        return String.class;
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.transcurity.hexview.source.ByteArraySource;
+import com.github.transcurity.hexview.source.ByteSource;
+import com.github.transcurity.hexview.util.ByteUtilities;
+
+/**
+ * Identifies a hex view column which displays a single byte of each row. The
+ * number of these columns depends on the row width, so they are generated
+ * instead of being enumerated. There is exactly one instance per index, so
+ * instances can be compared by identity.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public final class DataColumn implements Serializable
+{
+    private static final long serialVersionUID = -4219618468727000683L;
+
+    /**
+     * The number of bytes per row if nothing else is specified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_ROW_WIDTH = 16;
+
+    /**
+     * The highest supported number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int MAX_ROW_WIDTH = 256;
+
+    /**
+     * All data columns indexed by their offset within the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final DataColumn[] COLUMNS = new DataColumn[MAX_ROW_WIDTH];
+
+    static
+    {
+        for (int i = 0; i < COLUMNS.length; i++)
+            COLUMNS[i] = new DataColumn(i);
+    }
+
+    /**
+     * The byte offset within the hex view row which represents the byte value
+     * of the concerning column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int offsetInRow;
+
+    /**
+     * The unique identifier for the column, i.e. its offset within the row as
+     * hex number.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final String id;
+
+    private DataColumn(final int offsetInRow)
+    {
+        this.offsetInRow = offsetInRow;
+        this.id = Integer.toHexString(offsetInRow).toUpperCase();
+    }
+
+    /**
+     * @param offsetInRow
+     *            The byte offset within the hex view row which is displayed by
+     *            the requested column.
+     * @return The column which displays the byte at the specified offset of
+     *         each row.
+     * @throws IndexOutOfBoundsException
+     *             If the offset is negative or not below
+     *             {@link #MAX_ROW_WIDTH}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static DataColumn of(final int offsetInRow)
+    {
+        return COLUMNS[offsetInRow];
+    }
+
+    /**
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @return The data columns of a row with the specified width in the order
+     *         of their offsets.
+     * @throws IllegalArgumentException
+     *             If the row width is out of the supported range.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static List<DataColumn> getColumns(final int rowWidth)
+    {
+        return Collections.unmodifiableList(Arrays.asList(COLUMNS).subList(0, checkRowWidth(rowWidth)));
+    }
+
+    /**
+     * Validates a row width.
+     *
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @return The specified row width.
+     * @throws IllegalArgumentException
+     *             If the row width is not within
+     *             <span style="white-space:nowrap">{@code [1, MAX_ROW_WIDTH]}</span>.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static int checkRowWidth(final int rowWidth)
+    {
+        if (rowWidth < 1 || rowWidth > MAX_ROW_WIDTH)
+            throw new IllegalArgumentException("Row width must be within [1, "
+                    + MAX_ROW_WIDTH + "]: " + rowWidth);
+
+        return rowWidth;
+    }
+
+    /**
+     * @return The unique identifier for the column, i.e. its offset within the
+     *         row as hex number.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * @return The byte offset within the hex view row which represents the
+     *         byte value of the concerning column: <span style=
+     *         "white-space:nowrap">{@code Row offset + column offset}</span>
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getOffsetInRow()
+    {
+        return this.offsetInRow;
+    }
+
+    /**
+     * Extracts the displayable value of this column for a hex view row.
+     *
+     * @param data
+     *            The raw bytes displayed by the hex view.
+     * @param offset
+     *            The offset of the hex view row.
+     * @return Either the byte value as hex string or {@code null} if there's
+     *         no data at the requested location.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getDisplayValue(final byte[] data, final long offset)
+    {
+        if (data == null)
+            return null;
+
+        return getDisplayValue(new ByteArraySource(data), offset);
+    }
+
+    /**
+     * Extracts the displayable value of this column for a hex view row. Only
+     * the displayed byte is read from the specified source.
+     *
+     * @param data
+     *            The source of the raw bytes displayed by the hex view.
+     * @param offset
+     *            The offset of the hex view row.
+     * @return Either the byte value as hex string or {@code null} if there's
+     *         no data at the requested location.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getDisplayValue(final ByteSource data, final long offset)
+    {
+        if (data == null || offset < 0
+                || offset + this.offsetInRow >= data.length())
+            return null;
+
+        return ByteUtilities.byteToHex(data.get(offset + this.offsetInRow));
+    }
+
+    /**
+     * Keeps the instances unique after deserialization.
+     *
+     * @return The canonical instance of this column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private Object readResolve()
+    {
+        return COLUMNS[this.offsetInRow];
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.id;
+    }
+}
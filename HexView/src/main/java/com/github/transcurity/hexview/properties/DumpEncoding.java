@@ -0,0 +1,239 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Code pages for the textual dump column of a hex view. Bytes are mapped to
+ * characters by precomputed tables, so rendering a row neither decodes
+ * intermediate strings nor evaluates regular expressions. Characters that
+ * cannot be printed (control characters and unmapped bytes) are displayed as
+ * {@code '.'}.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public enum DumpEncoding
+{
+    /**
+     * Latin-1 which maps each byte to the Unicode character with the same
+     * value (default).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    ISO_8859_1("ISO-8859-1", 1),
+
+    /**
+     * The original IBM PC code page, e.g. for DOS executables and boot
+     * sectors.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    CP437("IBM437", 1),
+
+    /**
+     * EBCDIC (code page 037) as used by mainframe data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    EBCDIC("IBM037", 1),
+
+    /**
+     * Little endian UTF-16 as used by Windows for wide strings. Two bytes make
+     * up one character.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    UTF_16LE("UTF-16LE", 2);
+
+    /**
+     * The character displayed instead of non-printable characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final char NON_PRINTABLE = '.';
+
+    /**
+     * The name of the Java charset represented by this encoding.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final String charsetName;
+
+    /**
+     * The number of bytes which make up one character.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int bytesPerCharacter;
+
+    /**
+     * The displayed characters indexed by the unsigned value of the byte they
+     * represent, or {@code null} for multi-byte encodings.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final char[] table;
+
+    private DumpEncoding(final String charsetName, final int bytesPerCharacter)
+    {
+        this.charsetName = charsetName;
+        this.bytesPerCharacter = bytesPerCharacter;
+        this.table = bytesPerCharacter == 1 ? createTable(charsetName) : null;
+    }
+
+    /**
+     * Decodes all byte values once in order to obtain the displayed characters
+     * of a single-byte charset.
+     *
+     * @param charsetName
+     *            The name of the single-byte charset.
+     * @return The displayed characters indexed by the unsigned value of the
+     *         byte they represent.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static char[] createTable(final String charsetName)
+    {
+        final byte[] allBytes = new byte[256];
+        for (int i = 0; i < allBytes.length; i++)
+            allBytes[i] = (byte) i;
+
+        // fall back to Latin-1 for runtimes without extended charsets
+        final Charset charset = Charset.isSupported(charsetName) ? Charset.forName(charsetName)
+                : StandardCharsets.ISO_8859_1;
+        final char[] result = new String(allBytes, charset).toCharArray();
+        for (int i = 0; i < result.length; i++)
+            if (!isPrintable(result[i]))
+                result[i] = NON_PRINTABLE;
+
+        return result;
+    }
+
+    /**
+     * @param character
+     *            A decoded character.
+     * @return {@code true} if the specified character can be displayed by the
+     *         dump column, otherwise {@code false}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static boolean isPrintable(final char character)
+    {
+        return !Character.isISOControl(character)
+                && !Character.isSurrogate(character)
+                && character != '\uFFFD' && Character.isDefined(character);
+    }
+
+    /**
+     * @return The name of the Java charset represented by this encoding.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getCharsetName()
+    {
+        return this.charsetName;
+    }
+
+    /**
+     * @return The number of bytes which make up one character.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getBytesPerCharacter()
+    {
+        return this.bytesPerCharacter;
+    }
+
+    /**
+     * @return The displayed characters of a single-byte encoding indexed by the
+     *         unsigned value of the byte they represent, or {@code null} for
+     *         multi-byte encodings.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getCodePage()
+    {
+        return this.table != null ? new String(this.table) : null;
+    }
+
+    /**
+     * Writes the displayed characters of a byte consecution into a
+     * caller-supplied character array. No objects are allocated.
+     *
+     * @param bytes
+     *            The bytes to be displayed.
+     * @param offset
+     *            The index of the first byte to be displayed.
+     * @param length
+     *            The number of bytes to be displayed. A trailing incomplete
+     *            character of a multi-byte encoding is displayed as
+     *            {@link #NON_PRINTABLE}.
+     * @param target
+     *            The destination of the displayed characters which must provide
+     *            at least {@link #getCharacterCount(int)} characters beginning
+     *            at {@code targetOffset}.
+     * @param targetOffset
+     *            The index within {@code target} of the first character to be
+     *            written.
+     * @return The number of written characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int render(final byte[] bytes, final int offset, final int length,
+            final char[] target, final int targetOffset)
+    {
+        final int end = offset + length;
+        int position = targetOffset;
+        if (this.table != null)
+            for (int i = offset; i < end; i++)
+                target[position++] = this.table[bytes[i] & 0xFF];
+        else
+            for (int i = offset; i < end; i += 2)
+            {
+                final char character = i + 1 < end
+                        ? (char) ((bytes[i] & 0xFF) | (bytes[i + 1] & 0xFF) << 8)
+                        : NON_PRINTABLE;
+                target[position++] = isPrintable(character) ? character
+                        : NON_PRINTABLE;
+            }
+
+        return position - targetOffset;
+    }
+
+    /**
+     * Renders the displayed characters of a byte consecution.
+     *
+     * @param bytes
+     *            The bytes to be displayed.
+     * @param offset
+     *            The index of the first byte to be displayed.
+     * @param length
+     *            The number of bytes to be displayed.
+     * @return The displayed characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String render(final byte[] bytes, final int offset,
+            final int length)
+    {
+        final char[] result = new char[getCharacterCount(length)];
+        render(bytes, offset, length, result, 0);
+        return new String(result);
+    }
+
+    /**
+     * @param length
+     *            A number of bytes.
+     * @return The number of characters displayed for the specified number of
+     *         bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getCharacterCount(final int length)
+    {
+        return (length + this.bytesPerCharacter - 1) / this.bytesPerCharacter;
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+/**
+ * The order in which the bytes of a word are displayed.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public enum Endianness
+{
+    /**
+     * The byte at the lowest offset is the most significant one, so the bytes
+     * are displayed in the order of the data (default).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    BIG_ENDIAN,
+
+    /**
+     * The byte at the lowest offset is the least significant one, so the
+     * bytes of each word are displayed in reverse order, e.g. for x86 memory
+     * dumps.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    LITTLE_ENDIAN;
+}
@@ -3,8 +3,8 @@
  */
 package com.github.transcurity.hexview.properties;
 
-import com.vaadin.data.Item;
-import com.vaadin.data.util.PropertyValueGenerator;
+import com.github.transcurity.hexview.source.ByteArraySource;
+import com.github.transcurity.hexview.source.ByteSource;
 
 /**
  * A synthetic hex column which computes the offset position of the current row
@@ -12,7 +12,7 @@ import com.vaadin.data.util.PropertyValueGenerator;
  *
  * @author Andreas "PAX" Lück
  */
-public class OffsetColumn extends PropertyValueGenerator<String>
+public class OffsetColumn extends RowValueGenerator<String>
 {
     private static final long serialVersionUID = -3781047797648966830L;
 
@@ -21,7 +21,14 @@ public class OffsetColumn extends PropertyValueGenerator<String>
      *
      * @author Andreas "PAX" Lück
      */
-    private final byte[] data;
+    private final ByteSource data;
+
+    /**
+     * The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int rowWidth;
 
     /**
      * @param data
@@ -30,21 +37,45 @@ public class OffsetColumn extends PropertyValueGenerator<String>
      * @author Andreas "PAX" Lück
      */
     public OffsetColumn(final byte[] data)
+    {
+        this(new ByteArraySource(data));
+    }
+
+    /**
+     * @param data
+     *            The source of the binary data to be hold.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public OffsetColumn(final ByteSource data)
+    {
+        this(data, DataColumn.DEFAULT_ROW_WIDTH);
+    }
+
+    /**
+     * @param data
+     *            The source of the binary data to be hold.
+     * @param rowWidth
+     *            The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public OffsetColumn(final ByteSource data, final int rowWidth)
     {
         this.data = data;
+        this.rowWidth = DataColumn.checkRowWidth(rowWidth);
     }
 
     @Override
-    public String getValue(final Item item, final Object itemId,
-            final Object propertyId)
+    protected String getRowValue(final ByteDataItem row)
     {
-        if (itemId != null && itemId instanceof Integer)
-        {
-            final int offset = (int) itemId;
-            return ColumnTypes.OFFSET.getDisplayValue(this.data, offset);
-        }
+        return row.getDisplayValue(ColumnTypes.OFFSET);
+    }
 
-        return null;
+    @Override
+    protected String getRowValue(final long rowOffset)
+    {
+        return ColumnTypes.OFFSET.getDisplayValue(this.data, rowOffset, this.rowWidth);
     }
 
     @Override
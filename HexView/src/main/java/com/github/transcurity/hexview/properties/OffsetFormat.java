@@ -0,0 +1,158 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import java.io.Serializable;
+
+import com.github.transcurity.hexview.util.ByteUtilities;
+
+/**
+ * Formats the row offsets of a hex view with a fixed number of digits. The
+ * number of digits depends on the highest offset of the data only, so it's
+ * computed once per data source instead of once per rendered cell.
+ * <p>
+ * &nbsp;
+ * </p>
+ * A base address can be added to all offsets, e.g. in order to display the
+ * virtual addresses of an executable's section instead of file offsets.
+ * Offsets are treated as unsigned 64 bit numbers.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class OffsetFormat implements Serializable
+{
+    private static final long serialVersionUID = 4406938367390727052L;
+
+    /**
+     * The number system of the displayed offsets.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final OffsetRadix radix;
+
+    /**
+     * The value to be added to each displayed offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long baseAddress;
+
+    /**
+     * The minimum number of digits of each displayed offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int width;
+
+    /**
+     * Creates a format for hexadecimal offsets without base address.
+     *
+     * @param dataLength
+     *            The total number of bytes displayed by the hex view.
+     * @param rowWidth
+     *            The number of bytes displayed by one hex view row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public OffsetFormat(final long dataLength, final int rowWidth)
+    {
+        this(dataLength, rowWidth, OffsetRadix.HEXADECIMAL, 0);
+    }
+
+    /**
+     * @param dataLength
+     *            The total number of bytes displayed by the hex view.
+     * @param rowWidth
+     *            The number of bytes displayed by one hex view row.
+     * @param radix
+     *            The number system of the displayed offsets.
+     * @param baseAddress
+     *            The value to be added to each displayed offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public OffsetFormat(final long dataLength, final int rowWidth,
+            final OffsetRadix radix, final long baseAddress)
+    {
+        this.radix = radix;
+        this.baseAddress = baseAddress;
+
+        // the highest value is the end of the last (potentially partial) row
+        final long rows = dataLength / rowWidth + (dataLength % rowWidth > 0 ? 1 : 0);
+        final long maxValue = baseAddress + rows * rowWidth;
+        final int digits = countDigits(maxValue != 0 ? maxValue - 1 : 0);
+        this.width = radix == OffsetRadix.HEXADECIMAL && digits % 2 != 0 ? digits + 1
+                : digits;
+    }
+
+    /**
+     * @param value
+     *            An unsigned number.
+     * @return The number of digits of the specified number within the number
+     *         system of this format.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int countDigits(final long value)
+    {
+        int result = 1;
+        for (long rest = Long.divideUnsigned(value, this.radix.getRadix()); rest != 0; rest = Long.divideUnsigned(rest, this.radix.getRadix()))
+            result++;
+
+        return result;
+    }
+
+    /**
+     * @return The number system of the displayed offsets.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public OffsetRadix getRadix()
+    {
+        return this.radix;
+    }
+
+    /**
+     * @return The value to be added to each displayed offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getBaseAddress()
+    {
+        return this.baseAddress;
+    }
+
+    /**
+     * @return The minimum number of digits of each displayed offset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getWidth()
+    {
+        return this.width;
+    }
+
+    /**
+     * Formats the specified offset with leading zeros.
+     *
+     * @param offset
+     *            The offset of a hex view row within the data.
+     * @return The displayed offset, e.g. {@code 00FFF0}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String format(final long offset)
+    {
+        long value = this.baseAddress + offset;
+        final int radixValue = this.radix.getRadix();
+        final char[] result = new char[Math.max(this.width, countDigits(value))];
+        for (int i = result.length - 1; i >= 0; i--)
+        {
+            result[i] = ByteUtilities.toDigit((int) Long.remainderUnsigned(value, radixValue));
+            value = Long.divideUnsigned(value, radixValue);
+        }
+
+        return new String(result);
+    }
+}
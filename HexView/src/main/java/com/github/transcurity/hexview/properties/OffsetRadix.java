@@ -0,0 +1,49 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+/**
+ * Number systems for the display of row offsets.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public enum OffsetRadix
+{
+    /**
+     * Offsets are displayed as hexadecimal numbers with an even number of
+     * digits (default).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    HEXADECIMAL(16),
+
+    /**
+     * Offsets are displayed as decimal numbers.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    DECIMAL(10);
+
+    /**
+     * The base of the number system.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int radix;
+
+    private OffsetRadix(final int radix)
+    {
+        this.radix = radix;
+    }
+
+    /**
+     * @return The base of the number system.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getRadix()
+    {
+        return this.radix;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import java.io.Serializable;
+
+/**
+ * The value of a {@link ColumnTypes#RAW_ROW} cell: A hex view row together
+ * with the CSS classes of its bytes, which are transferred to the browser as
+ * they are instead of being formatted by the server.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class RawRow implements Serializable
+{
+    private static final long serialVersionUID = -2160911652713417790L;
+
+    /**
+     * The bytes of the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteDataItem item;
+
+    /**
+     * The complete CSS classes of each data cell of the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final String[] dataCellStyles;
+
+    /**
+     * @param item
+     *            The bytes of the row.
+     * @param dataCellStyles
+     *            The complete CSS classes of each data cell of the row,
+     *            indexed by its offset within the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RawRow(final ByteDataItem item, final String[] dataCellStyles)
+    {
+        this.item = item;
+        this.dataCellStyles = dataCellStyles;
+    }
+
+    /**
+     * @return The bytes of the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteDataItem getItem()
+    {
+        return this.item;
+    }
+
+    /**
+     * @return The complete CSS classes of each data cell of the row, indexed
+     *         by its offset within the row. The array must not be modified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String[] getDataCellStyles()
+    {
+        return this.dataCellStyles;
+    }
+}
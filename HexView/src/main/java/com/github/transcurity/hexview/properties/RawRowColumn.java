@@ -0,0 +1,69 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import com.github.transcurity.hexview.cells.HexCellStyleGenerator;
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * A synthetic column which provides the raw bytes and the CSS classes of an
+ * entire hex view row for {@link RenderMode#CLIENT}. Nothing gets formatted
+ * on the server.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class RawRowColumn extends RowValueGenerator<RawRow>
+{
+    private static final long serialVersionUID = 2608367457203418455L;
+
+    /**
+     * The source of the binary data to be hold.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteSource data;
+
+    /**
+     * Provides the CSS classes of the single bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final HexCellStyleGenerator styleGenerator;
+
+    /**
+     * @param data
+     *            The source of the binary data to be hold.
+     * @param styleGenerator
+     *            Provides the CSS classes of the single bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RawRowColumn(final ByteSource data,
+            final HexCellStyleGenerator styleGenerator)
+    {
+        this.data = data;
+        this.styleGenerator = styleGenerator;
+    }
+
+    @Override
+    protected RawRow getRowValue(final ByteDataItem row)
+    {
+        return new RawRow(row, this.styleGenerator.getDataCellStyles(row.getOffset()));
+    }
+
+    @Override
+    protected RawRow getRowValue(final long rowOffset)
+    {
+        if (rowOffset < this.data.length())
+            return new RawRow(new ByteDataItem(rowOffset, this.data, this.styleGenerator.getRowWidth()), this.styleGenerator.getDataCellStyles(rowOffset));
+
+        return null;
+    }
+
+    @Override
+    public Class<RawRow> getType()
+    {
+        return RawRow.class;
+    }
+}
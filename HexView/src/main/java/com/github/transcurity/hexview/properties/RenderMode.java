@@ -0,0 +1,41 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+/**
+ * The ways a hex view can render its rows.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public enum RenderMode
+{
+    /**
+     * Each row is rendered as separate grid cells for the offset, each byte
+     * and the ASCII representation (default). Columns can be resized and
+     * styled individually.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    COLUMNS,
+
+    /**
+     * Each row is rendered as a single pre-formatted HTML cell which contains
+     * the offset, all bytes and the ASCII representation. This requires a
+     * fraction of the cell values, style lookups and DOM elements of
+     * {@link #COLUMNS}, which speeds up scrolling through large data.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    COMPACT,
+
+    /**
+     * Each row is transferred as its raw bytes and custom style runs, and
+     * gets formatted like {@link #COMPACT} by the browser. This minimizes the
+     * server load and the transferred data, but requires the widgetset of the
+     * add-on to be compiled into the application widgetset.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    CLIENT;
+}
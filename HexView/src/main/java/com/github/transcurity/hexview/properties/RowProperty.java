@@ -19,7 +19,7 @@ public class RowProperty implements Property<String>
      *
      * @author Andreas "PAX" Lück
      */
-    private String value;
+    private final String value;
 
     /**
      * @param value
@@ -42,7 +42,8 @@ public class RowProperty implements Property<String>
     @Override
     public void setValue(final String newValue) throws ReadOnlyException
     {
-        this.value = newValue;
+        // properties are shared by all lookups of a cached row
+        throw new ReadOnlyException("Hex view cells are read only");
     }
 
     @Override
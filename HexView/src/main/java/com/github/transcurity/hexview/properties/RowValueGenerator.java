@@ -0,0 +1,53 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import com.github.transcurity.hexview.container.ReadonlyHexContainer;
+import com.vaadin.data.Item;
+import com.vaadin.data.util.PropertyValueGenerator;
+
+/**
+ * A synthetic column whose value is derived from an entire hex view row. Items
+ * of a {@link ReadonlyHexContainer} are {@link ByteDataItem}s whose bytes have
+ * already been read and formatted, so they are reused. Other items are only
+ * identified by the offset of their row.
+ *
+ * @param <T>
+ *            The type of the generated values.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public abstract class RowValueGenerator<T> extends PropertyValueGenerator<T>
+{
+    private static final long serialVersionUID = -1873406239758204617L;
+
+    @Override
+    public T getValue(final Item item, final Object itemId,
+            final Object propertyId)
+    {
+        if (item instanceof ByteDataItem)
+            return getRowValue((ByteDataItem) item);
+
+        final long offset = ReadonlyHexContainer.toOffset(itemId);
+        return offset >= 0 ? getRowValue(offset) : null;
+    }
+
+    /**
+     * @param row
+     *            A row which has already been read by the container.
+     * @return The value of the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected abstract T getRowValue(ByteDataItem row);
+
+    /**
+     * @param rowOffset
+     *            The byte offset of a row which hasn't been read, yet.
+     * @return The value of the row or {@code null} if there's none.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected abstract T getRowValue(long rowOffset);
+}
@@ -0,0 +1,218 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.transcurity.hexview.util.ByteUtilities;
+
+/**
+ * Formats the data cells of a hex view row as words of a fixed size and byte
+ * order. A whole row is formatted at once into a single character buffer, so
+ * grouped words cost as little as single bytes.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Each word is displayed by the data column of its first byte. A partial word
+ * at the end of the data only displays its available bytes.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class WordFormat implements Serializable
+{
+    private static final long serialVersionUID = -6079307046375628741L;
+
+    /**
+     * Displays each byte in a data cell of its own.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final WordFormat BYTES = new WordFormat(WordSize.BYTE, Endianness.BIG_ENDIAN);
+
+    /**
+     * The number of bytes per word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final WordSize wordSize;
+
+    /**
+     * The order in which the bytes of a word are displayed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Endianness endianness;
+
+    /**
+     * @param wordSize
+     *            The number of bytes per word.
+     * @param endianness
+     *            The order in which the bytes of a word are displayed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public WordFormat(final WordSize wordSize, final Endianness endianness)
+    {
+        this.wordSize = wordSize;
+        this.endianness = endianness;
+    }
+
+    /**
+     * @return The number of bytes per word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public WordSize getWordSize()
+    {
+        return this.wordSize;
+    }
+
+    /**
+     * @return The order in which the bytes of a word are displayed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Endianness getEndianness()
+    {
+        return this.endianness;
+    }
+
+    /**
+     * @return {@code true} if the bytes of each word are displayed in reverse
+     *         order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isReversed()
+    {
+        return this.endianness == Endianness.LITTLE_ENDIAN
+                && this.wordSize != WordSize.BYTE;
+    }
+
+    /**
+     * Validates a row width for this format.
+     *
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @return The specified row width.
+     * @throws IllegalArgumentException
+     *             If the row width is not a multiple of the word size.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int checkRowWidth(final int rowWidth)
+    {
+        if (rowWidth % this.wordSize.getSize() != 0)
+            throw new IllegalArgumentException("Row width must be a multiple of "
+                    + this.wordSize.getSize() + ": " + rowWidth);
+
+        return rowWidth;
+    }
+
+    /**
+     * @param rowWidth
+     *            The number of bytes per row.
+     * @return The data columns which display a word in a row of the
+     *         specified width, i.e. the columns of the first byte of each
+     *         word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<DataColumn> getColumns(final int rowWidth)
+    {
+        if (this.wordSize == WordSize.BYTE)
+            return DataColumn.getColumns(rowWidth);
+
+        final List<DataColumn> result = new ArrayList<>(rowWidth / this.wordSize.getSize());
+        for (int i = 0; i < DataColumn.checkRowWidth(rowWidth); i += this.wordSize.getSize())
+            result.add(DataColumn.of(i));
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Obtains the index of the byte which is displayed at a certain position
+     * of a row, i.e. the bytes of a reversed word are counted from its end.
+     *
+     * @param position
+     *            The position within the displayed row where following
+     *            condition is valid: <span style=
+     *            "white-space:nowrap">{@code 0 <= position < rowLength}</span>
+     * @param rowLength
+     *            The number of bytes of the row.
+     * @return The index of the byte within the row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getByteIndex(final int position, final int rowLength)
+    {
+        if (!isReversed())
+            return position;
+
+        final int wordStart = position - position % this.wordSize.getSize();
+        final int wordEnd = Math.min(wordStart + this.wordSize.getSize(), rowLength);
+        return wordEnd - 1 - (position - wordStart);
+    }
+
+    /**
+     * Writes the HEX presentation of a whole row in display order into a
+     * caller-supplied character array. No objects are allocated.
+     *
+     * @param row
+     *            The bytes of the row.
+     * @param rowLength
+     *            The number of valid bytes of the row.
+     * @param target
+     *            The destination of the HEX characters which must provide at
+     *            least {@code 2 * rowLength} characters beginning at
+     *            {@code targetOffset}.
+     * @param targetOffset
+     *            The index within {@code target} of the first character to be
+     *            written.
+     * @return The number of written characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int appendHex(final byte[] row, final int rowLength,
+            final char[] target, final int targetOffset)
+    {
+        if (!isReversed())
+            return ByteUtilities.appendHex(row, 0, rowLength, false, target, targetOffset);
+
+        int position = targetOffset;
+        for (int start = 0; start < rowLength; start += this.wordSize.getSize())
+            position += ByteUtilities.appendHexReversed(row, start, Math.min(this.wordSize.getSize(), rowLength - start), target, position);
+
+        return position - targetOffset;
+    }
+
+    /**
+     * Formats all words of a row at once.
+     *
+     * @param row
+     *            The bytes of the row.
+     * @param rowLength
+     *            The number of valid bytes of the row.
+     * @return The HEX presentations of the words of the row in the order of
+     *         their offsets, e.g. {@code 78563412} for the little endian
+     *         double word {@code 12 34 56 78}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String[] format(final byte[] row, final int rowLength)
+    {
+        final int digitsPerWord = this.wordSize.getSize() * 2;
+        final char[] digits = new char[rowLength * 2];
+        appendHex(row, rowLength, digits, 0);
+
+        final String[] result = new String[(digits.length + digitsPerWord - 1) / digitsPerWord];
+        for (int i = 0; i < result.length; i++)
+            result[i] = new String(digits, i * digitsPerWord, Math.min(digitsPerWord, digits.length - i * digitsPerWord));
+
+        return result;
+    }
+}
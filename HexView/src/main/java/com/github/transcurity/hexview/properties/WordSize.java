@@ -0,0 +1,62 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.properties;
+
+/**
+ * The number of bytes which are displayed as one word by each data cell.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public enum WordSize
+{
+    /**
+     * Each data cell displays a single byte (default).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    BYTE(1),
+
+    /**
+     * Each data cell displays a 16 bit word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    WORD(2),
+
+    /**
+     * Each data cell displays a 32 bit word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    DWORD(4),
+
+    /**
+     * Each data cell displays a 64 bit word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    QWORD(8);
+
+    /**
+     * The number of bytes per word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int size;
+
+    private WordSize(final int size)
+    {
+        this.size = size;
+    }
+
+    /**
+     * @return The number of bytes per word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getSize()
+    {
+        return this.size;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.renderers;
+
+import java.util.Base64;
+
+import com.github.transcurity.hexview.cells.HexCellStyleGenerator;
+import com.github.transcurity.hexview.properties.ByteDataItem;
+import com.github.transcurity.hexview.properties.ColumnTypes;
+import com.github.transcurity.hexview.properties.DataColumn;
+import com.github.transcurity.hexview.properties.DumpEncoding;
+import com.github.transcurity.hexview.properties.RawRow;
+import com.github.transcurity.hexview.properties.RenderMode;
+import com.github.transcurity.hexview.properties.WordFormat;
+import com.github.transcurity.hexview.shared.RawRowRendererState;
+import com.vaadin.ui.Grid.AbstractRenderer;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Transfers hex view rows to the browser as raw bytes which are formatted
+ * there, see {@link RenderMode#CLIENT}. Each row is encoded as JSON object with
+ * the following members:
+ * <ul>
+ * <li>{@code o}: The formatted offset of the row.</li>
+ * <li>{@code b}: The bytes of the row as Base64.</li>
+ * <li>{@code s}: The runs of bytes with custom styles as flat array of
+ * {@code [index, length, cssClasses]} triples.</li>
+ * <li>{@code r}: The number of identical rows summarized by the row. It's
+ * only present if the row summarizes a collapsed run, see
+ * {@link ByteDataItem#getRunMarker(long)}.</li>
+ * </ul>
+ * So a row of 16 bytes needs about 40 characters instead of 18 formatted cells.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class RawRowRenderer extends AbstractRenderer<RawRow>
+{
+    private static final long serialVersionUID = -6483208123874616407L;
+
+    /**
+     * Creates a renderer which displays the dump column as ISO-8859-1.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RawRowRenderer()
+    {
+        super(RawRow.class, null);
+        setDumpEncoding(DumpEncoding.ISO_8859_1);
+        setRowWidth(DataColumn.DEFAULT_ROW_WIDTH);
+    }
+
+    /**
+     * Specifies the number of bytes per row, so the browser pads short rows
+     * to the same width. Rows which are already displayed have to be
+     * refreshed.
+     *
+     * @param rowWidth
+     *            The number of bytes per row.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setRowWidth(final int rowWidth)
+    {
+        getState().rowWidth = DataColumn.checkRowWidth(rowWidth);
+    }
+
+    /**
+     * Specifies the code page which is used by the browser in order to
+     * display the bytes as text. Rows which are already displayed have to be
+     * refreshed.
+     *
+     * @param dumpEncoding
+     *            The code page of the dump column.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setDumpEncoding(final DumpEncoding dumpEncoding)
+    {
+        getState().codePage = dumpEncoding.getCodePage();
+    }
+
+    /**
+     * Specifies how many bytes the browser groups to a word and in which
+     * order. Rows which are already displayed have to be refreshed.
+     *
+     * @param wordFormat
+     *            The format of the data cells.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setWordFormat(final WordFormat wordFormat)
+    {
+        getState().wordSize = wordFormat.getWordSize().getSize();
+        getState().littleEndian = wordFormat.isReversed();
+    }
+
+    @Override
+    protected RawRowRendererState getState()
+    {
+        return (RawRowRendererState) super.getState();
+    }
+
+    @Override
+    public JsonValue encode(final RawRow value)
+    {
+        if (value == null)
+            return Json.createNull();
+
+        final ByteDataItem item = value.getItem();
+        final byte[] bytes = new byte[item.getRowLength()];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = item.getByte(i);
+
+        final JsonArray styleRuns = Json.createArray();
+        final String[] styles = value.getDataCellStyles();
+        for (int start = 0, end; start < bytes.length; start = end)
+        {
+            end = start + 1;
+            while (end < bytes.length && styles[end].equals(styles[start]))
+                end++;
+
+            if (styles[start].length() > HexCellStyleGenerator.DATA_CELL_STYLE.length())
+            {
+                styleRuns.set(styleRuns.length(), start);
+                styleRuns.set(styleRuns.length(), end - start);
+                styleRuns.set(styleRuns.length(), styles[start]);
+            }
+        }
+
+        final JsonObject result = Json.createObject();
+        result.put("o", item.getDisplayValue(ColumnTypes.OFFSET));
+        result.put("b", Base64.getEncoder().encodeToString(bytes));
+        result.put("s", styleRuns);
+        if (item.isSummary())
+            result.put("r", item.getRepeatedRows());
+
+        return result;
+    }
+}
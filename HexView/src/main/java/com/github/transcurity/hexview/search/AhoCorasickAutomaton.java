@@ -0,0 +1,331 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds any number of {@link Signature signatures} within a single pass over
+ * the data by the Aho-Corasick algorithm. The signatures form a trie whose
+ * states are linked to the state of their longest proper suffix, so the
+ * automaton falls back to it on a mismatch instead of restarting.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Thousands of signatures result in many states with only a few transitions
+ * each, so the transitions of all states share a single open addressing hash
+ * table. Only the root state, which is visited most often, has a transition
+ * for every byte.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class AhoCorasickAutomaton
+{
+    /**
+     * Marks unused entries of {@link #keys}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final long NO_KEY = -1;
+
+    /**
+     * The successors of the root state indexed by the unsigned value of a
+     * byte. Bytes without a successor lead back to the root state.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] rootTransitions = new int[256];
+
+    /**
+     * The keys of the transitions, i.e. the state shifted by eight bits
+     * combined with the unsigned value of the byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long[] keys;
+
+    /**
+     * The successor states of the transitions in {@link #keys}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] targets;
+
+    /**
+     * The number of bits of an index of {@link #keys}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int indexBits;
+
+    /**
+     * The state of the longest proper suffix of each state.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] failures;
+
+    /**
+     * The first signature completed by each state or {@code -1}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] outputs;
+
+    /**
+     * The next state within the failure chain of each state which completes a
+     * signature or {@code -1}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] outputLinks;
+
+    /**
+     * The next signature consisting of the same bytes as each signature or
+     * {@code -1}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] nextSignatures;
+
+    /**
+     * @param signatures
+     *            The signatures to be found. Matches refer to them by their
+     *            index.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    AhoCorasickAutomaton(final List<Signature> signatures)
+    {
+        int maxStates = 1;
+        for (final Signature signature : signatures)
+            maxStates += signature.length();
+
+        this.indexBits = Math.max(4, 33 - Integer.numberOfLeadingZeros(maxStates));
+        this.keys = new long[1 << this.indexBits];
+        this.targets = new int[this.keys.length];
+        Arrays.fill(this.keys, NO_KEY);
+
+        // build the trie, remembering the parent and the byte of each state
+        final int[] parents = new int[maxStates];
+        final int[] labels = new int[maxStates];
+        final int[] depths = new int[maxStates];
+        final int[] ownOutputs = new int[maxStates];
+        Arrays.fill(ownOutputs, -1);
+        this.nextSignatures = new int[signatures.size()];
+        int stateCount = 1;
+        for (int i = 0; i < signatures.size(); i++)
+        {
+            final Signature signature = signatures.get(i);
+            int state = 0;
+            for (int j = 0; j < signature.length(); j++)
+            {
+                final int value = signature.getByte(j) & 0xFF;
+                int next = getTransition(state, value);
+                if (next < 0)
+                {
+                    next = stateCount++;
+                    parents[next] = state;
+                    labels[next] = value;
+                    depths[next] = j + 1;
+                    putTransition(state, value, next);
+                }
+                state = next;
+            }
+            this.nextSignatures[i] = ownOutputs[state];
+            ownOutputs[state] = i;
+        }
+
+        this.failures = new int[stateCount];
+        this.outputs = Arrays.copyOf(ownOutputs, stateCount);
+        this.outputLinks = new int[stateCount];
+        Arrays.fill(this.outputLinks, -1);
+
+        // link the states in breadth first order, so the suffix of a state is
+        // always linked before the state itself
+        for (final int state : sortByDepth(depths, stateCount))
+        {
+            final int parent = parents[state];
+            int failure = 0;
+            if (parent != 0)
+            {
+                failure = this.failures[parent];
+                while (failure != 0 && getTransition(failure, labels[state]) < 0)
+                    failure = this.failures[failure];
+
+                failure = Math.max(0, getTransition(failure, labels[state]));
+            }
+
+            this.failures[state] = failure;
+            this.outputLinks[state] = this.outputs[failure] >= 0 ? failure : this.outputLinks[failure];
+        }
+
+        for (int value = 0; value < 256; value++)
+            this.rootTransitions[value] = Math.max(0, getTransition(0, value));
+    }
+
+    /**
+     * Sorts the states except the root state by their distance from the root
+     * state.
+     *
+     * @param depths
+     *            The depth of each state.
+     * @param stateCount
+     *            The number of states.
+     * @return The states except the root state in ascending order of depth.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static int[] sortByDepth(final int[] depths, final int stateCount)
+    {
+        int maxDepth = 0;
+        for (int state = 1; state < stateCount; state++)
+            maxDepth = Math.max(maxDepth, depths[state]);
+
+        final int[] starts = new int[maxDepth + 2];
+        for (int state = 1; state < stateCount; state++)
+            starts[depths[state] + 1]++;
+        for (int depth = 1; depth < starts.length; depth++)
+            starts[depth] += starts[depth - 1];
+
+        final int[] result = new int[stateCount - 1];
+        for (int state = 1; state < stateCount; state++)
+            result[starts[depths[state]]++] = state;
+
+        return result;
+    }
+
+    /**
+     * @param state
+     *            The current state.
+     * @param value
+     *            The unsigned value of the next byte.
+     * @return The index of the transition within {@link #keys}, either the
+     *         used or the unused entry where it belongs.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int indexOf(final int state, final int value)
+    {
+        final long key = (long) state << 8 | value;
+        final int mask = this.keys.length - 1;
+        int index = (int) (key * 0x9E3779B97F4A7C15L >>> 64 - this.indexBits);
+        while (this.keys[index] != NO_KEY && this.keys[index] != key)
+            index = index + 1 & mask;
+
+        return index;
+    }
+
+    /**
+     * @param state
+     *            The current state.
+     * @param value
+     *            The unsigned value of the next byte.
+     * @return The state of the trie reached by the byte or {@code -1} if there
+     *         is none.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int getTransition(final int state, final int value)
+    {
+        final int index = indexOf(state, value);
+        return this.keys[index] != NO_KEY ? this.targets[index] : -1;
+    }
+
+    /**
+     * @param state
+     *            The current state.
+     * @param value
+     *            The unsigned value of the next byte.
+     * @param target
+     *            The state reached by the byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void putTransition(final int state, final int value,
+            final int target)
+    {
+        final int index = indexOf(state, value);
+        this.keys[index] = (long) state << 8 | value;
+        this.targets[index] = target;
+    }
+
+    /**
+     * @param state
+     *            The current state, initially {@code 0}.
+     * @param value
+     *            The next byte of the data.
+     * @return The state after the byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int next(final int state, final byte value)
+    {
+        final int unsigned = value & 0xFF;
+        int current = state;
+        while (current != 0)
+        {
+            final int next = getTransition(current, unsigned);
+            if (next >= 0)
+                return next;
+
+            current = this.failures[current];
+        }
+
+        return this.rootTransitions[unsigned];
+    }
+
+    /**
+     * @param state
+     *            The current state.
+     * @return The state itself if it completes a signature, otherwise the
+     *         first state of its failure chain which does or {@code -1} if no
+     *         signature ends at the current byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int getFirstMatch(final int state)
+    {
+        return this.outputs[state] >= 0 ? state : this.outputLinks[state];
+    }
+
+    /**
+     * @param matchState
+     *            A state which completes a signature.
+     * @return The next state of its failure chain which completes a signature
+     *         or {@code -1}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int getNextMatch(final int matchState)
+    {
+        return this.outputLinks[matchState];
+    }
+
+    /**
+     * @param matchState
+     *            A state which completes a signature.
+     * @return The index of the first signature completed by the state.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int getFirstSignature(final int matchState)
+    {
+        return this.outputs[matchState];
+    }
+
+    /**
+     * @param signature
+     *            The index of a signature.
+     * @return The index of the next signature consisting of the same bytes or
+     *         {@code -1}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int getNextSignature(final int signature)
+    {
+        return this.nextSignatures[signature];
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+import com.github.transcurity.hexview.util.ByteUtilities;
+
+/**
+ * A sequence of bytes to be searched for. Single positions may be wildcards
+ * which match every byte.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public final class BytePattern implements Serializable
+{
+    private static final long serialVersionUID = 7208245136694541377L;
+
+    /**
+     * The bytes to be found. The values at wildcard positions are ignored.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final byte[] values;
+
+    /**
+     * Marks the positions which match every byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final boolean[] wildcards;
+
+    /**
+     * @param values
+     *            The bytes to be found. The values at wildcard positions are
+     *            ignored.
+     * @param wildcards
+     *            Marks the positions which match every byte.
+     * @throws IllegalArgumentException
+     *             If the pattern is empty or the arrays differ in length.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public BytePattern(final byte[] values, final boolean[] wildcards)
+    {
+        if (values.length == 0 || values.length != wildcards.length)
+            throw new IllegalArgumentException("Pattern must not be empty and requires a wildcard flag per byte");
+
+        this.values = values.clone();
+        this.wildcards = wildcards.clone();
+    }
+
+    /**
+     * @param values
+     *            The bytes to be found.
+     * @return A pattern without wildcards.
+     * @throws IllegalArgumentException
+     *             If the pattern is empty.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static BytePattern of(final byte[] values)
+    {
+        return new BytePattern(values, new boolean[values.length]);
+    }
+
+    /**
+     * Parses a pattern of hex values like {@code "4D 5A ?? 00"}. Each byte
+     * consists of two hex digits or {@code ??} as wildcard. Whitespace is
+     * ignored.
+     *
+     * @param hex
+     *            The hex values of the pattern.
+     * @return The parsed pattern.
+     * @throws IllegalArgumentException
+     *             If the text isn't a sequence of hex bytes and wildcards.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static BytePattern fromHex(final String hex)
+    {
+        final String digits = hex.replaceAll("\\s", "");
+        if (digits.length() % 2 != 0)
+            throw new IllegalArgumentException("Hex pattern requires two digits per byte: " + hex);
+
+        final byte[] values = new byte[digits.length() / 2];
+        final boolean[] wildcards = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            final char high = digits.charAt(2 * i);
+            final char low = digits.charAt(2 * i + 1);
+            if (high == '?' && low == '?')
+                wildcards[i] = true;
+            else if (Character.digit(high, 16) >= 0 && Character.digit(low, 16) >= 0)
+                values[i] = (byte) (Character.digit(high, 16) << 4 | Character.digit(low, 16));
+            else
+                throw new IllegalArgumentException("Invalid hex byte '" + high + low + "' in pattern: " + hex);
+        }
+
+        return new BytePattern(values, wildcards);
+    }
+
+    /**
+     * @param text
+     *            The text to be found.
+     * @return A pattern of the ISO-8859-1 encoded text, i.e. the characters
+     *         shown by the ASCII column.
+     * @throws IllegalArgumentException
+     *             If the text is empty.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static BytePattern fromAscii(final String text)
+    {
+        return of(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * @param text
+     *            The text to be found.
+     * @return A pattern of the UTF-16LE encoded text as used by Windows.
+     * @throws IllegalArgumentException
+     *             If the text is empty.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static BytePattern fromUtf16(final String text)
+    {
+        return of(text.getBytes(StandardCharsets.UTF_16LE));
+    }
+
+    /**
+     * @return The number of bytes matched by this pattern.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int length()
+    {
+        return this.values.length;
+    }
+
+    /**
+     * @return A copy of the bytes to be found. The values at wildcard
+     *         positions are {@code 0}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public byte[] getValues()
+    {
+        return this.values.clone();
+    }
+
+    /**
+     * @return A copy of the flags which mark the positions matching every
+     *         byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean[] getWildcards()
+    {
+        return this.wildcards.clone();
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder result = new StringBuilder(this.values.length * 3);
+        for (int i = 0; i < this.values.length; i++)
+        {
+            if (i > 0)
+                result.append(' ');
+
+            result.append(this.wildcards[i] ? "??" : ByteUtilities.byteToHex(this.values[i]));
+        }
+
+        return result.toString();
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.util.List;
+
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * Finds all occurrences of a {@link BytePattern}, including overlapping ones,
+ * by searching the chunks of the source in parallel with a
+ * Boyer-Moore-Horspool matcher.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class ByteSearch extends ChunkedSearchTask
+{
+    /**
+     * The pattern to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final BytePattern pattern;
+
+    /**
+     * Finds the pattern within a chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final HorspoolMatcher matcher;
+
+    /**
+     * Creates a search using the default chunk size.
+     *
+     * @param source
+     *            The source of the bytes to be searched.
+     * @param pattern
+     *            The pattern to be found.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteSearch(final ByteSource source, final BytePattern pattern,
+            final SearchListener listener)
+    {
+        this(source, pattern, listener, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param source
+     *            The source of the bytes to be searched.
+     * @param pattern
+     *            The pattern to be found.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     * @param chunkSize
+     *            The number of bytes per chunk searched by one thread.
+     * @throws IllegalArgumentException
+     *             If {@code chunkSize} isn't positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteSearch(final ByteSource source, final BytePattern pattern,
+            final SearchListener listener, final int chunkSize)
+    {
+        super(source, listener, chunkSize);
+        this.pattern = pattern;
+        this.matcher = new HorspoolMatcher(pattern);
+    }
+
+    /**
+     * @return The pattern to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public BytePattern getPattern()
+    {
+        return this.pattern;
+    }
+
+    @Override
+    protected int getOverlap()
+    {
+        return this.pattern.length() - 1;
+    }
+
+    @Override
+    protected void searchChunk(final byte[] chunk, final int length,
+            final int end, final long position, final List<SearchHit> hits)
+    {
+        for (int i = this.matcher.indexOf(chunk, 0, length); i >= 0 && i < end; i = this.matcher.indexOf(chunk, i + 1, length))
+            hits.add(new SearchHit(position + i, this.pattern.length()));
+    }
+}
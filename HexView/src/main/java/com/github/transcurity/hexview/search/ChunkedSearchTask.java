@@ -0,0 +1,166 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * A search which splits the source into chunks of a fixed size and searches
+ * them in parallel. Each chunk is read together with the first bytes of the
+ * following one, so matches crossing a chunk boundary are found by the chunk
+ * they start in.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public abstract class ChunkedSearchTask extends SearchTask
+{
+    /**
+     * The default number of bytes per chunk (1 MiB).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * The number of bytes per chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int chunkSize;
+
+    /**
+     * @param source
+     *            The source of the bytes to be searched.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     * @param chunkSize
+     *            The number of bytes per chunk.
+     * @throws IllegalArgumentException
+     *             If {@code chunkSize} isn't positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected ChunkedSearchTask(final ByteSource source,
+            final SearchListener listener, final int chunkSize)
+    {
+        super(source, listener);
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return The number of bytes per chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getChunkSize()
+    {
+        return this.chunkSize;
+    }
+
+    @Override
+    protected void search()
+    {
+        final long length = getSource().length();
+        new ChunkAction(0, (length + this.chunkSize - 1) / this.chunkSize).invoke();
+    }
+
+    /**
+     * @return The number of bytes following a chunk which are required in
+     *         order to find matches starting in it, i.e. the length of the
+     *         longest match minus one.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected abstract int getOverlap();
+
+    /**
+     * Searches a single chunk.
+     *
+     * @param chunk
+     *            The bytes of the chunk followed by the overlapping bytes of
+     *            the next chunk.
+     * @param length
+     *            The number of valid bytes of {@code chunk}.
+     * @param end
+     *            The number of bytes of the chunk itself. Only matches starting
+     *            before it have to be reported.
+     * @param position
+     *            The position of the chunk within the source.
+     * @param hits
+     *            Receives the hits in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected abstract void searchChunk(byte[] chunk, int length, int end,
+            long position, List<SearchHit> hits);
+
+    /**
+     * Searches a range of chunks by splitting it until single chunks remain.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private class ChunkAction extends RecursiveAction
+    {
+        private static final long serialVersionUID = -3104877617326931270L;
+
+        /**
+         * The index of the first chunk to be searched.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final long first;
+
+        /**
+         * The index after the last chunk to be searched.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        private final long end;
+
+        /**
+         * @param first
+         *            The index of the first chunk to be searched.
+         * @param end
+         *            The index after the last chunk to be searched.
+         *
+         * @author Andreas "PAX" Lück
+         */
+        ChunkAction(final long first, final long end)
+        {
+            this.first = first;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (isStopped())
+                return;
+
+            if (this.end - this.first > 1)
+            {
+                final long middle = (this.first + this.end) >>> 1;
+                invokeAll(new ChunkAction(this.first, middle), new ChunkAction(middle, this.end));
+                return;
+            }
+
+            final ByteSource source = getSource();
+            final long position = this.first * ChunkedSearchTask.this.chunkSize;
+            final int chunkEnd = (int) Math.min(ChunkedSearchTask.this.chunkSize, source.length() - position);
+            final byte[] chunk = new byte[ChunkedSearchTask.this.chunkSize + getOverlap()];
+            final int length = source.read(position, chunk, chunkEnd + getOverlap());
+            final List<SearchHit> hits = new ArrayList<>();
+            searchChunk(chunk, length, chunkEnd, position, hits);
+            searched(chunkEnd);
+            report(hits);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import com.github.transcurity.hexview.properties.DumpEncoding;
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * A read-only view of a range of a {@link ByteSource} as the characters
+ * displayed by the dump column, e.g. in order to evaluate regular expressions
+ * without copying the data into a {@link String}. Non-printable characters
+ * appear as {@link DumpEncoding#NON_PRINTABLE}, just like in the dump column.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Only a window of the characters is decoded at a time. Regular expressions
+ * mostly proceed sequentially, so each window is decoded only once or twice.
+ * A view isn't thread-safe.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class DumpText implements CharSequence
+{
+    /**
+     * The default number of characters decoded at a time.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
+    /**
+     * The source of the bytes to be decoded.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteSource source;
+
+    /**
+     * Maps the bytes to characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final DumpEncoding encoding;
+
+    /**
+     * The position of the first byte within the source.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long position;
+
+    /**
+     * The number of characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int length;
+
+    /**
+     * The bytes of the window.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final byte[] bytes;
+
+    /**
+     * The decoded characters of the window.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final char[] window;
+
+    /**
+     * The index of the first character of the window or {@code -1} if nothing
+     * has been decoded, yet.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int windowStart = -1;
+
+    /**
+     * The number of characters of the window.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private int windowLength;
+
+    /**
+     * Creates a view using the default window size.
+     *
+     * @param source
+     *            The source of the bytes to be decoded.
+     * @param encoding
+     *            Maps the bytes to characters.
+     * @param position
+     *            The position of the first byte within the source.
+     * @param length
+     *            The number of characters. A trailing incomplete character of
+     *            a multi-byte encoding is included.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public DumpText(final ByteSource source, final DumpEncoding encoding,
+            final long position, final int length)
+    {
+        this(source, encoding, position, length, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param source
+     *            The source of the bytes to be decoded.
+     * @param encoding
+     *            Maps the bytes to characters.
+     * @param position
+     *            The position of the first byte within the source.
+     * @param length
+     *            The number of characters. A trailing incomplete character of
+     *            a multi-byte encoding is included.
+     * @param windowSize
+     *            The number of characters decoded at a time.
+     * @throws IllegalArgumentException
+     *             If {@code length} is negative or {@code windowSize} isn't
+     *             positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public DumpText(final ByteSource source, final DumpEncoding encoding,
+            final long position, final int length, final int windowSize)
+    {
+        if (length < 0 || windowSize <= 0)
+            throw new IllegalArgumentException("Length must not be negative and window size must be positive");
+
+        this.source = source;
+        this.encoding = encoding;
+        this.position = position;
+        this.length = length;
+        this.window = new char[Math.min(windowSize, Math.max(1, length))];
+        this.bytes = new byte[this.window.length * encoding.getBytesPerCharacter()];
+    }
+
+    /**
+     * @param index
+     *            The index of a character.
+     * @return The position within the source of the first byte of the
+     *         character.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getPosition(final int index)
+    {
+        return this.position + (long) index * this.encoding.getBytesPerCharacter();
+    }
+
+    @Override
+    public int length()
+    {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(final int index)
+    {
+        if (index < 0 || index >= this.length)
+            throw new IndexOutOfBoundsException("Index " + index
+                    + " is out of range [0, " + this.length + ")");
+
+        if (index < this.windowStart || index >= this.windowStart + this.windowLength)
+            decodeWindow(index - index % this.window.length);
+
+        return this.window[index - this.windowStart];
+    }
+
+    /**
+     * Decodes the window starting at the specified character. Bytes which
+     * can't be read anymore, e.g. of a truncated file, are decoded as
+     * {@link DumpEncoding#NON_PRINTABLE}.
+     *
+     * @param start
+     *            The index of the first character of the window.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private void decodeWindow(final int start)
+    {
+        final int count = Math.min(this.window.length, this.length - start);
+        final int read = this.source.read(getPosition(start), this.bytes, 0, count * this.encoding.getBytesPerCharacter());
+        int decoded = this.encoding.render(this.bytes, 0, read, this.window, 0);
+        while (decoded < count)
+            this.window[decoded++] = DumpEncoding.NON_PRINTABLE;
+
+        this.windowStart = start;
+        this.windowLength = count;
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end)
+    {
+        if (start < 0 || start > end || end > this.length)
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end
+                    + ") is out of range [0, " + this.length + ")");
+
+        return new DumpText(this.source, this.encoding, getPosition(start), end - start, this.window.length);
+    }
+
+    @Override
+    public String toString()
+    {
+        final char[] result = new char[this.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = charAt(i);
+
+        return new String(result);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.util.Arrays;
+
+/**
+ * Finds a {@link BytePattern} by the Boyer-Moore-Horspool algorithm. The bytes
+ * of a candidate are compared from the end of the pattern, and on a mismatch
+ * the pattern is shifted by the distance of the last candidate byte to its
+ * last occurrence within the pattern. Wildcards match every byte, so they
+ * limit the shifts.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class HorspoolMatcher
+{
+    /**
+     * The bytes to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final byte[] values;
+
+    /**
+     * Marks the positions of the pattern which match every byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final boolean[] wildcards;
+
+    /**
+     * The shift of the pattern indexed by the unsigned value of the byte
+     * aligned with the end of the pattern.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int[] shifts = new int[256];
+
+    /**
+     * @param pattern
+     *            The pattern to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    HorspoolMatcher(final BytePattern pattern)
+    {
+        this.values = pattern.getValues();
+        this.wildcards = pattern.getWildcards();
+
+        final int last = this.values.length - 1;
+        int defaultShift = this.values.length;
+        for (int i = 0; i < last; i++)
+            if (this.wildcards[i])
+                defaultShift = last - i;
+
+        Arrays.fill(this.shifts, defaultShift);
+        for (int i = 0; i < last; i++)
+            if (!this.wildcards[i])
+                this.shifts[this.values[i] & 0xFF] = Math.min(last - i, defaultShift);
+    }
+
+    /**
+     * Finds the next match.
+     *
+     * @param data
+     *            The bytes to be searched.
+     * @param from
+     *            The index within {@code data} where the search starts.
+     * @param limit
+     *            The number of valid bytes of {@code data}.
+     * @return The index of the first match starting at or after {@code from}
+     *         or {@code -1} if there's none.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int indexOf(final byte[] data, final int from, final int limit)
+    {
+        final int last = this.values.length - 1;
+        for (int i = from; i + last < limit; i += this.shifts[data[i + last] & 0xFF])
+        {
+            int j = last;
+            while (j >= 0 && (this.wildcards[j] || data[i + j] == this.values[j]))
+                j--;
+
+            if (j < 0)
+                return i;
+        }
+
+        return -1;
+    }
+}
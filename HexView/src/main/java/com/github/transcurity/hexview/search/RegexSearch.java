@@ -0,0 +1,206 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.transcurity.hexview.properties.DumpEncoding;
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * Finds the matches of a regular expression within the text displayed by the
+ * dump column, e.g. URLs, registry keys or base64 blobs. The expression is
+ * evaluated over a {@link DumpText} view, so the data is never copied into a
+ * {@link String} as a whole. Hits are the byte ranges of non-empty matches.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The text is searched sequentially in segments, so each segment fits the
+ * {@code int} indices of a {@link CharSequence}. Matches may start anywhere
+ * within a segment and don't overlap, just like the matches of
+ * {@link Matcher#find()} within a single string. A longer match than the
+ * maximum match length is truncated to it, and the search resumes after the
+ * end of the whole match, so its rest isn't reported as another hit. Only a
+ * match exceeding the maximum match length beyond the end of its segment may
+ * continue as a further hit in the next segment. Hits are reported and the
+ * progress is updated after each segment, and cancellation is checked after
+ * each match.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class RegexSearch extends SearchTask
+{
+    /**
+     * The default number of characters per segment.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_SEGMENT_LENGTH = 1024 * 1024;
+
+    /**
+     * The default maximum number of characters of a match.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_MAX_MATCH_LENGTH = 4096;
+
+    /**
+     * The number of characters before and after a segment which are visible
+     * to anchors, lookbehind and lookahead.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static final int CONTEXT_LENGTH = 64;
+
+    /**
+     * The expression to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Pattern pattern;
+
+    /**
+     * Maps the bytes to the searched characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final DumpEncoding encoding;
+
+    /**
+     * The number of characters per segment.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int segmentLength;
+
+    /**
+     * The maximum number of characters of a match.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int maxMatchLength;
+
+    /**
+     * Creates a search using the default segment length and maximum match
+     * length.
+     *
+     * @param source
+     *            The source of the bytes to be searched.
+     * @param pattern
+     *            The expression to be found.
+     * @param encoding
+     *            Maps the bytes to the searched characters, usually the
+     *            encoding of the dump column.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RegexSearch(final ByteSource source, final Pattern pattern,
+            final DumpEncoding encoding, final SearchListener listener)
+    {
+        this(source, pattern, encoding, listener, DEFAULT_SEGMENT_LENGTH, DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    /**
+     * @param source
+     *            The source of the bytes to be searched.
+     * @param pattern
+     *            The expression to be found.
+     * @param encoding
+     *            Maps the bytes to the searched characters, usually the
+     *            encoding of the dump column.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     * @param segmentLength
+     *            The number of characters per segment.
+     * @param maxMatchLength
+     *            The maximum number of characters of a match.
+     * @throws IllegalArgumentException
+     *             If {@code segmentLength} or {@code maxMatchLength} isn't
+     *             positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public RegexSearch(final ByteSource source, final Pattern pattern,
+            final DumpEncoding encoding, final SearchListener listener,
+            final int segmentLength, final int maxMatchLength)
+    {
+        super(source, listener);
+        if (segmentLength <= 0 || maxMatchLength <= 0)
+            throw new IllegalArgumentException("Segment length and maximum match length must be positive");
+
+        this.pattern = pattern;
+        this.encoding = encoding;
+        this.segmentLength = segmentLength;
+        this.maxMatchLength = maxMatchLength;
+    }
+
+    /**
+     * @return The expression to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Pattern getPattern()
+    {
+        return this.pattern;
+    }
+
+    /**
+     * @return Maps the bytes to the searched characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public DumpEncoding getEncoding()
+    {
+        return this.encoding;
+    }
+
+    @Override
+    protected void search()
+    {
+        final long byteLength = getSource().length();
+        final int bytesPerCharacter = this.encoding.getBytesPerCharacter();
+        final long length = (byteLength + bytesPerCharacter - 1) / bytesPerCharacter;
+        long start = 0;
+        while (start < length && !isStopped())
+        {
+            final long segmentEnd = Math.min(length, start + this.segmentLength);
+            final long regionEnd = Math.min(length, segmentEnd + this.maxMatchLength);
+            final long textStart = Math.max(0, start - CONTEXT_LENGTH);
+            final long textEnd = Math.min(length, regionEnd + CONTEXT_LENGTH);
+            final DumpText text = new DumpText(getSource(), this.encoding, textStart * bytesPerCharacter, (int) (textEnd - textStart));
+
+            // the context is visible to lookaround, but anchors only match at
+            // the bounds of the whole data
+            final Matcher matcher = this.pattern.matcher(text);
+            matcher.region((int) (start - textStart), (int) (regionEnd - textStart));
+            matcher.useTransparentBounds(true);
+            matcher.useAnchoringBounds(false);
+
+            long next = segmentEnd;
+            final List<SearchHit> hits = new ArrayList<>();
+            while (!isStopped() && matcher.find() && textStart + matcher.start() < segmentEnd)
+            {
+                if (matcher.end() == matcher.start())
+                    continue;
+
+                // a longer match is truncated, while the search continues
+                // after the whole match
+                final int end = Math.min(matcher.end(), matcher.start() + this.maxMatchLength);
+
+                final long offset = text.getPosition(matcher.start());
+                hits.add(new SearchHit(offset, Math.min(byteLength, text.getPosition(end)) - offset));
+                next = Math.max(next, textStart + matcher.end());
+            }
+
+            searched(Math.min(byteLength, next * bytesPerCharacter) - start * bytesPerCharacter);
+            report(hits);
+            start = next;
+        }
+    }
+}
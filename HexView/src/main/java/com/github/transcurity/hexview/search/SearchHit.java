@@ -0,0 +1,138 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.io.Serializable;
+
+import com.github.transcurity.hexview.cells.StyleRange;
+
+/**
+ * A range of bytes which matches a search.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class SearchHit implements Serializable, Comparable<SearchHit>
+{
+    private static final long serialVersionUID = -6441284637601925538L;
+
+    /**
+     * The position of the first matching byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long offset;
+
+    /**
+     * The number of matching bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long length;
+
+    /**
+     * @param offset
+     *            The position of the first matching byte.
+     * @param length
+     *            The number of matching bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SearchHit(final long offset, final long length)
+    {
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return The position of the first matching byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getOffset()
+    {
+        return this.offset;
+    }
+
+    /**
+     * @return The number of matching bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getLength()
+    {
+        return this.length;
+    }
+
+    /**
+     * @param cssClasses
+     *            The CSS classes of the matching bytes.
+     * @return A style range which highlights the matching bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public StyleRange toStyleRange(final String cssClasses)
+    {
+        return new StyleRange(this.offset, this.length, cssClasses);
+    }
+
+    /**
+     * Orders hits at the same position and of the same length, e.g. hits of
+     * different signatures. It takes part in {@link #compareTo(SearchHit)} and
+     * {@link #equals(Object)}, so both are consistent for all kinds of hits.
+     *
+     * @return {@code -1} for plain hits, so they precede any ranked hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected int getRank()
+    {
+        return -1;
+    }
+
+    @Override
+    public int compareTo(final SearchHit other)
+    {
+        int result = Long.compare(this.offset, other.offset);
+        if (result == 0)
+            result = Long.compare(this.length, other.length);
+
+        return result != 0 ? result : Integer.compare(getRank(), other.getRank());
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[offset=" + this.offset + ", length=" + this.length + "]";
+    }
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + Long.hashCode(this.length);
+        result = prime * result + Long.hashCode(this.offset);
+        result = prime * result + getRank();
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof SearchHit))
+            return false;
+        final SearchHit other = (SearchHit) obj;
+        if (this.length != other.length)
+            return false;
+        if (this.offset != other.offset)
+            return false;
+        if (getRank() != other.getRank())
+            return false;
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Gets notified about the hits of a {@link SearchTask} while it's still
+ * running. It's invoked by the searching threads, so it must not access UI
+ * components without holding the session lock, e.g. by means of
+ * {@code UI.access(Runnable)}.
+ *
+ * @author Andreas "PAX" Lück
+ */
+@FunctionalInterface
+public interface SearchListener extends Serializable
+{
+    /**
+     * Invoked once per searched chunk of data which contains hits. The chunks
+     * are searched in parallel, so the batches may arrive in any order.
+     *
+     * @param hits
+     *            The hits within the chunk in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    void hitsFound(List<SearchHit> hits);
+
+    /**
+     * Invoked once as soon as the search has been completed or cancelled.
+     *
+     * @param search
+     *            The finished search.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    default void searchFinished(final SearchTask search)
+    {
+        // nothing to be done by default
+    }
+}
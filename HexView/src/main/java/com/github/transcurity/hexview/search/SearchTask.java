@@ -0,0 +1,391 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * A search over the bytes of a {@link ByteSource} which runs in the
+ * background. Hits are reported incrementally to a {@link SearchListener} and
+ * collected in offset order, so they can be navigated while the search is
+ * still running. A search can be cancelled at any time.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The number of collected hits is limited, so a pattern matching almost every
+ * byte can't exhaust the heap. The search stops as soon as the limit is
+ * reached.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public abstract class SearchTask
+{
+    /**
+     * The default maximum number of collected hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_MAX_HITS = 100_000;
+
+    /**
+     * The source of the bytes to be searched.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteSource source;
+
+    /**
+     * Gets notified about hits or {@code null}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final SearchListener listener;
+
+    /**
+     * The collected hits in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final NavigableSet<SearchHit> hits = new ConcurrentSkipListSet<>();
+
+    /**
+     * The number of collected hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final AtomicInteger hitCount = new AtomicInteger();
+
+    /**
+     * The number of bytes which have been searched so far.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final AtomicLong searchedBytes = new AtomicLong();
+
+    /**
+     * The maximum number of collected hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private volatile int maxHits = DEFAULT_MAX_HITS;
+
+    /**
+     * Whether the search has been cancelled.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Whether the search has stopped due to the maximum number of hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private volatile boolean limitReached;
+
+    /**
+     * The running search or {@code null} if it hasn't been started, yet.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private volatile ForkJoinTask<?> task;
+
+    /**
+     * @param source
+     *            The source of the bytes to be searched.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected SearchTask(final ByteSource source, final SearchListener listener)
+    {
+        this.source = source;
+        this.listener = listener;
+    }
+
+    /**
+     * @return The source of the bytes to be searched.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteSource getSource()
+    {
+        return this.source;
+    }
+
+    /**
+     * @return The maximum number of collected hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getMaxHits()
+    {
+        return this.maxHits;
+    }
+
+    /**
+     * Specifies the maximum number of collected hits. It should be specified
+     * before the search is started.
+     *
+     * @param maxHits
+     *            The maximum number of collected hits.
+     * @throws IllegalArgumentException
+     *             If {@code maxHits} isn't positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void setMaxHits(final int maxHits)
+    {
+        if (maxHits <= 0)
+            throw new IllegalArgumentException("Maximum number of hits must be positive: " + maxHits);
+
+        this.maxHits = maxHits;
+    }
+
+    /**
+     * Starts the search in the common {@link ForkJoinPool}.
+     *
+     * @throws IllegalStateException
+     *             If the search has already been started.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void start()
+    {
+        start(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Starts the search in the specified pool. Searches which split the data
+     * into chunks search them in parallel by the threads of this pool.
+     *
+     * @param pool
+     *            Runs the search.
+     * @throws IllegalStateException
+     *             If the search has already been started.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized void start(final ForkJoinPool pool)
+    {
+        if (this.task != null)
+            throw new IllegalStateException("The search has already been started");
+
+        this.task = pool.submit(() ->
+        {
+            try
+            {
+                if (!isStopped())
+                    search();
+            }
+            finally
+            {
+                if (this.listener != null)
+                    this.listener.searchFinished(this);
+            }
+        });
+    }
+
+    /**
+     * Searches the whole source. It's invoked by a thread of the pool
+     * specified on start.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected abstract void search();
+
+    /**
+     * Collects the hits found within a part of the source and notifies the
+     * listener about them. Hits exceeding the maximum number of hits are
+     * dropped and stop the search. Parts of the source are searched in
+     * parallel, so the limit may be exceeded slightly.
+     *
+     * @param found
+     *            The hits in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected void report(final List<SearchHit> found)
+    {
+        final List<SearchHit> accepted = new ArrayList<>(found.size());
+        for (final SearchHit hit : found)
+        {
+            if (this.hitCount.get() >= this.maxHits)
+            {
+                this.limitReached = true;
+                break;
+            }
+
+            if (this.hits.add(hit))
+            {
+                this.hitCount.incrementAndGet();
+                accepted.add(hit);
+            }
+        }
+
+        if (this.listener != null && !accepted.isEmpty())
+            this.listener.hitsFound(accepted);
+    }
+
+    /**
+     * Counts bytes which have been searched.
+     *
+     * @param count
+     *            The number of searched bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected void searched(final long count)
+    {
+        this.searchedBytes.addAndGet(count);
+    }
+
+    /**
+     * @return {@code true} if the search has to stop because it has been
+     *         cancelled or the maximum number of hits is reached.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    protected boolean isStopped()
+    {
+        return this.cancelled || this.limitReached;
+    }
+
+    /**
+     * Cancels the search. Parts of the source which are currently searched are
+     * completed, but no further parts are searched.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void cancel()
+    {
+        this.cancelled = true;
+    }
+
+    /**
+     * @return {@code true} if the search has been cancelled.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isCancelled()
+    {
+        return this.cancelled;
+    }
+
+    /**
+     * @return {@code true} if the search has stopped due to the maximum number
+     *         of hits.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isLimitReached()
+    {
+        return this.limitReached;
+    }
+
+    /**
+     * @return {@code true} if the search has been started and has finished,
+     *         either completely or due to cancellation.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean isDone()
+    {
+        final ForkJoinTask<?> current = this.task;
+        return current != null && current.isDone();
+    }
+
+    /**
+     * @return The portion of the source which has been searched so far
+     *         within <span style="white-space:nowrap">{@code [0, 1]}</span>.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public double getProgress()
+    {
+        final long length = this.source.length();
+        return length > 0 ? Math.min(1.0, (double) this.searchedBytes.get() / length) : 1.0;
+    }
+
+    /**
+     * Waits until the search has finished.
+     *
+     * @return All collected hits in ascending order.
+     * @throws IllegalStateException
+     *             If the search hasn't been started.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<SearchHit> await()
+    {
+        final ForkJoinTask<?> current = this.task;
+        if (current == null)
+            throw new IllegalStateException("The search hasn't been started");
+
+        current.join();
+        return getHits();
+    }
+
+    /**
+     * @return The hits collected so far in ascending order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<SearchHit> getHits()
+    {
+        return new ArrayList<>(this.hits);
+    }
+
+    /**
+     * @return The number of hits collected so far.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getHitCount()
+    {
+        return this.hitCount.get();
+    }
+
+    /**
+     * Navigates forward to the hit following a position.
+     *
+     * @param offset
+     *            The position after which the hit has to start, e.g. the
+     *            offset of the currently displayed hit.
+     * @return The first collected hit starting after the specified position or
+     *         {@code null} if there's none (yet).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SearchHit getNextHit(final long offset)
+    {
+        return this.hits.higher(new SearchHit(offset, Long.MAX_VALUE));
+    }
+
+    /**
+     * Navigates backward to the hit preceding a position.
+     *
+     * @param offset
+     *            The position before which the hit has to start, e.g. the
+     *            offset of the currently displayed hit.
+     * @return The last collected hit starting before the specified position
+     *         or {@code null} if there's none (yet).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SearchHit getPreviousHit(final long offset)
+    {
+        return this.hits.lower(new SearchHit(offset, Long.MIN_VALUE));
+    }
+}
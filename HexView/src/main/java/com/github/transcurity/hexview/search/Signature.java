@@ -0,0 +1,136 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.io.Serializable;
+
+/**
+ * A named byte sequence which identifies known content, e.g. a magic number,
+ * a packer stub or a crypto constant, together with the CSS classes of its
+ * annotation.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public final class Signature implements Serializable
+{
+    private static final long serialVersionUID = -2287196069454630950L;
+
+    /**
+     * The CSS class of annotated signatures if no other classes are
+     * specified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final String DEFAULT_STYLE = "hex-signature";
+
+    /**
+     * The name of the signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final String name;
+
+    /**
+     * The bytes to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final byte[] bytes;
+
+    /**
+     * The CSS classes of the annotated bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final String cssClasses;
+
+    /**
+     * Creates a signature annotated by {@link #DEFAULT_STYLE}.
+     *
+     * @param name
+     *            The name of the signature.
+     * @param pattern
+     *            The bytes to be found.
+     * @throws IllegalArgumentException
+     *             If the pattern contains wildcards.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Signature(final String name, final BytePattern pattern)
+    {
+        this(name, pattern, DEFAULT_STYLE);
+    }
+
+    /**
+     * @param name
+     *            The name of the signature.
+     * @param pattern
+     *            The bytes to be found.
+     * @param cssClasses
+     *            The CSS classes of the annotated bytes.
+     * @throws IllegalArgumentException
+     *             If the pattern contains wildcards.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Signature(final String name, final BytePattern pattern,
+            final String cssClasses)
+    {
+        for (final boolean wildcard : pattern.getWildcards())
+            if (wildcard)
+                throw new IllegalArgumentException("Signature " + name + " must not contain wildcards: " + pattern);
+
+        this.name = name;
+        this.bytes = pattern.getValues();
+        this.cssClasses = cssClasses;
+    }
+
+    /**
+     * @return The name of the signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return The number of bytes of the signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int length()
+    {
+        return this.bytes.length;
+    }
+
+    /**
+     * @param index
+     *            The index of the requested byte.
+     * @return The byte at the specified index of the signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public byte getByte(final int index)
+    {
+        return this.bytes[index];
+    }
+
+    /**
+     * @return The CSS classes of the annotated bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String getCssClasses()
+    {
+        return this.cssClasses;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.name;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import com.github.transcurity.hexview.cells.StyleRange;
+
+/**
+ * An occurrence of a {@link Signature}.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class SignatureHit extends SearchHit
+{
+    private static final long serialVersionUID = 4452040983718565924L;
+
+    /**
+     * The index of the signature within the scanned signatures. It ranks
+     * hits of different signatures at the same position.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int index;
+
+    /**
+     * The found signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Signature signature;
+
+    /**
+     * @param offset
+     *            The position of the first byte of the signature.
+     * @param index
+     *            The non-negative index of the signature within the scanned
+     *            signatures.
+     * @param signature
+     *            The found signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SignatureHit(final long offset, final int index,
+            final Signature signature)
+    {
+        super(offset, signature.length());
+        this.index = index;
+        this.signature = signature;
+    }
+
+    /**
+     * @return The found signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Signature getSignature()
+    {
+        return this.signature;
+    }
+
+    /**
+     * @return A style range which annotates the hit by the CSS classes of its
+     *         signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public StyleRange toStyleRange()
+    {
+        return toStyleRange(this.signature.getCssClasses());
+    }
+
+    @Override
+    protected int getRank()
+    {
+        return this.index;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[offset=" + getOffset() + ", signature=" + this.signature + "]";
+    }
+}
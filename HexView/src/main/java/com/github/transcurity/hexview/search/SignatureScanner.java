@@ -0,0 +1,157 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.transcurity.hexview.cells.StyleRange;
+import com.github.transcurity.hexview.source.ByteSource;
+
+/**
+ * Finds all occurrences of any number of {@link Signature signatures} within a
+ * single pass over the source, e.g. in order to annotate magic numbers, packer
+ * stubs or crypto constants. The chunks of the source are scanned in parallel
+ * by an Aho-Corasick automaton, so the cost of the scan hardly depends on the
+ * number of signatures.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The hits are {@link SignatureHit signature hits} which can be converted into
+ * an annotation layer as a whole by {@link #getStyleRanges()}.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class SignatureScanner extends ChunkedSearchTask
+{
+    /**
+     * The signatures to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final List<Signature> signatures;
+
+    /**
+     * Finds all signatures within a chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final AhoCorasickAutomaton automaton;
+
+    /**
+     * The length of the longest signature minus one.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int overlap;
+
+    /**
+     * Creates a scanner using the default chunk size.
+     *
+     * @param source
+     *            The source of the bytes to be scanned.
+     * @param signatures
+     *            The signatures to be found.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     * @throws IllegalArgumentException
+     *             If no signature is specified.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SignatureScanner(final ByteSource source,
+            final Collection<Signature> signatures,
+            final SearchListener listener)
+    {
+        this(source, signatures, listener, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param source
+     *            The source of the bytes to be scanned.
+     * @param signatures
+     *            The signatures to be found.
+     * @param listener
+     *            Gets notified about hits or {@code null}.
+     * @param chunkSize
+     *            The number of bytes per chunk scanned by one thread.
+     * @throws IllegalArgumentException
+     *             If no signature is specified or {@code chunkSize} isn't
+     *             positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public SignatureScanner(final ByteSource source,
+            final Collection<Signature> signatures,
+            final SearchListener listener, final int chunkSize)
+    {
+        super(source, listener, chunkSize);
+        if (signatures.isEmpty())
+            throw new IllegalArgumentException("At least one signature is required");
+
+        this.signatures = Collections.unmodifiableList(new ArrayList<>(signatures));
+        this.automaton = new AhoCorasickAutomaton(this.signatures);
+
+        int maxLength = 0;
+        for (final Signature signature : this.signatures)
+            maxLength = Math.max(maxLength, signature.length());
+        this.overlap = maxLength - 1;
+    }
+
+    /**
+     * @return The signatures to be found.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<Signature> getSignatures()
+    {
+        return this.signatures;
+    }
+
+    /**
+     * @return The hits collected so far, each one annotated by the CSS classes
+     *         of its signature.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public List<StyleRange> getStyleRanges()
+    {
+        final List<SearchHit> hits = getHits();
+        final List<StyleRange> result = new ArrayList<>(hits.size());
+        for (final SearchHit hit : hits)
+            result.add(((SignatureHit) hit).toStyleRange());
+
+        return result;
+    }
+
+    @Override
+    protected int getOverlap()
+    {
+        return this.overlap;
+    }
+
+    @Override
+    protected void searchChunk(final byte[] chunk, final int length,
+            final int end, final long position, final List<SearchHit> hits)
+    {
+        int state = 0;
+        for (int i = 0; i < length; i++)
+        {
+            state = this.automaton.next(state, chunk[i]);
+            for (int match = this.automaton.getFirstMatch(state); match >= 0; match = this.automaton.getNextMatch(match))
+                for (int index = this.automaton.getFirstSignature(match); index >= 0; index = this.automaton.getNextSignature(index))
+                {
+                    final Signature signature = this.signatures.get(index);
+                    final int start = i + 1 - signature.length();
+                    if (start < end)
+                        hits.add(new SignatureHit(position + start, index, signature));
+                }
+        }
+
+        // hits are found in the order of their last byte
+        Collections.sort(hits);
+    }
+}
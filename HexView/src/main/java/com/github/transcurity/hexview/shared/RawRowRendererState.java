@@ -0,0 +1,47 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.shared;
+
+import com.vaadin.shared.communication.SharedState;
+
+/**
+ * The state of the renderer which formats raw hex view rows in the browser.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class RawRowRendererState extends SharedState
+{
+    private static final long serialVersionUID = 7301597361409254513L;
+
+    /**
+     * The displayed characters of the dump column indexed by the unsigned value
+     * of the byte they represent, or {@code null} if two bytes make up one
+     * UTF-16LE character.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public String codePage;
+
+    /**
+     * The number of bytes of a complete row. Shorter rows are padded in order
+     * to keep the dump column aligned.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int rowWidth = 16;
+
+    /**
+     * The number of bytes which are grouped to a word.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int wordSize = 1;
+
+    /**
+     * Whether the bytes of each word are displayed in reverse order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public boolean littleEndian;
+}
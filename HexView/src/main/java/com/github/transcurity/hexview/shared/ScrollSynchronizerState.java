@@ -0,0 +1,26 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.shared;
+
+import com.vaadin.shared.Connector;
+import com.vaadin.shared.communication.SharedState;
+
+/**
+ * The state of the extension which synchronizes the scroll positions of two
+ * hex views in the browser.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class ScrollSynchronizerState extends SharedState
+{
+    private static final long serialVersionUID = -5170391836245573404L;
+
+    /**
+     * The extension of the other hex view which follows the scroll position of
+     * the extended one.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public Connector partner;
+}
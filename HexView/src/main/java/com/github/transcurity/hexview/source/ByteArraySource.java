@@ -0,0 +1,64 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.source;
+
+import java.io.Serializable;
+
+/**
+ * Provides the bytes of an array which already resides on the heap. The array
+ * isn't copied, so later modifications of it are visible by this source.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class ByteArraySource implements ByteSource, Serializable
+{
+    private static final long serialVersionUID = 2216548786497404766L;
+
+    /**
+     * The wrapped bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final byte[] data;
+
+    /**
+     * @param data
+     *            The wrapped bytes. A value of {@code null} would be
+     *            interpreted as empty array.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteArraySource(final byte[] data)
+    {
+        this.data = data != null ? data : new byte[0];
+    }
+
+    @Override
+    public long length()
+    {
+        return this.data.length;
+    }
+
+    @Override
+    public int read(final long position, final byte[] buffer,
+            final int offset, final int length)
+    {
+        if (position < 0 || position >= this.data.length || length <= 0)
+            return 0;
+
+        final int count = (int) Math.min(length, this.data.length - position);
+        System.arraycopy(this.data, (int) position, buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public byte get(final long position)
+    {
+        if (position < 0 || position >= this.data.length)
+            throw new IndexOutOfBoundsException("Position " + position
+                    + " is out of range [0, " + this.data.length + ")");
+
+        return this.data[(int) position];
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.source;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Provides the bytes between position and limit of a {@link ByteBuffer}, e.g.
+ * a direct buffer that lives outside of the heap. The position, limit and mark
+ * of the specified buffer are never modified by this source.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class ByteBufferSource implements ByteSource
+{
+    /**
+     * A read-only view of the wrapped buffer whose index {@code 0} is the
+     * first provided byte.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * @param buffer
+     *            The buffer whose remaining bytes have to be provided.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public ByteBufferSource(final ByteBuffer buffer)
+    {
+        this.buffer = buffer.slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public long length()
+    {
+        return this.buffer.capacity();
+    }
+
+    @Override
+    public int read(final long position, final byte[] buffer,
+            final int offset, final int length)
+    {
+        if (position < 0 || position >= this.buffer.capacity() || length <= 0)
+            return 0;
+
+        final int count = (int) Math.min(length, this.buffer.capacity()
+                - position);
+
+        // a duplicate keeps concurrent reads from interfering
+        final ByteBuffer view = this.buffer.duplicate();
+        view.position((int) position);
+        view.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public byte get(final long position)
+    {
+        if (position < 0 || position >= this.buffer.capacity())
+            throw new IndexOutOfBoundsException("Position " + position
+                    + " is out of range [0, " + this.buffer.capacity() + ")");
+
+        return this.buffer.get((int) position);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Random access to the binary data displayed by a hex view. Implementations
+ * only have to provide the bytes which are actually requested, so the data
+ * doesn't need to be materialized on the heap as a whole.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public interface ByteSource extends Closeable
+{
+    /**
+     * @return The total number of bytes provided by this source.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    long length();
+
+    /**
+     * Copies bytes from this source into the specified buffer.
+     *
+     * @param position
+     *            The position within this source of the first byte to be read
+     *            where following condition is valid: <span style=
+     *            "white-space:nowrap">{@code 0 <= position < length()}</span>
+     * @param buffer
+     *            The destination of the read bytes.
+     * @param offset
+     *            The index within {@code buffer} of the first byte to be
+     *            written.
+     * @param length
+     *            The maximum number of bytes to be read.
+     * @return The number of bytes which have been read. This is less than
+     *         {@code length} if the end of the source has been reached and
+     *         {@code 0} if {@code position} is out of range.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    int read(long position, byte[] buffer, int offset, int length);
+
+    /**
+     * Copies bytes from this source into the specified buffer, beginning at
+     * its first index.
+     *
+     * @param position
+     *            The position within this source of the first byte to be read.
+     * @param buffer
+     *            The destination of the read bytes.
+     * @param length
+     *            The maximum number of bytes to be read.
+     * @return The number of bytes which have been read.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    default int read(final long position, final byte[] buffer,
+            final int length)
+    {
+        return read(position, buffer, 0, length);
+    }
+
+    /**
+     * Reads a single byte from this source. Implementations should override
+     * this method if they can provide single bytes without a temporary buffer.
+     *
+     * @param position
+     *            The position of the byte to be read where following condition
+     *            is valid: <span style=
+     *            "white-space:nowrap">{@code 0 <= position < length()}</span>
+     * @return The byte at the specified position.
+     * @throws IndexOutOfBoundsException
+     *             If {@code position} is out of range.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    default byte get(final long position)
+    {
+        final byte[] buffer = new byte[1];
+        if (read(position, buffer, 0, 1) != 1)
+            throw new IndexOutOfBoundsException("Position " + position
+                    + " is out of range [0, " + length() + ")");
+
+        return buffer[0];
+    }
+
+    /**
+     * Releases resources held by this source. The default implementation does
+     * nothing since most sources don't hold any resources.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    @Override
+    default void close() throws IOException
+    {
+        // nothing to be released
+    }
+}
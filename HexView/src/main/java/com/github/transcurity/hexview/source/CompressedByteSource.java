@@ -0,0 +1,461 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Provides the bytes of compressed data with random access, e.g. of evidence
+ * files which are stored as GZIP on disk. The data is never decompressed into
+ * the heap as a whole.
+ * <p>
+ * &nbsp;
+ * </p>
+ * A single pass over the decompressed data splits it into blocks of a fixed
+ * size which are compressed independently of each other into a temporary
+ * file. This pass takes place eagerly within the constructor, so it takes
+ * as long as decompressing and compressing the whole data once. Large files
+ * should therefore be indexed by a background thread rather than by a
+ * request thread of the UI. The index of these blocks allows to serve a read by decompressing
+ * only the blocks it covers. A small number of decompressed blocks is cached,
+ * the least recently used one is discarded first. Blocks are read and
+ * decompressed outside of the lock of the cache, so parallel readers of
+ * different blocks don't wait for each other, while readers of the same block
+ * wait for a single decompression. Closing this source deletes the temporary
+ * file.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Any decompressing {@link InputStream} can be indexed, so other formats like
+ * Zstandard are supported by the streams of their libraries.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class CompressedByteSource implements ByteSource
+{
+    /**
+     * The default number of decompressed bytes per block (4 MiB).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The default maximum number of decompressed blocks cached at the same
+     * time.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_CACHED_BLOCKS = 4;
+
+    /**
+     * The temporary file of the independently compressed blocks.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final FileChannel blocks;
+
+    /**
+     * The number of provided bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long length;
+
+    /**
+     * The number of decompressed bytes per block.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int blockSize;
+
+    /**
+     * The positions of the compressed blocks within {@link #blocks} followed
+     * by the end of the last block.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long[] blockPositions;
+
+    /**
+     * The recently requested blocks by their index in access order. A block
+     * may still be decompressed by the thread which has requested it first.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Map<Long, FutureTask<byte[]>> cache;
+
+    /**
+     * Indexes the specified GZIP file using the default block size and the
+     * default number of cached blocks. The whole file is decompressed and
+     * compressed again before this constructor returns.
+     *
+     * @param file
+     *            The GZIP file to be provided.
+     * @throws IOException
+     *             If the file cannot be read or decompressed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public CompressedByteSource(final Path file) throws IOException
+    {
+        this(openGzip(file), DEFAULT_BLOCK_SIZE, DEFAULT_CACHED_BLOCKS);
+    }
+
+    /**
+     * Opens a GZIP file for decompression.
+     *
+     * @param file
+     *            The GZIP file to be opened.
+     * @return The stream of the decompressed data.
+     * @throws IOException
+     *             If the file cannot be opened or has no valid GZIP header.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static InputStream openGzip(final Path file) throws IOException
+    {
+        final InputStream input = Files.newInputStream(file);
+        try
+        {
+            return new GZIPInputStream(input, 64 * 1024);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param data
+     *            Provides the decompressed data, e.g. a
+     *            {@link GZIPInputStream}. It's read completely and closed
+     *            before this constructor returns.
+     * @param blockSize
+     *            The number of decompressed bytes per block, i.e. the maximum
+     *            number of bytes which have to be decompressed for a read.
+     * @param cachedBlocks
+     *            The maximum number of decompressed blocks cached at the same
+     *            time.
+     * @throws IOException
+     *             If the data cannot be read or the temporary file cannot be
+     *             written.
+     * @throws IllegalArgumentException
+     *             If {@code blockSize} or {@code cachedBlocks} isn't positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public CompressedByteSource(final InputStream data, final int blockSize,
+            final int cachedBlocks) throws IOException
+    {
+        if (blockSize <= 0 || cachedBlocks <= 0)
+            throw new IllegalArgumentException("Block size and number of cached blocks must be positive");
+
+        this.blockSize = blockSize;
+        this.cache = new LinkedHashMap<Long, FutureTask<byte[]>>(cachedBlocks, 0.75f, true)
+        {
+            private static final long serialVersionUID = 2915637785513740127L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, FutureTask<byte[]>> eldest)
+            {
+                return size() > cachedBlocks;
+            }
+        };
+
+        try (final InputStream input = data)
+        {
+            this.blocks = openBlockFile();
+            try
+            {
+                long[] positions = new long[16];
+                int count = 0;
+                long total = 0;
+                final byte[] block = new byte[blockSize];
+                final byte[] compressed = new byte[64 * 1024];
+                final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try
+                {
+                    for (int read = readBlock(input, block); read > 0; read = readBlock(input, block))
+                    {
+                        if (count + 1 >= positions.length)
+                            positions = Arrays.copyOf(positions, positions.length * 2);
+
+                        positions[count++] = this.blocks.position();
+                        total += read;
+                        deflater.reset();
+                        deflater.setInput(block, 0, read);
+                        deflater.finish();
+                        while (!deflater.finished())
+                        {
+                            final ByteBuffer chunk = ByteBuffer.wrap(compressed, 0, deflater.deflate(compressed));
+                            while (chunk.hasRemaining())
+                                this.blocks.write(chunk);
+                        }
+                    }
+                }
+                finally
+                {
+                    deflater.end();
+                }
+
+                positions[count] = this.blocks.position();
+                this.blockPositions = Arrays.copyOf(positions, count + 1);
+                this.length = total;
+            }
+            catch (final IOException | RuntimeException e)
+            {
+                this.blocks.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Creates the temporary file of the compressed blocks which gets deleted
+     * as soon as it's closed.
+     *
+     * @return The channel of the empty file.
+     * @throws IOException
+     *             If the file cannot be created or opened.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static FileChannel openBlockFile() throws IOException
+    {
+        final Path file = Files.createTempFile("hexview", ".blocks");
+        try
+        {
+            return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            try
+            {
+                Files.deleteIfExists(file);
+            }
+            catch (final IOException suppressed)
+            {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads as many bytes as fit into a block, unless the stream ends before.
+     *
+     * @param input
+     *            The stream of decompressed data.
+     * @param block
+     *            Receives the bytes of the block.
+     * @return The number of read bytes which is less than the block size only
+     *         for the last block.
+     * @throws IOException
+     *             If the stream cannot be read.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private static int readBlock(final InputStream input, final byte[] block)
+            throws IOException
+    {
+        int result = 0;
+        while (result < block.length)
+        {
+            final int read = input.read(block, result, block.length - result);
+            if (read < 0)
+                break;
+
+            result += read;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return The number of decompressed bytes per block.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getBlockSize()
+    {
+        return this.blockSize;
+    }
+
+    @Override
+    public long length()
+    {
+        return this.length;
+    }
+
+    /**
+     * @throws UncheckedIOException
+     *             If a block cannot be read or decompressed.
+     */
+    @Override
+    public int read(final long position, final byte[] buffer,
+            final int offset, final int length)
+    {
+        if (position < 0 || position >= this.length || length <= 0)
+            return 0;
+
+        final int count = (int) Math.min(length, this.length - position);
+        int done = 0;
+        while (done < count)
+        {
+            final long current = position + done;
+            final int inBlock = (int) (current % this.blockSize);
+            final byte[] block = getBlock(current / this.blockSize);
+            final int chunk = Math.min(count - done, block.length - inBlock);
+            System.arraycopy(block, inBlock, buffer, offset + done, chunk);
+            done += chunk;
+        }
+
+        return count;
+    }
+
+    /**
+     * @throws UncheckedIOException
+     *             If the block cannot be read or decompressed.
+     */
+    @Override
+    public byte get(final long position)
+    {
+        if (position < 0 || position >= this.length)
+            throw new IndexOutOfBoundsException("Position " + position
+                    + " is out of range [0, " + this.length + ")");
+
+        return getBlock(position / this.blockSize)[(int) (position % this.blockSize)];
+    }
+
+    /**
+     * Obtains the specified decompressed block and decompresses it if it
+     * isn't cached, yet. Only the access to the cache is synchronized, the
+     * block is decompressed by the first thread requesting it.
+     *
+     * @param index
+     *            The index of the block.
+     * @return The decompressed bytes of the block.
+     * @throws UncheckedIOException
+     *             If the block cannot be read or decompressed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private byte[] getBlock(final long index)
+    {
+        FutureTask<byte[]> block;
+        boolean requested = false;
+        synchronized (this.cache)
+        {
+            block = this.cache.get(index);
+            if (block == null)
+            {
+                block = new FutureTask<>(() -> decompress(index));
+                this.cache.put(index, block);
+                requested = true;
+            }
+        }
+
+        if (requested)
+            block.run();
+
+        try
+        {
+            return block.get();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for block " + index));
+        }
+        catch (final ExecutionException e)
+        {
+            // a failed block is decompressed again by the next request
+            synchronized (this.cache)
+            {
+                this.cache.remove(index, block);
+            }
+
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads and decompresses the specified block. Positional reads of the
+     * channel are safe for concurrent threads.
+     *
+     * @param index
+     *            The index of the block.
+     * @return The decompressed bytes of the block.
+     * @throws UncheckedIOException
+     *             If the block cannot be read or decompressed.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private byte[] decompress(final long index)
+    {
+        final long start = this.blockPositions[(int) index];
+        final ByteBuffer compressed = ByteBuffer.allocate((int) (this.blockPositions[(int) index + 1] - start));
+        final byte[] block = new byte[(int) Math.min(this.blockSize, this.length - index * this.blockSize)];
+        final Inflater inflater = new Inflater();
+        try
+        {
+            while (compressed.hasRemaining())
+                if (this.blocks.read(compressed, start + compressed.position()) < 0)
+                    throw new ZipException("Block " + index + " is truncated");
+
+            inflater.setInput(compressed.array());
+            if (inflater.inflate(block) != block.length)
+                throw new ZipException("Block " + index + " is corrupted");
+        }
+        catch (final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        catch (final DataFormatException e)
+        {
+            throw new UncheckedIOException(new ZipException(e.getMessage()));
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        return block;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (this.cache)
+        {
+            this.cache.clear();
+        }
+
+        this.blocks.close();
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.source;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Provides the bytes of a file by positional reads from a
+ * {@link FileChannel}. Only the requested bytes are read, so the file content
+ * never has to be loaded as a whole.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The size of the file is determined once on construction. Closing this
+ * source closes the channel.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class FileChannelSource implements ByteSource
+{
+    /**
+     * The channel to be read from.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final FileChannel channel;
+
+    /**
+     * The number of provided bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long length;
+
+    /**
+     * @param channel
+     *            The channel to be read from.
+     * @throws UncheckedIOException
+     *             If the size of the channel cannot be determined.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public FileChannelSource(final FileChannel channel)
+    {
+        this.channel = channel;
+        try
+        {
+            this.length = channel.size();
+        }
+        catch (final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long length()
+    {
+        return this.length;
+    }
+
+    /**
+     * @throws UncheckedIOException
+     *             If the channel cannot be read.
+     */
+    @Override
+    public int read(final long position, final byte[] buffer,
+            final int offset, final int length)
+    {
+        if (position < 0 || position >= this.length || length <= 0)
+            return 0;
+
+        final int count = (int) Math.min(length, this.length - position);
+        final ByteBuffer target = ByteBuffer.wrap(buffer, offset, count);
+        try
+        {
+            while (target.hasRemaining())
+                if (this.channel.read(target, position + target.position()
+                        - offset) < 0)
+                    break;
+        }
+        catch (final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return target.position() - offset;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.source;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides the bytes of a file by memory-mapping windows (segments) of it. The
+ * bytes are read directly from the page cache of the operating system, so
+ * neither the file content nor copies of it occupy the heap. This makes
+ * multi-gigabyte files displayable.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Only a bounded number of recently used segments is cached, so repeated
+ * reads don't map the same window again. Evicting a segment merely drops its
+ * reference; the mapping itself is released by the garbage collector. It's
+ * deliberately not unmapped explicitly, because Java offers no safe way to do
+ * so and concurrent readers may still access the evicted buffer, which would
+ * crash the JVM. Hence the number of mapped segments isn't bounded until the
+ * garbage collector runs. The same applies to the segments which are still
+ * cached when this source gets closed.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class MappedFileSource implements ByteSource
+{
+    /**
+     * The default number of bytes mapped by one segment (64 MiB).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The default maximum number of cached segments.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 16;
+
+    /**
+     * The channel of the mapped file.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final FileChannel channel;
+
+    /**
+     * The number of provided bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long length;
+
+    /**
+     * The number of bytes mapped by one segment.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int segmentSize;
+
+    /**
+     * The cached segments by their index in access order.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final Map<Long, MappedByteBuffer> segments;
+
+    /**
+     * Opens the specified file for reading and maps it using the default
+     * segment size and the default maximum number of cached segments.
+     *
+     * @param file
+     *            The file to be provided.
+     * @throws IOException
+     *             If the file cannot be opened.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public MappedFileSource(final Path file) throws IOException
+    {
+        this(FileChannel.open(file, StandardOpenOption.READ), DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * @param channel
+     *            The channel of the file to be mapped. It gets closed by
+     *            {@link #close()}.
+     * @param segmentSize
+     *            The number of bytes mapped by one segment.
+     * @param maxSegments
+     *            The maximum number of cached segments.
+     * @throws IOException
+     *             If the size of the channel cannot be determined.
+     * @throws IllegalArgumentException
+     *             If {@code segmentSize} or {@code maxSegments} isn't
+     *             positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public MappedFileSource(final FileChannel channel, final int segmentSize,
+            final int maxSegments) throws IOException
+    {
+        if (segmentSize <= 0 || maxSegments <= 0)
+            throw new IllegalArgumentException("Segment size and number of segments must be positive");
+
+        this.channel = channel;
+        this.length = channel.size();
+        this.segmentSize = segmentSize;
+        this.segments = new LinkedHashMap<Long, MappedByteBuffer>(maxSegments, 0.75f, true)
+        {
+            private static final long serialVersionUID = -2446291870718413154L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, MappedByteBuffer> eldest)
+            {
+                return size() > maxSegments;
+            }
+        };
+    }
+
+    @Override
+    public long length()
+    {
+        return this.length;
+    }
+
+    /**
+     * @throws UncheckedIOException
+     *             If a segment of the file cannot be mapped.
+     */
+    @Override
+    public int read(final long position, final byte[] buffer,
+            final int offset, final int length)
+    {
+        if (position < 0 || position >= this.length || length <= 0)
+            return 0;
+
+        final int count = (int) Math.min(length, this.length - position);
+        int done = 0;
+        while (done < count)
+        {
+            final long current = position + done;
+            final int inSegment = (int) (current % this.segmentSize);
+
+            // a duplicate keeps concurrent reads from interfering
+            final ByteBuffer view = getSegment(current / this.segmentSize).duplicate();
+            view.position(inSegment);
+            final int chunk = Math.min(count - done, view.remaining());
+            view.get(buffer, offset + done, chunk);
+            done += chunk;
+        }
+
+        return count;
+    }
+
+    /**
+     * @throws UncheckedIOException
+     *             If a segment of the file cannot be mapped.
+     */
+    @Override
+    public byte get(final long position)
+    {
+        if (position < 0 || position >= this.length)
+            throw new IndexOutOfBoundsException("Position " + position
+                    + " is out of range [0, " + this.length + ")");
+
+        return getSegment(position / this.segmentSize).get((int) (position % this.segmentSize));
+    }
+
+    /**
+     * Obtains the specified segment and maps it if it isn't mapped, yet.
+     *
+     * @param index
+     *            The index of the segment within the file.
+     * @return The mapped segment.
+     * @throws UncheckedIOException
+     *             If the segment cannot be mapped.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private synchronized MappedByteBuffer getSegment(final long index)
+    {
+        MappedByteBuffer segment = this.segments.get(index);
+        if (segment == null)
+        {
+            final long start = index * this.segmentSize;
+            try
+            {
+                segment = this.channel.map(MapMode.READ_ONLY, start, Math.min(this.segmentSize, this.length
+                        - start));
+            }
+            catch (final IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            this.segments.put(index, segment);
+        }
+
+        return segment;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        this.segments.clear();
+        this.channel.close();
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.source;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides bytes which are appended continuously, e.g. by a packet capture or
+ * a serial trace. The bytes are stored in chunks of a fixed size, so
+ * appending never copies the bytes already received.
+ * <p>
+ * &nbsp;
+ * </p>
+ * The source works as ring buffer if a maximum size is specified: As soon as
+ * the oldest chunk isn't required in order to retain the maximum number of
+ * bytes anymore, it's discarded. Positions are always relative to the oldest
+ * retained byte, so they are shifted by each discarded chunk, see
+ * {@link #getDiscarded()}.
+ * <p>
+ * &nbsp;
+ * </p>
+ * Bytes may be appended by another thread than the one reading them.
+ *
+ * @author Andreas "PAX" Lück
+ */
+public class StreamingByteSource implements ByteSource, Serializable
+{
+    private static final long serialVersionUID = -3817066257262095438L;
+
+    /**
+     * The default number of bytes per chunk (64 KiB).
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The number of bytes which are retained at least.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final long maxRetained;
+
+    /**
+     * The number of bytes per chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final int chunkSize;
+
+    /**
+     * The retained chunks from the oldest to the newest one. Only the newest
+     * chunk may be partially filled.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    /**
+     * The number of retained bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long length;
+
+    /**
+     * The number of bytes which have been discarded from the start.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    private long discarded;
+
+    /**
+     * Creates a source which retains all appended bytes.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public StreamingByteSource()
+    {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a ring buffer using the default chunk size.
+     *
+     * @param maxRetained
+     *            The number of most recently appended bytes which are retained
+     *            at least. Up to one chunk more is retained.
+     * @throws IllegalArgumentException
+     *             If {@code maxRetained} isn't positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public StreamingByteSource(final long maxRetained)
+    {
+        this(maxRetained, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param maxRetained
+     *            The number of most recently appended bytes which are retained
+     *            at least. Up to one chunk more is retained.
+     * @param chunkSize
+     *            The number of bytes per chunk, i.e. the granularity of
+     *            discarding bytes.
+     * @throws IllegalArgumentException
+     *             If {@code maxRetained} or {@code chunkSize} isn't positive.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public StreamingByteSource(final long maxRetained, final int chunkSize)
+    {
+        if (maxRetained <= 0 || chunkSize <= 0)
+            throw new IllegalArgumentException("Retained size and chunk size must be positive");
+
+        this.maxRetained = maxRetained;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return The number of most recently appended bytes which are retained at
+     *         least.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public long getMaxRetained()
+    {
+        return this.maxRetained;
+    }
+
+    /**
+     * @return The number of bytes per chunk.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public int getChunkSize()
+    {
+        return this.chunkSize;
+    }
+
+    /**
+     * @return The number of bytes which have been discarded from the start,
+     *         i.e. the position of the oldest retained byte within the whole
+     *         stream.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized long getDiscarded()
+    {
+        return this.discarded;
+    }
+
+    /**
+     * Appends bytes at the end of this source and discards the oldest chunks
+     * which exceed the retained size.
+     *
+     * @param bytes
+     *            The bytes to be appended.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public void append(final byte[] bytes)
+    {
+        append(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Appends bytes at the end of this source and discards the oldest chunks
+     * which exceed the retained size.
+     *
+     * @param bytes
+     *            Contains the bytes to be appended.
+     * @param offset
+     *            The index within {@code bytes} of the first byte to be
+     *            appended.
+     * @param length
+     *            The number of bytes to be appended.
+     * @throws IndexOutOfBoundsException
+     *             If the range exceeds {@code bytes}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    public synchronized void append(final byte[] bytes, final int offset,
+            final int length)
+    {
+        if (offset < 0 || length < 0 || offset + length > bytes.length)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", "
+                    + (offset + length) + ") exceeds " + bytes.length + " bytes");
+
+        int appended = 0;
+        while (appended < length)
+        {
+            final int position = (int) (this.length % this.chunkSize);
+            if (position == 0)
+                this.chunks.add(new byte[this.chunkSize]);
+
+            final int count = Math.min(length - appended, this.chunkSize - position);
+            System.arraycopy(bytes, offset + appended, this.chunks.get(this.chunks.size() - 1), position, count);
+            appended += count;
+            this.length += count;
+        }
+
+        while (this.length - this.chunkSize >= this.maxRetained)
+        {
+            this.chunks.remove(0);
+            this.length -= this.chunkSize;
+            this.discarded += this.chunkSize;
+        }
+    }
+
+    @Override
+    public synchronized long length()
+    {
+        return this.length;
+    }
+
+    @Override
+    public synchronized int read(final long position, final byte[] buffer,
+            final int offset, final int length)
+    {
+        if (position < 0 || position >= this.length || length <= 0)
+            return 0;
+
+        final int count = (int) Math.min(length, this.length - position);
+        int copied = 0;
+        while (copied < count)
+        {
+            final long current = position + copied;
+            final int index = (int) (current % this.chunkSize);
+            final int chunkCount = Math.min(count - copied, this.chunkSize - index);
+            System.arraycopy(this.chunks.get((int) (current / this.chunkSize)), index, buffer, offset + copied, chunkCount);
+            copied += chunkCount;
+        }
+
+        return count;
+    }
+
+    @Override
+    public synchronized byte get(final long position)
+    {
+        if (position < 0 || position >= this.length)
+            throw new IndexOutOfBoundsException("Position " + position
+                    + " is out of range [0, " + this.length + ")");
+
+        return this.chunks.get((int) (position / this.chunkSize))[(int) (position % this.chunkSize)];
+    }
+}
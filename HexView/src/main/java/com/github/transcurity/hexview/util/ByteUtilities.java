@@ -58,27 +58,181 @@ public interface ByteUtilities
      */
     static String bytesToHex(final byte[] bytes, final boolean bytePadding)
     {
-        StringBuilder result = null;
-        String hex;
-        int i;
-
         if (bytes == null)
             return null;
 
-        result = new StringBuilder(bytes.length * 2);
-        for (i = 0; i < bytes.length; i++)
+        final char[] result = new char[hexLength(bytes.length, bytePadding)];
+        appendHex(bytes, 0, bytes.length, bytePadding, result, 0);
+        return new String(result);
+    }
+
+    /**
+     * Obtains the upper case digit character of the specified value.
+     *
+     * @param value
+     *            A value within the range {@code [0, 16)}.
+     * @return The digit of the specified value, e.g. {@code 'A'} for
+     *         {@code 10}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static char toDigit(final int value)
+    {
+        return HexTable.DIGITS[value];
+    }
+
+    /**
+     * Obtains the HEX presentation of the specified byte from a precomputed
+     * table. No objects are allocated.
+     *
+     * @param value
+     *            The byte to be transformed into a HEX string.
+     * @return The interned two-digit HEX presentation of the specified byte
+     *         (e.g.: {@code 0A})
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static String byteToHex(final byte value)
+    {
+        return HexTable.BYTES[byteToInt(value)];
+    }
+
+    /**
+     * Computes the number of characters required by the HEX presentation of a
+     * byte consecution.
+     *
+     * @param length
+     *            The number of bytes to be transformed.
+     * @param bytePadding
+     *            If {@code true} then a space character gets inserted between
+     *            each byte in output.
+     * @return The number of characters of the HEX presentation.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static int hexLength(final int length, final boolean bytePadding)
+    {
+        if (length <= 0)
+            return 0;
+
+        return bytePadding ? length * 3 - 1 : length * 2;
+    }
+
+    /**
+     * Writes the HEX presentation of a byte consecution into a caller-supplied
+     * character array, e.g. a whole hex view row at once. No objects are
+     * allocated.
+     *
+     * @param bytes
+     *            The byte consecution to be transformed into HEX characters.
+     * @param offset
+     *            The index of the first byte to be transformed.
+     * @param length
+     *            The number of bytes to be transformed.
+     * @param bytePadding
+     *            If {@code true} then a space character gets inserted between
+     *            each byte in output.
+     * @param target
+     *            The destination of the HEX characters which must provide at
+     *            least {@link #hexLength(int, boolean)} characters beginning at
+     *            {@code targetOffset}.
+     * @param targetOffset
+     *            The index within {@code target} of the first character to be
+     *            written.
+     * @return The number of written characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static int appendHex(final byte[] bytes, final int offset,
+            final int length, final boolean bytePadding, final char[] target,
+            final int targetOffset)
+    {
+        final char[] digits = HexTable.DIGITS;
+        int position = targetOffset;
+        for (int i = offset; i < offset + length; i++)
+        {
+            if (bytePadding && i > offset)
+                target[position++] = ' ';
+
+            final int value = bytes[i] & 0xFF;
+            target[position++] = digits[value >>> 4];
+            target[position++] = digits[value & 0x0F];
+        }
+
+        return position - targetOffset;
+    }
+
+    /**
+     * Writes the HEX presentation of a byte consecution in reverse order into
+     * a caller-supplied character array, e.g. a little endian word with its
+     * most significant byte first. No objects are allocated.
+     *
+     * @param bytes
+     *            The byte consecution to be transformed into HEX characters.
+     * @param offset
+     *            The index of the first byte to be transformed.
+     * @param length
+     *            The number of bytes to be transformed.
+     * @param target
+     *            The destination of the HEX characters which must provide at
+     *            least {@code 2 * length} characters beginning at
+     *            {@code targetOffset}.
+     * @param targetOffset
+     *            The index within {@code target} of the first character to be
+     *            written.
+     * @return The number of written characters.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static int appendHexReversed(final byte[] bytes, final int offset,
+            final int length, final char[] target, final int targetOffset)
+    {
+        final char[] digits = HexTable.DIGITS;
+        int position = targetOffset;
+        for (int i = offset + length - 1; i >= offset; i--)
         {
-            hex = Integer.toHexString(ByteUtilities.byteToInt(bytes[i])).toUpperCase();
+            final int value = bytes[i] & 0xFF;
+            target[position++] = digits[value >>> 4];
+            target[position++] = digits[value & 0x0F];
+        }
 
-            if (hex.length() == 1)
-                result.append('0');
+        return position - targetOffset;
+    }
 
-            result.append(hex);
+    /**
+     * Appends the HEX presentation of a byte consecution to a caller-supplied
+     * buffer, e.g. a whole hex view row at once.
+     *
+     * @param target
+     *            The buffer to be appended to.
+     * @param bytes
+     *            The byte consecution to be transformed into HEX characters.
+     * @param offset
+     *            The index of the first byte to be transformed.
+     * @param length
+     *            The number of bytes to be transformed.
+     * @param bytePadding
+     *            If {@code true} then a space character gets inserted between
+     *            each byte in output.
+     * @return The specified buffer.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static StringBuilder appendHex(final StringBuilder target,
+            final byte[] bytes, final int offset, final int length,
+            final boolean bytePadding)
+    {
+        final char[] digits = HexTable.DIGITS;
+        target.ensureCapacity(target.length() + hexLength(length, bytePadding));
+        for (int i = offset; i < offset + length; i++)
+        {
+            if (bytePadding && i > offset)
+                target.append(' ');
 
-            if (bytePadding && i < bytes.length - 1)
-                result.append(' ');
+            final int value = bytes[i] & 0xFF;
+            target.append(digits[value >>> 4]).append(digits[value & 0x0F]);
         }
 
-        return result.toString();
+        return target;
     }
 }
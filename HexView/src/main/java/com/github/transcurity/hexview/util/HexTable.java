@@ -0,0 +1,41 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview.util;
+
+/**
+ * Precomputed lookup tables for the conversion of bytes into their HEX
+ * presentation. They are held by a separate class since fields of
+ * {@link ByteUtilities} would be public.
+ *
+ * @author Andreas "PAX" Lück
+ */
+final class HexTable
+{
+    /**
+     * The upper case HEX digits indexed by their value.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The interned two-digit HEX presentations of all byte values indexed by
+     * the unsigned byte value, e.g. {@code "0A"} at index {@code 10}.
+     *
+     * @author Andreas "PAX" Lück
+     */
+    static final String[] BYTES = new String[256];
+
+    static
+    {
+        for (int i = 0; i < BYTES.length; i++)
+            BYTES[i] = new String(new char[]
+            { DIGITS[i >>> 4], DIGITS[i & 0x0F] }).intern();
+    }
+
+    private HexTable()
+    {
+        // only static tables
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview
+
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.StandardOpenOption
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+import com.github.transcurity.hexview.source.ByteArraySource
+import com.github.transcurity.hexview.source.ByteBufferSource
+import com.github.transcurity.hexview.source.ByteSource
+import com.github.transcurity.hexview.source.CompressedByteSource
+import com.github.transcurity.hexview.source.FileChannelSource
+import com.github.transcurity.hexview.source.MappedFileSource
+import com.github.transcurity.hexview.source.StreamingByteSource
+
+import spock.lang.Shared
+import spock.lang.Specification
+
+/**
+ * Tests for the {@link ByteSource} implementations.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class ByteSourceTest extends Specification
+{
+    @Shared
+    def byte[] usualData = [0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20] as byte[]
+
+    ByteSource createSource(String type)
+    {
+        switch (type)
+        {
+            case "array":
+                return new ByteArraySource(usualData)
+            case "buffer":
+                return new ByteBufferSource(ByteBuffer.allocateDirect(usualData.length).put(usualData).flip())
+            case "channel":
+                return new FileChannelSource(FileChannel.open(createFile(), StandardOpenOption.READ))
+            case "mapped":
+                // tiny segments in order to enforce reads across segment boundaries
+                return new MappedFileSource(FileChannel.open(createFile(), StandardOpenOption.READ), 8, 2)
+            case "stream":
+                // tiny chunks in order to enforce reads across chunk boundaries
+                def stream = new StreamingByteSource(Long.MAX_VALUE, 8)
+                stream.append(usualData, 0, 5)
+                stream.append(usualData, 5, 16)
+                return stream
+            case "compressed":
+                // tiny blocks in order to enforce reads across block boundaries
+                def compressed = new ByteArrayOutputStream()
+                new GZIPOutputStream(compressed).withStream { it.write(usualData) }
+                return new CompressedByteSource(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())), 8, 2)
+        }
+    }
+
+    def createFile()
+    {
+        def file = Files.createTempFile("hexview", ".bin")
+        file.toFile().deleteOnExit()
+        Files.write(file, usualData)
+        return file
+    }
+
+    def "Reading ranges from a source" ()
+    {
+        given:
+
+        def source = createSource(type)
+        def buffer = new byte[4]
+
+        when:
+
+        def count = source.read(position, buffer, 4)
+
+        then:
+
+        source.length() == 21
+        count == expectedCount
+        buffer[0..<count] == expectedBytes
+
+        cleanup:
+
+        source.close()
+
+        where:
+
+        type         | position || expectedCount || expectedBytes
+        "array"      | 0        | 4              | [0, 1, 2, 3]
+        "array"      | 19       | 2              | [19, 20]
+        "array"      | 21       | 0              | []
+        "array"      | -1       | 0              | []
+        "buffer"     | 0        | 4              | [0, 1, 2, 3]
+        "buffer"     | 19       | 2              | [19, 20]
+        "buffer"     | 21       | 0              | []
+        "channel"    | 0        | 4              | [0, 1, 2, 3]
+        "channel"    | 17       | 4              | [17, 18, 19, 20]
+        "channel"    | 19       | 2              | [19, 20]
+        "channel"    | 21       | 0              | []
+        "mapped"     | 0        | 4              | [0, 1, 2, 3]
+        "mapped"     | 6        | 4              | [6, 7, 8, 9]
+        "mapped"     | 14       | 4              | [14, 15, 16, 17]
+        "mapped"     | 19       | 2              | [19, 20]
+        "mapped"     | 21       | 0              | []
+        "stream"     | 0        | 4              | [0, 1, 2, 3]
+        "stream"     | 6        | 4              | [6, 7, 8, 9]
+        "stream"     | 19       | 2              | [19, 20]
+        "stream"     | 21       | 0              | []
+        "compressed" | 0        | 4              | [0, 1, 2, 3]
+        "compressed" | 6        | 4              | [6, 7, 8, 9]
+        "compressed" | 14       | 4              | [14, 15, 16, 17]
+        "compressed" | 19       | 2              | [19, 20]
+        "compressed" | 21       | 0              | []
+    }
+
+    def "Reading single bytes from a source" ()
+    {
+        given:
+
+        def source = createSource(type)
+
+        expect:
+
+        source.get(0) == 0
+        source.get(20) == 20
+
+        when:
+
+        source.get(21)
+
+        then:
+
+        thrown(IndexOutOfBoundsException)
+
+        cleanup:
+
+        source.close()
+
+        where:
+
+        type << ["array", "buffer", "channel", "mapped", "stream", "compressed"]
+    }
+
+    def "Streams retain the most recent bytes" ()
+    {
+        given:
+
+        def source = new StreamingByteSource(10, 8)
+        def buffer = new byte[4]
+
+        when:
+
+        source.append(usualData)
+
+        then: "the oldest chunk has been discarded"
+
+        source.getDiscarded() == 8
+        source.length() == 13
+        source.get(0) == 8
+        source.read(9, buffer, 4) == 4
+        buffer == [17, 18, 19, 20] as byte[]
+
+        when:
+
+        source.append(usualData, 0, 3)
+
+        then: "the retained bytes would fall below the limit"
+
+        source.getDiscarded() == 8
+        source.length() == 16
+        source.get(15) == 2
+    }
+
+    def "Compressed blocks are decompressed by parallel readers" ()
+    {
+        given:
+
+        def data = new byte[4096]
+        data.length.times { data[it] = (byte) (it * 7) }
+        def compressed = new ByteArrayOutputStream()
+        new GZIPOutputStream(compressed).withStream { it.write(data) }
+        def source = new CompressedByteSource(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())), 64, 4)
+
+        when:
+
+        def results = (0..<8).collect { thread ->
+            def result = new byte[data.length]
+            [Thread.start {
+                // each thread reads the blocks in a different order, so the
+                // small cache keeps evicting blocks still read by others
+                (0..<data.length).step(32).collect { (it + thread * 512) % data.length }.each {
+                    source.read(it, result, it, 32)
+                }
+            }, result]
+        }
+        results.each { it[0].join() }
+
+        then:
+
+        results.every { it[1] == data }
+
+        cleanup:
+
+        source?.close()
+    }
+}
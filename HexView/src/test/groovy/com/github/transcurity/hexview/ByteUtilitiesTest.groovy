@@ -0,0 +1,75 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview
+
+import com.github.transcurity.hexview.util.ByteUtilities
+
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ByteUtilities}.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class ByteUtilitiesTest extends Specification
+{
+    def "Conversion of single bytes" ()
+    {
+        expect:
+
+        ByteUtilities.byteToHex(value as byte) == expectedResult
+        ByteUtilities.byteToHex(value as byte).is(ByteUtilities.byteToHex(value as byte))
+
+        where:
+
+        value || expectedResult
+        0     | "00"
+        10    | "0A"
+        0x7F  | "7F"
+        0x80  | "80"
+        0xFF  | "FF"
+    }
+
+    def "Conversion of byte consecutions" ()
+    {
+        given:
+
+        def bytes = [0x48, 0x65, 0x6C, 0x00, 0xE4, 0xFF] as byte[]
+        def target = new char[20]
+
+        when:
+
+        def count = ByteUtilities.appendHex(bytes, 1, 4, padding, target, 2)
+
+        then:
+
+        ByteUtilities.bytesToHex(bytes, padding) == expectedHex
+        count == ByteUtilities.hexLength(4, padding)
+        new String(target, 2, count) == expectedRange
+        ByteUtilities.appendHex(new StringBuilder(">"), bytes, 1, 4, padding).toString() == ">" + expectedRange
+
+        where:
+
+        padding || expectedHex         || expectedRange
+        false   | "48656C00E4FF"       | "656C00E4"
+        true    | "48 65 6C 00 E4 FF"  | "65 6C 00 E4"
+    }
+
+    def "Conversion of reversed byte consecutions" ()
+    {
+        given:
+
+        def bytes = [0x48, 0x65, 0x6C, 0x00, 0xE4, 0xFF] as byte[]
+        def target = new char[10]
+
+        when:
+
+        def count = ByteUtilities.appendHexReversed(bytes, 1, 4, target, 1)
+
+        then:
+
+        count == 8
+        new String(target, 1, count) == "E4006C65"
+    }
+}
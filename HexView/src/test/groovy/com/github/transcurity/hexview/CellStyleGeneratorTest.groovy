@@ -7,6 +7,11 @@ import static com.github.transcurity.hexview.properties.ColumnTypes.*
 
 import com.github.transcurity.hexview.cells.HexCellStyleGenerator
 import com.github.transcurity.hexview.cells.StyleRange
+import com.github.transcurity.hexview.properties.DataColumn
+import com.github.transcurity.hexview.properties.WordSize
+import com.vaadin.ui.Grid
+import com.vaadin.ui.Grid.CellReference
+import com.vaadin.ui.Grid.RowReference
 
 import spock.lang.Specification
 
@@ -111,4 +116,219 @@ class CellStyleGeneratorTest extends Specification
         " fourth1" == styleGenerator.getCustomStyles(18);
         "" == styleGenerator.getCustomStyles(19);
     }
+
+    def "Lookup of many overlapping ranges keeps the order of addition" ()
+    {
+        given:
+
+        def styleGenerator = new HexCellStyleGenerator()
+        def random = new Random(42)
+        def ranges = (0..<2000).collect
+        {
+            new StyleRange(random.nextInt(10000), random.nextInt(64), "s" + it)
+        }
+
+        when:
+
+        ranges.each { styleGenerator.addCustomStyleRange(it) }
+        styleGenerator.removeCustomStyleRange(ranges[0].offset, ranges[0].length)
+        def remaining = styleGenerator.getCustomStyleRanges()
+
+        then:
+
+        (0..<10100).every
+        { offset ->
+            def expected = remaining.findAll
+            {
+                offset >= it.offset && offset < it.offset + it.length
+            }.collect { " " + it.cssClasses }.join()
+
+            expected == styleGenerator.getCustomStyles(offset)
+        }
+    }
+
+    def "Bulk modification of styles is working" ()
+    {
+        given:
+
+        def styleGenerator = new HexCellStyleGenerator()
+        def ranges = (0..<100).collect
+        {
+            new StyleRange(it * 2, 5, it % 2 == 0 ? "even" : "odd")
+        }
+
+        when:
+
+        styleGenerator.addCustomStyleRanges(ranges)
+        def removed = styleGenerator.removeCustomStyleRanges { it.cssClasses == "odd" }
+
+        then:
+
+        removed.size() == 50
+        removed.every { it.cssClasses == "odd" }
+        styleGenerator.getCustomStyleRanges().size() == 50
+        " even" == styleGenerator.getCustomStyles(1)
+        " even even" == styleGenerator.getCustomStyles(4)
+
+        when:
+
+        def replaced = styleGenerator.setCustomStyleRanges([new StyleRange(0, 1, "x")])
+
+        then:
+
+        replaced.size() == 50
+        " x" == styleGenerator.getCustomStyles(0)
+        "" == styleGenerator.getCustomStyles(2)
+
+        when:
+
+        def cleared = styleGenerator.clearCustomStyleRanges()
+
+        then:
+
+        cleared == [new StyleRange(0, 1, "x")]
+        styleGenerator.getCustomStyleRanges().isEmpty()
+        "" == styleGenerator.getCustomStyles(0)
+    }
+
+    def "Style layers are applied in their order and can be toggled" ()
+    {
+        given:
+
+        def styleGenerator = new HexCellStyleGenerator()
+        def row = new RowReference(new Grid())
+        def cell = new CellReference(row)
+        def styleOf = { long rowOffset, column ->
+            row.set(rowOffset)
+            cell.set(column)
+            styleGenerator.getStyle(cell)
+        }
+
+        when:
+
+        styleGenerator.addCustomStyleRanges("hits", [new StyleRange(17, 2, "hit")])
+        styleGenerator.addCustomStyleRange(16, 4, "section")
+
+        then:
+
+        "hex-data-cell hit section" == styleOf(16, DataColumn.of(1))
+        "hex-data-cell section" == styleOf(16, DataColumn.of(0))
+        "hex-data-cell" == styleOf(0, DataColumn.of(1))
+        "hex-offset-cell" == styleOf(16, OFFSET)
+        "hex-ascii-cell" == styleOf(16, ASCII)
+        styleGenerator.getStyleLayers()*.name == ["hits", HexCellStyleGenerator.DEFAULT_LAYER]
+
+        when:
+
+        def affected = styleGenerator.setStyleLayerVisible("hits", false)
+
+        then:
+
+        affected == [new StyleRange(17, 2, null)]
+        styleGenerator.setStyleLayerVisible("hits", false).isEmpty()
+        "hex-data-cell section" == styleOf(16, DataColumn.of(1))
+
+        when:
+
+        styleGenerator.setStyleLayerVisible("hits", true)
+        styleGenerator.removeStyleLayer(HexCellStyleGenerator.DEFAULT_LAYER)
+
+        then:
+
+        "hex-data-cell hit" == styleOf(16, DataColumn.of(1))
+        "hex-data-cell" == styleOf(16, DataColumn.of(0))
+        styleGenerator.getCustomStyleRanges().isEmpty()
+    }
+
+    def "Data cell styles follow the row width" ()
+    {
+        given:
+
+        def styleGenerator = new HexCellStyleGenerator()
+        def row = new RowReference(new Grid())
+        def cell = new CellReference(row)
+        def styleOf = { long rowOffset, column ->
+            row.set(rowOffset)
+            cell.set(column)
+            styleGenerator.getStyle(cell)
+        }
+        styleGenerator.addCustomStyleRange(9, 1, "hit")
+        styleGenerator.getDataCellStyles(8)
+
+        when:
+
+        styleGenerator.setRowWidth(8)
+
+        then:
+
+        styleGenerator.getDataCellStyles(8).length == 8
+        "hex-data-cell hit" == styleOf(8, DataColumn.of(1))
+        null == styleOf(8, DataColumn.of(8))
+
+        when:
+
+        styleGenerator.setRowWidth(0)
+
+        then:
+
+        thrown(IllegalArgumentException)
+    }
+
+    def "Word cells combine the styles of their bytes" ()
+    {
+        given:
+
+        def styleGenerator = new HexCellStyleGenerator()
+        def row = new RowReference(new Grid())
+        def cell = new CellReference(row)
+        def styleOf = { long rowOffset, column ->
+            row.set(rowOffset)
+            cell.set(column)
+            styleGenerator.getStyle(cell)
+        }
+
+        when:
+
+        styleGenerator.setWordSize(WordSize.DWORD)
+        styleGenerator.addCustomStyleRange(1, 1, "a")
+        styleGenerator.addCustomStyleRange(2, 3, "b")
+
+        then:
+
+        "hex-data-cell a b" == styleOf(0, DataColumn.of(0))
+        "hex-data-cell b" == styleOf(0, DataColumn.of(4))
+        "hex-data-cell" == styleOf(0, DataColumn.of(8))
+        null == styleOf(0, DataColumn.of(1))
+        styleOf(0, DataColumn.of(0)).is(styleOf(0, DataColumn.of(0)))
+
+        when: "the cached word styles are affected"
+
+        styleGenerator.addCustomStyleRange(8, 1, "c")
+        styleGenerator.setWordSize(WordSize.WORD)
+
+        then:
+
+        "hex-data-cell a" == styleOf(0, DataColumn.of(0))
+        "hex-data-cell b" == styleOf(0, DataColumn.of(2))
+        "hex-data-cell c" == styleOf(0, DataColumn.of(8))
+    }
+
+    def "Overrides of the int based style lookup are still applied" ()
+    {
+        given:
+
+        def styleGenerator = new HexCellStyleGenerator() {
+            protected String getCustomStyles(int offset)
+            {
+                return offset == 3 ? " legacy" : super.getCustomStyles(offset)
+            }
+        }
+        styleGenerator.addCustomStyleRange(2, 1, "hit")
+
+        expect:
+
+        styleGenerator.getDataCellStyles(0)[2..3] == ["hex-data-cell hit", "hex-data-cell legacy"]
+        styleGenerator.getDataCellStyles(1L << 32)[3] == "hex-data-cell"
+        new StyleRange(1, 2, "a").getLength() == 2L
+    }
 }
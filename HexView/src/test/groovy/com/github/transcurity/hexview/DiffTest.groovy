@@ -0,0 +1,105 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview
+
+import java.util.concurrent.ForkJoinPool
+
+import com.github.transcurity.hexview.diff.ByteComparison
+import com.github.transcurity.hexview.diff.ScrollSynchronizer
+import com.github.transcurity.hexview.search.SearchHit
+import com.github.transcurity.hexview.source.ByteArraySource
+
+import spock.lang.Shared
+import spock.lang.Specification
+
+/**
+ * Tests for the comparison of two sources.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class DiffTest extends Specification
+{
+    @Shared
+    def pool = new ForkJoinPool(4)
+
+    def cleanupSpec()
+    {
+        pool.shutdown()
+    }
+
+    def "Differing ranges are merged across chunk boundaries" ()
+    {
+        given:
+
+        def original = new byte[originalLength]
+        def modified = new byte[modifiedLength]
+        changed.each { modified[it] = 1 }
+        def batches = Collections.synchronizedList([])
+        def comparison = new ByteComparison(new ByteArraySource(original), new ByteArraySource(modified), { batches << it }, 8)
+
+        when:
+
+        comparison.start(pool)
+        def differences = comparison.await()
+
+        then:
+
+        differences == expected.collect { new SearchHit(it[0], it[1]) }
+        batches.flatten().sort() == differences
+        comparison.getProgress() == 1.0
+
+        where:
+
+        originalLength | modifiedLength | changed                       || expected
+        64             | 64             | []                            || []
+        64             | 64             | [3, 7, 8, 9, 30]              || [[3, 1], [7, 3], [30, 1]]
+        64             | 64             | (6..41)                       || [[6, 36]]
+        64             | 64             | (0..63)                       || [[0, 64]]
+        64             | 70             | [60, 61, 62, 63]              || [[60, 10]]
+        70             | 64             | [1, 63]                       || [[1, 1], [63, 7]]
+        5              | 0              | []                            || [[0, 5]]
+    }
+
+    def "Differences are navigated in both views" ()
+    {
+        given:
+
+        def original = new byte[256]
+        def modified = new byte[256]
+        [20, 21, 100, 200].each { modified[it] = 1 }
+        def diffView = new HexDiffView()
+
+        when:
+
+        diffView.compare(new ByteArraySource(original), new ByteArraySource(modified), null).await()
+        diffView.highlightDifferences()
+
+        then:
+
+        diffView.nextDifference() == new SearchHit(20, 2)
+        diffView.nextDifference() == new SearchHit(100, 1)
+        diffView.nextDifference() == new SearchHit(200, 1)
+        diffView.nextDifference() == null
+        diffView.previousDifference() == new SearchHit(100, 1)
+        diffView.getModifiedView().cellStyleGenerator.getStyleLayer(HexDiffView.DIFF_LAYER).getRanges().size() == 3
+
+        when:
+
+        diffView.setScrollSynchronized(true)
+
+        then:
+
+        diffView.isScrollSynchronized()
+        [diffView.originalView, diffView.modifiedView].sum { it.extensions.count { it instanceof ScrollSynchronizer } } == 2
+
+        when:
+
+        diffView.setScrollSynchronized(false)
+
+        then:
+
+        !diffView.isScrollSynchronized()
+        [diffView.originalView, diffView.modifiedView].sum { it.extensions.count { it instanceof ScrollSynchronizer } } == 0
+    }
+}
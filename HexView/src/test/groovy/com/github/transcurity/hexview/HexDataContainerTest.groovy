@@ -5,10 +5,29 @@ package com.github.transcurity.hexview
 
 import static com.github.transcurity.hexview.properties.ColumnTypes.*
 
+import com.github.transcurity.hexview.cells.HexCellStyleGenerator
 import com.github.transcurity.hexview.container.ReadonlyHexContainer
+import com.github.transcurity.hexview.container.RowCache
+import com.github.transcurity.hexview.properties.DataColumn
+import com.github.transcurity.hexview.properties.CompactRowColumn
+import com.github.transcurity.hexview.properties.DumpEncoding
+import com.github.transcurity.hexview.properties.Endianness
+import com.github.transcurity.hexview.properties.OffsetRadix
+import com.github.transcurity.hexview.properties.RawRowColumn
+import com.github.transcurity.hexview.properties.WordFormat
+import com.github.transcurity.hexview.properties.WordSize
+import com.github.transcurity.hexview.renderers.RawRowRenderer
+import com.github.transcurity.hexview.source.ByteArraySource
+import com.github.transcurity.hexview.source.ByteSource
+import com.github.transcurity.hexview.source.StreamingByteSource
+import com.vaadin.data.Container
 import com.vaadin.data.Item
 import com.vaadin.data.Property
 
+import java.nio.channels.ClosedChannelException
+
+import elemental.json.JsonType
+
 import spock.lang.Shared
 import spock.lang.Specification
 
@@ -240,6 +259,343 @@ class HexDataContainerTest extends Specification
         1        | null                 | [] as byte[]
     }
 
+    def "Rows and their properties are reused" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(usualData)
+
+        expect:
+
+        container.getItem(16L).is(container.getItem(16))
+        container.getContainerProperty(16L, DataColumn.of(1)).is(container.getItem(16L).getItemProperty(DataColumn.of(1)))
+        container.getItem(16L).getDisplayValue(ASCII) == "................"
+        container.getItem(32L).getItemProperty(DataColumn.of(15)).getValue() == ""
+        container.getContainerProperty(32L, DataColumn.of(15)) == null
+    }
+
+    def "Rendered rows are cached up to the limits" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(new byte[1000])
+        def cache = container.getRowCache()
+        cache.setLimits(2, Long.MAX_VALUE)
+
+        when:
+
+        def first = container.getItem(0L)
+        container.getItem(16L)
+        container.getItem(0L)
+        container.getItem(32L)
+
+        then:
+
+        cache.size() == 2
+        cache.getHitCount() == 1
+        cache.getMissCount() == 3
+        container.getItem(0L).is(first)
+        container.getItem(16L) != null
+        cache.getHitCount() == 2
+        cache.getMissCount() == 4
+
+        when:
+
+        cache.resetStatistics()
+        cache.setLimits(100, RowCache.estimateRowSize(16) * 3)
+
+        then:
+
+        cache.getCapacity() == 3
+        cache.getHitCount() == 0
+
+        when:
+
+        cache.setLimits(0, 1)
+
+        then:
+
+        thrown(IllegalArgumentException)
+    }
+
+    def "Rows are loaded in the background" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(new byte[10000])
+        def tasks = []
+        def loaded = []
+        container.setAsyncLoading({ tasks << it }, { loaded << it })
+
+        when:
+
+        def placeholder = container.getItem(1600L)
+        container.getItem(1616L)
+
+        then:
+
+        placeholder.isPlaceholder()
+        placeholder.getDisplayValue(OFFSET) == "0640"
+        container.getContainerProperty(1600L, DataColumn.of(0)) == null
+        tasks.size() == 1
+        loaded.isEmpty()
+
+        when:
+
+        tasks.remove(0).run()
+
+        then:
+
+        loaded == [(1024L..<2048L).step(16)]
+        !container.getItem(1600L).isPlaceholder()
+        container.getContainerProperty(1600L, DataColumn.of(0)).getValue() == "00"
+
+        when:
+
+        container.getItem(0L)
+        container.setDumpEncoding(DumpEncoding.EBCDIC)
+        tasks.remove(0).run()
+
+        then:
+
+        loaded.size() == 1
+        container.getItem(0L).isPlaceholder()
+    }
+
+    def "Rows are prefetched in scroll direction" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(new byte[10000])
+        def tasks = []
+        container.setAsyncLoading({ tasks << it }, null)
+        container.setPrefetchRows(64)
+        container.getItemIds(0, 32)
+
+        when: "scrolling down"
+
+        container.getItemIds(10, 32)
+        tasks.each { it.run() }
+
+        then:
+
+        tasks.size() == 2
+        container.getRowCache().contains(42L * 16)
+        container.getRowCache().contains(127L * 16)
+        !container.getRowCache().contains(128L * 16)
+
+        when: "scrolling down within prefetched rows"
+
+        tasks.clear()
+        container.getItemIds(20, 32)
+
+        then:
+
+        tasks.isEmpty()
+
+        when: "scrolling up"
+
+        container.getItemIds(300, 32)
+        tasks.clear()
+        container.getItemIds(250, 32)
+        tasks.each { it.run() }
+
+        then:
+
+        tasks.size() == 2
+        container.getRowCache().contains(186L * 16)
+        container.getRowCache().contains(128L * 16)
+        !container.getRowCache().contains(256L * 16)
+    }
+
+    def "Appended rows are announced" ()
+    {
+        given:
+
+        def source = new StreamingByteSource()
+        source.append(new byte[20])
+        def container = new ReadonlyHexContainer(source)
+        def events = []
+        container.addItemSetChangeListener({ events << it })
+        def partialRow = container.getItem(16L)
+
+        when:
+
+        source.append(new byte[40])
+        container.dataAppended()
+
+        then:
+
+        events.size() == 1
+        events[0] instanceof Container.Indexed.ItemAddEvent
+        events[0].getFirstIndex() == 2
+        events[0].getAddedItemsCount() == 2
+        events[0].getFirstItemId() == 32L
+        container.size() == 4
+        partialRow.getRowLength() == 4
+        container.getItem(16L).getRowLength() == 16
+
+        when: "the offsets get wider"
+
+        source.append(new byte[200])
+        container.dataAppended()
+
+        then:
+
+        events.size() == 2
+        !(events[1] instanceof Container.Indexed.ItemAddEvent)
+        container.getItem(256L).getDisplayValue(OFFSET) == "0100"
+    }
+
+    def "Runs of identical rows are collapsed" ()
+    {
+        given:
+
+        // a run of 5 zero rows, a run of 2 zero rows and a partial last row
+        def data = new byte[152]
+        Arrays.fill(data, 0, 16, (byte) 1)
+        Arrays.fill(data, 96, 112, (byte) 2)
+        Arrays.fill(data, 144, 152, (byte) 3)
+        def container = new ReadonlyHexContainer(data)
+        def events = []
+        container.addItemSetChangeListener({ events << it })
+
+        when:
+
+        container.setRunCollapsing(ReadonlyHexContainer.DEFAULT_MIN_RUN_ROWS, { it.run() }, null)
+
+        then: "found runs take effect on demand only"
+
+        container.size() == 10
+        events.isEmpty()
+        !container.isRunIndexComplete()
+
+        when:
+
+        container.applyIndexedRuns()
+
+        then:
+
+        events.size() == 1
+        container.isRunIndexComplete()
+        container.getCollapsedRows() == 4
+        container.size() == 6
+        container.getItemIds() == [0L, 16L, 96L, 112L, 128L, 144L]
+        container.getItemIds(1, 2) == [16L, 96L]
+        container.getIdByIndex(2) == 96L
+        container.indexOfId(96L) == 2
+        container.indexOfId(32L) == -1
+        !container.containsId(32L)
+        container.getItem(32L) == null
+        container.nextItemId(16L) == 96L
+        container.prevItemId(96L) == 16L
+        container.lastItemId() == 144L
+        container.getDisplayedRowId(40L) == 16L
+        container.getItem(16L).getRepeatedRows() == 5
+        container.getItem(16L).getDisplayValue(ASCII) == "................  * 5 rows"
+        !container.getItem(112L).isSummary()
+
+        when:
+
+        container.setRunExpanded(48L, true)
+
+        then:
+
+        events.size() == 2
+        container.size() == 10
+        container.isRunExpanded(16L)
+        !container.getItem(16L).isSummary()
+        container.getIdByIndex(2) == 32L
+
+        when:
+
+        container.setRunCollapsing(0, null, null)
+
+        then:
+
+        events.size() == 3
+        !container.isRunCollapsing()
+        container.size() == 10
+        !container.setRunExpanded(16L, false)
+    }
+
+    def "Disposed containers stop working in the background" ()
+    {
+        given:
+
+        def closed = false
+        def source = [length: { 10000L }, read: { long position, byte[] buffer, int offset, int length ->
+                if (closed)
+                    throw new UncheckedIOException(new ClosedChannelException())
+                return (int) Math.min(length, 10000L - position)
+            }] as ByteSource
+        def container = new ReadonlyHexContainer(source)
+        def tasks = []
+        def loaded = []
+        def indexed = []
+        container.setAsyncLoading({ tasks << it }, { loaded << it })
+        container.setRunCollapsing(3, { tasks << it }, { indexed << it })
+        container.getItem(0L)
+
+        when:
+
+        container.dispose()
+        closed = true
+        tasks.each { it.run() }
+
+        then:
+
+        tasks.size() == 2
+        loaded.isEmpty()
+        indexed.isEmpty()
+        !container.isRunIndexComplete()
+        container.getCollapsedRows() == 0
+    }
+
+    def "Runs are continued by appended rows" ()
+    {
+        given:
+
+        def source = new StreamingByteSource()
+        source.append(new byte[48])
+        def container = new ReadonlyHexContainer(source)
+        def tasks = []
+        def events = []
+        container.setRunCollapsing(3, { tasks << it }, { it.applyIndexedRuns() })
+        tasks.remove(0).run()
+        container.addItemSetChangeListener({ events << it })
+
+        expect:
+
+        container.size() == 1
+        container.getItem(0L).getRepeatedRows() == 3
+
+        when:
+
+        source.append(new byte[40])
+        container.dataAppended()
+
+        then: "the appended rows are announced and indexed in the background"
+
+        events.size() == 1
+        events[0].getFirstIndex() == 1
+        events[0].getFirstItemId() == 48L
+        container.size() == 4
+        tasks.size() == 1
+
+        when:
+
+        tasks.remove(0).run()
+
+        then:
+
+        events.size() == 2
+        tasks.isEmpty()
+        container.isRunIndexComplete()
+        container.getItemIds() == [0L, 80L]
+        container.getItem(0L).getRepeatedRows() == 5
+    }
+
     def "Check getContainerPropertyIds" ()
     {
         given:
@@ -256,6 +612,90 @@ class HexDataContainerTest extends Specification
         propertyIds.size() > 1
     }
 
+    def "Rows can be narrower or wider than 16 bytes" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(new ByteArraySource(usualData), rowWidth)
+
+        expect:
+
+        container.getRowWidth() == rowWidth
+        container.getItemIds() == itemIds
+        container.getContainerPropertyIds() == DataColumn.getColumns(rowWidth)
+        container.getItem(0L).getDisplayValue(ASCII).length() == rowWidth
+        container.getItem(32L).getItemPropertyIds() == [DataColumn.of(0), DataColumn.of(1), DataColumn.of(2)]
+        container.getContainerProperty(32L, DataColumn.of(2)).getValue() == "22"
+        container.getContainerProperty(0L, DataColumn.of(rowWidth)) == null
+
+        where:
+
+        rowWidth || itemIds
+        8        | [0L, 8L, 16L, 24L, 32L]
+        32       | [0L, 32L]
+    }
+
+    def "Row widths out of range are rejected" ()
+    {
+        when:
+
+        new ReadonlyHexContainer(new ByteArraySource(usualData), rowWidth)
+
+        then:
+
+        thrown(IllegalArgumentException)
+
+        where:
+
+        rowWidth << [0, -1, DataColumn.MAX_ROW_WIDTH + 1]
+    }
+
+    def "Data cells display words in either byte order" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(usualData)
+
+        when:
+
+        container.setWordFormat(new WordFormat(wordSize, endianness))
+
+        then:
+
+        container.getContainerPropertyIds().size() == columnCount
+        container.getContainerPropertyIds().every { it.getOffsetInRow() % wordSize.getSize() == 0 }
+        container.getContainerProperty(0L, DataColumn.of(0)).getValue() == firstWord
+        container.getContainerProperty(32L, DataColumn.of(0)).getValue() == partialWord
+        container.getContainerProperty(0L, DataColumn.of(1))?.getValue() == secondCell
+        container.getItem(32L).getItemPropertyIds() == (0..2).step(wordSize.getSize()).collect { DataColumn.of(it) }
+
+        where:
+
+        wordSize       | endianness               || columnCount | firstWord          | secondCell | partialWord
+        WordSize.BYTE  | Endianness.LITTLE_ENDIAN | 16          | "00"               | "01"       | "20"
+        WordSize.WORD  | Endianness.BIG_ENDIAN    | 8           | "0001"             | null       | "2021"
+        WordSize.WORD  | Endianness.LITTLE_ENDIAN | 8           | "0100"             | null       | "2120"
+        WordSize.DWORD | Endianness.LITTLE_ENDIAN | 4           | "03020100"         | null       | "222120"
+        WordSize.QWORD | Endianness.BIG_ENDIAN    | 2           | "0001020304050607" | null       | "202122"
+        WordSize.QWORD | Endianness.LITTLE_ENDIAN | 2           | "0706050403020100" | null       | "222120"
+    }
+
+    def "Words must fit into the rows" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(new ByteArraySource(usualData), 12)
+
+        when:
+
+        container.setWordFormat(new WordFormat(WordSize.QWORD, Endianness.BIG_ENDIAN))
+
+        then:
+
+        thrown(IllegalArgumentException)
+        container.getWordFormat() == WordFormat.BYTES
+    }
+
     def "Check getItemIds" ()
     {
         given:
@@ -276,9 +716,9 @@ class HexDataContainerTest extends Specification
 
         expectedResult      || bytes
         []| [] as byte[]
-        [0, 16, 32]| usualData
-        [0]| length15data
-        [0]| length16data
+        [0L, 16L, 32L]| usualData
+        [0L]| length15data
+        [0L]| length16data
     }
 
     def "Check getContainerProperty" ()
@@ -301,14 +741,14 @@ class HexDataContainerTest extends Specification
         itemIdParam ||  propertyIdParam || expectedResult      || bytes
         null        | null                 |  null                | usualData
         0           | null                 |  null                | usualData
-        null        | COL_0                |  null                | usualData
-        "0"         | COL_0                |  null                | usualData
-        0           | COL_0                |  "00"                | usualData
-        1           | COL_0                |  null                | usualData
-        15          | COL_0                |  null                | usualData
-        16          | COL_0                |  "10"                | usualData
-        17          | COL_0                |  null                | usualData
-        0           | COL_0                |  null                | [] as byte[]
+        null        | DataColumn.of(0)     |  null                | usualData
+        "0"         | DataColumn.of(0)     |  null                | usualData
+        0           | DataColumn.of(0)     |  "00"                | usualData
+        1           | DataColumn.of(0)     |  null                | usualData
+        15          | DataColumn.of(0)     |  null                | usualData
+        16          | DataColumn.of(0)     |  "10"                | usualData
+        17          | DataColumn.of(0)     |  null                | usualData
+        0           | DataColumn.of(0)     |  null                | [] as byte[]
     }
 
     def "Check column IDs enumeration" ()
@@ -324,18 +764,18 @@ class HexDataContainerTest extends Specification
         where:
 
         offset || columnId || expectedResult    || bytes
-        -1     | COL_0     | null               | null
-        -1     | COL_0     | null               | usualData
-        0      | COL_0     | null               | null
-        0      | COL_0     | "00"               | usualData
-        0      | COL_1     | "01"               | usualData
-        0      | COL_F     | "0F"               | usualData
-        16     | COL_0     | "10"               | usualData
-        16     | COL_1     | "11"               | usualData
-        16     | COL_F     | "1F"               | usualData
-        32     | COL_0     | "20"               | usualData
-        32     | COL_2     | "22"               | usualData
-        32     | COL_3     | null               | usualData
+        -1     | DataColumn.of(0)  | null               | null
+        -1     | DataColumn.of(0)  | null               | usualData
+        0      | DataColumn.of(0)  | null               | null
+        0      | DataColumn.of(0)  | "00"               | usualData
+        0      | DataColumn.of(1)  | "01"               | usualData
+        0      | DataColumn.of(15) | "0F"               | usualData
+        16     | DataColumn.of(0)  | "10"               | usualData
+        16     | DataColumn.of(1)  | "11"               | usualData
+        16     | DataColumn.of(15) | "1F"               | usualData
+        32     | DataColumn.of(0)  | "20"               | usualData
+        32     | DataColumn.of(2)  | "22"               | usualData
+        32     | DataColumn.of(3)  | null               | usualData
         0      | OFFSET    | "00"               | usualData
         16     | OFFSET    | "10"               | usualData
         32     | OFFSET    | "20"               | usualData
@@ -356,6 +796,137 @@ class HexDataContainerTest extends Specification
         0      | ASCII     | ".... ~....\u00A0" | [0x00, 0x01, 0x1E, 0x1F, 0x20, 0x7E, 0x7F, 0x80, 0x9E, 0x9F, 0xA0] as byte[]
     }
 
+    def "Check compact rows" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer([0x3C, 0x41, 0x26, 0x00] as byte[])
+        def styleGenerator = new HexCellStyleGenerator()
+        def column = new CompactRowColumn(container.getByteSource(), styleGenerator)
+
+        when:
+
+        styleGenerator.addCustomStyleRange(1, 2, "hit")
+
+        then:
+
+        column.getValue(container.getItem(0L), 0L, ROW) == '<span class="hex-row-offset">00</span>' +
+                '<span class="hex-row-data">3C <span class="hex-data-cell hit">41</span> <span class="hex-data-cell hit">26</span> 00' +
+                ' ' * 36 + '</span><span class="hex-row-ascii">&lt;A&amp;.</span>'
+        column.getValue(null, 0, ROW) == column.getValue(container.getItem(0L), 0L, ROW)
+        column.getValue(null, 16L, ROW) == null
+        ROW.getDisplayValue([0x3C] as byte[], 0) == null
+    }
+
+    def "Custom styles can't inject HTML into compact rows" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer([0x41] as byte[])
+        def styleGenerator = new HexCellStyleGenerator()
+        def column = new CompactRowColumn(container.getByteSource(), styleGenerator)
+
+        when:
+
+        styleGenerator.addCustomStyleRange(0, 1, '"><img src=x onerror=alert(1)>&')
+        def result = column.getValue(container.getItem(0L), 0L, ROW)
+
+        then:
+
+        result.contains('<span class="hex-data-cell &quot;&gt;&lt;img src=x onerror=alert(1)&gt;&amp;">41</span>')
+        !result.contains('<img')
+    }
+
+    def "Check compact rows of little endian words" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer([0x3C, 0x41, 0x26, 0x00] as byte[])
+        def styleGenerator = new HexCellStyleGenerator()
+        def column = new CompactRowColumn(container.getByteSource(), styleGenerator)
+
+        when:
+
+        container.setWordFormat(new WordFormat(WordSize.WORD, Endianness.LITTLE_ENDIAN))
+        styleGenerator.addCustomStyleRange(1, 1, "hit")
+
+        then:
+
+        column.getValue(container.getItem(0L), 0L, ROW) == '<span class="hex-row-offset">00</span>' +
+                '<span class="hex-row-data"><span class="hex-data-cell hit">41</span>3C 0026' +
+                ' ' * 30 + '</span><span class="hex-row-ascii">&lt;A&amp;.</span>'
+    }
+
+    def "Check raw rows" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer([0x3C, 0x41, 0x26, 0x00, 0xFF] as byte[])
+        def styleGenerator = new HexCellStyleGenerator()
+        def column = new RawRowColumn(container.getByteSource(), styleGenerator)
+        def renderer = new RawRowRenderer()
+
+        when:
+
+        styleGenerator.addCustomStyleRange(1, 2, "hit")
+        styleGenerator.addCustomStyleRange(4, 1, "last")
+        def result = renderer.encode(column.getValue(container.getItem(0L), 0L, RAW_ROW))
+
+        then:
+
+        result.toJson() == '{"o":"00","b":"PEEmAP8=","s":[1,2,"hex-data-cell hit",4,1,"hex-data-cell last"]}'
+        renderer.encode(column.getValue(null, 16L, RAW_ROW)).getType() == JsonType.NULL
+    }
+
+    def "Check dump encodings" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(bytes as byte[])
+
+        when:
+
+        container.setDumpEncoding(encoding)
+
+        then:
+
+        container.getItem(0L).getDisplayValue(ASCII) == expectedResult
+
+        where:
+
+        encoding                 || expectedResult || bytes
+        DumpEncoding.ISO_8859_1  | "A.\u00E4."     | [0x41, 0x00, 0xE4, 0x85]
+        DumpEncoding.CP437       | "A.\u03A3\u00E0" | [0x41, 0x00, 0xE4, 0x85]
+        DumpEncoding.EBCDIC      | "Hi.."          | [0xC8, 0x89, 0x00, 0x15]
+        DumpEncoding.UTF_16LE    | "Hi\u20AC."      | [0x48, 0x00, 0x69, 0x00, 0xAC, 0x20, 0x01, 0x00]
+        DumpEncoding.UTF_16LE    | "H."            | [0x48, 0x00, 0x69]
+    }
+
+    def "Check offset formats" ()
+    {
+        given:
+
+        def container = new ReadonlyHexContainer(bytes)
+
+        when:
+
+        container.setOffsetFormat(radix, baseAddress)
+
+        then:
+
+        container.getItem(offset).getDisplayValue(OFFSET) == expectedResult
+
+        where:
+
+        radix                   | baseAddress || offset || expectedResult || bytes
+        OffsetRadix.HEXADECIMAL | 0           | 0xF0L   | "00F0"         | createArray(0x100)
+        OffsetRadix.HEXADECIMAL | 0x401000    | 0x10L   | "401010"       | usualData
+        OffsetRadix.HEXADECIMAL | -16         | 0x10L   | "00"           | usualData
+        OffsetRadix.DECIMAL     | 0           | 0x10L   | "16"           | usualData
+        OffsetRadix.DECIMAL     | 0           | 0x10L   | "0016"         | createArray(1000)
+        OffsetRadix.DECIMAL     | 1000        | 0x20L   | "1032"         | usualData
+    }
+
     def "Check getType" ()
     {
         given:
@@ -375,7 +946,7 @@ class HexDataContainerTest extends Specification
         propertyIdParam || expectedResult
         null            | Object.class
         "asdf"          | Object.class
-        COL_0           | String.class
+        DataColumn.of(0) | String.class
         ASCII           | String.class
         OFFSET          | String.class
     }
@@ -508,6 +1079,7 @@ class HexDataContainerTest extends Specification
         result.size() == expectedResult.size()
         result.every
         { it in expectedResult }
+        container.getActiveItemIds() == result
 
         where:
 
@@ -515,14 +1087,42 @@ class HexDataContainerTest extends Specification
         0               | 0                   | [] as List          | [] as byte[]
         0               | 1                   | [] as List          | [] as byte[]
         0               | 0                   | [] as List          | usualData
-        0               | 1                   | [0] as List         | usualData
+        0               | 1                   | [0L] as List         | usualData
         -1              | 1                   | [] as List          | usualData
-        -1              | 2                   | [0] as List         | usualData
-        -1              | 3                   | [0, 16] as List     | usualData
-        0               | 3                   | [0, 16, 32] as List | usualData
-        0               | 2                   | [0, 16] as List     | usualData
-        1               | 34                  | [16, 32] as List    | usualData
-        2               | 1                   | [32] as List        | usualData
+        -1              | 2                   | [0L] as List         | usualData
+        -1              | 3                   | [0L, 16L] as List     | usualData
+        0               | 3                   | [0L, 16L, 32L] as List | usualData
+        0               | 2                   | [0L, 16L] as List     | usualData
+        1               | 34                  | [16L, 32L] as List    | usualData
+        2               | 1                   | [32L] as List        | usualData
         3               | 1                   | [] as List          | usualData
     }
+
+    def "Check offsets beyond 4 GB" ()
+    {
+        given:
+
+        // 5 GB of zeros without allocating them
+        def source = [length: { 0x140000000L }, read: { long position, byte[] buffer, int offset, int length ->
+                def count = (int) Math.min(length, 0x140000000L - position)
+                Arrays.fill(buffer, offset, offset + count, (byte) 0)
+                return count
+            }] as ByteSource
+        def container = new ReadonlyHexContainer(source)
+
+        expect:
+
+        container.size() == 0x14000000
+        container.getIdByIndex(0x10000000) == 0x100000000L
+        container.indexOfId(0x100000000L) == 0x10000000
+        container.nextItemId(0x13FFFFFF0L) == null
+        container.lastItemId() == 0x13FFFFFF0L
+        OFFSET.getDisplayValue(source, 0x100000000L) == "0100000000"
+        DataColumn.of(15).getDisplayValue(source, 0x13FFFFFF0L) == "00"
+        container.getItemIds().size() == 0x14000000
+        container.getItemIds().get(0x10000000) == 0x100000000L
+        container.getItemIds().contains(0x100000000L)
+        !container.getItemIds().contains(0x100000001L)
+        container.getItemIds(0x13FFFFFE, 5) == [0x13FFFFFE0L, 0x13FFFFFF0L]
+    }
 }
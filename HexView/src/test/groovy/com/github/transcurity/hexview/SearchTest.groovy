@@ -0,0 +1,304 @@
+/**
+ * @author Andreas "PAX" Lück
+ */
+package com.github.transcurity.hexview
+
+import java.util.concurrent.ForkJoinPool
+import java.util.regex.Pattern
+
+import com.github.transcurity.hexview.properties.DumpEncoding
+import com.github.transcurity.hexview.search.BytePattern
+import com.github.transcurity.hexview.search.ByteSearch
+import com.github.transcurity.hexview.search.RegexSearch
+import com.github.transcurity.hexview.search.SearchHit
+import com.github.transcurity.hexview.search.Signature
+import com.github.transcurity.hexview.search.SignatureHit
+import com.github.transcurity.hexview.search.SignatureScanner
+import com.github.transcurity.hexview.source.ByteArraySource
+
+import spock.lang.Shared
+import spock.lang.Specification
+
+/**
+ * Tests for the search of byte patterns.
+ *
+ * @author Andreas "PAX" Lück
+ */
+class SearchTest extends Specification
+{
+    @Shared
+    def pool = new ForkJoinPool(4)
+
+    def cleanupSpec()
+    {
+        pool.shutdown()
+    }
+
+    def "Parsing patterns" ()
+    {
+        expect:
+
+        pattern.toString() == expected
+
+        where:
+
+        pattern                           || expected
+        BytePattern.fromHex("4d5a ?? 00") || "4D 5A ?? 00"
+        BytePattern.fromAscii("MZ")       || "4D 5A"
+        BytePattern.fromUtf16("MZ")       || "4D 00 5A 00"
+    }
+
+    def "Invalid hex patterns are rejected" ()
+    {
+        when:
+
+        BytePattern.fromHex(hex)
+
+        then:
+
+        thrown(IllegalArgumentException)
+
+        where:
+
+        hex << ["", "4D5", "4G", "4?"]
+    }
+
+    def "Hits are found across chunk boundaries" ()
+    {
+        given:
+
+        def data = new byte[100]
+        [3, 15, 29, 98].each { data[it] = 0x11; data[it + 1] = 0x22 }
+        data[40] = 0x11
+        data[42] = 0x22
+        def batches = Collections.synchronizedList([])
+        def search = new ByteSearch(new ByteArraySource(data), BytePattern.fromHex(hex), { batches << it }, 8)
+
+        when:
+
+        search.start(pool)
+        def hits = search.await()
+
+        then:
+
+        hits*.offset == expected
+        hits.every { it.length == expectedLength }
+        batches.flatten().sort() == hits
+        search.getProgress() == 1.0
+        search.isDone()
+
+        where:
+
+        hex        || expected                    || expectedLength
+        "11 22"    || [3L, 15L, 29L, 98L]         || 2
+        "11 ?? 22" || [40L]                       || 3
+        "22 ??"    || [4L, 16L, 30L, 42L]         || 2
+    }
+
+    def "Hits can be navigated" ()
+    {
+        given:
+
+        def data = new byte[64]
+        [5, 20, 40].each { data[it] = 0x7F }
+        def search = new ByteSearch(new ByteArraySource(data), BytePattern.fromHex("7F"), null, 16)
+
+        when:
+
+        search.start(pool)
+        search.await()
+
+        then:
+
+        search.getNextHit(-1) == new SearchHit(5, 1)
+        search.getNextHit(5) == new SearchHit(20, 1)
+        search.getPreviousHit(20) == new SearchHit(5, 1)
+        search.getNextHit(40) == null
+        search.getPreviousHit(5) == null
+    }
+
+    def "Searches stop on cancellation and at the hit limit" ()
+    {
+        given:
+
+        def source = new ByteArraySource(new byte[1000])
+        def cancelled = new ByteSearch(source, BytePattern.fromHex("00"), null, 10)
+        def limited = new ByteSearch(source, BytePattern.fromHex("00"), null, 10)
+        limited.setMaxHits(25)
+
+        when:
+
+        cancelled.cancel()
+        cancelled.start(pool)
+        limited.start(pool)
+
+        then:
+
+        cancelled.await().isEmpty()
+        cancelled.isCancelled()
+        limited.await().size() >= 25
+        limited.isLimitReached()
+    }
+
+    def "A new search or new data cancel the running search" ()
+    {
+        given:
+
+        def data = new byte[4096]
+        data[100] = 1
+        def view = new HexView(data)
+
+        when:
+
+        def first = view.search(BytePattern.fromHex("00"), null)
+        def second = view.search(BytePattern.fromHex("01"), null)
+
+        then:
+
+        first.isCancelled()
+        second.await()*.offset == [100L]
+        !second.isCancelled()
+
+        when:
+
+        view.setBytes(new byte[4])
+
+        then:
+
+        second.isCancelled()
+    }
+
+    def "A new scan or new data cancel the running signature scan" ()
+    {
+        given:
+
+        def signatures = [new Signature("mz", BytePattern.fromHex("4D 5A"))]
+        def view = new HexView(new byte[4096])
+
+        when:
+
+        def first = view.scanSignatures(signatures, null)
+        def second = view.scanSignatures(signatures, null)
+
+        then:
+
+        first.isCancelled()
+        !second.isCancelled()
+
+        when:
+
+        view.setBytes(new byte[4])
+
+        then:
+
+        second.isCancelled()
+    }
+
+    def "Signature scans find the hits of all single searches at once" ()
+    {
+        given:
+
+        def random = new Random(7)
+        def data = new byte[3000]
+        data.length.times { data[it] = (byte) random.nextInt(3) }
+        def source = new ByteArraySource(data)
+        def patterns = ["00 01", "01", "02 02 02", "00 01 02 00", "01 02 00", "00 01"].collect { BytePattern.fromHex(it) }
+        def signatures = patterns.withIndex().collect { pattern, i -> new Signature("sig" + i, pattern, "hex-sig" + i) }
+        def scanner = new SignatureScanner(source, signatures, null, 64)
+
+        when:
+
+        scanner.start(pool)
+        def hits = scanner.await()
+
+        then:
+
+        def expected = patterns.withIndex().collectMany { pattern, i ->
+            def search = new ByteSearch(source, pattern, null, 64)
+            search.start(pool)
+            search.await().collect { [it.offset, "sig" + i] }
+        }
+        hits.collect { [it.offset, it.signature.name] }.sort() == expected.sort()
+        scanner.getStyleRanges()*.cssClasses == hits.collect { "hex-" + it.signature.name }
+    }
+
+    def "Plain hits and signature hits are ordered consistently" ()
+    {
+        given:
+
+        def signature = new Signature("mz", BytePattern.fromHex("4D 5A"), "hex-mz")
+        def plain = new SearchHit(0, 2)
+        def first = new SignatureHit(0, 0, signature)
+        def second = new SignatureHit(0, 1, signature)
+
+        expect:
+
+        plain.compareTo(first) < 0
+        first.compareTo(plain) > 0
+        first.compareTo(second) < 0
+        second.compareTo(first) > 0
+        plain != first
+        first != plain
+        first == new SignatureHit(0, 0, signature)
+        [second, first, plain].sort() == [plain, first, second]
+    }
+
+    def "Regular expressions are found across segments" ()
+    {
+        given:
+
+        def text = "MZ http://a.example/x key=HKLM\\Run https://b.example/yy key=HKCU dGVzdA== MZ"
+        def bytes = text.getBytes(encoding.charsetName)
+        def search = new RegexSearch(new ByteArraySource(bytes), Pattern.compile(regex), encoding, null, 16, 32)
+        def expected = []
+        def matcher = Pattern.compile(regex).matcher(text)
+        while (matcher.find())
+            expected << new SearchHit(matcher.start() * encoding.bytesPerCharacter, (matcher.end() - matcher.start()) * encoding.bytesPerCharacter)
+
+        when:
+
+        search.start(pool)
+        def hits = search.await()
+
+        then:
+
+        hits == expected
+        hits.size() == count
+        search.getProgress() == 1.0
+
+        where:
+
+        regex                   | encoding                | count
+        'https?://\\S+'         | DumpEncoding.ISO_8859_1 | 2
+        'https?://\\S+'         | DumpEncoding.UTF_16LE   | 2
+        '(?<=key=)\\w+'         | DumpEncoding.ISO_8859_1 | 2
+        '^MZ|MZ$'               | DumpEncoding.UTF_16LE   | 2
+        '[A-Za-z0-9+/]{4,}=='   | DumpEncoding.ISO_8859_1 | 1
+    }
+
+    def "Longer matches are reported truncated to the maximum match length" ()
+    {
+        given:
+
+        def text = "x" * 100 + " " + "y" * 10
+        def bytes = text.getBytes("ISO-8859-1")
+        def search = new RegexSearch(new ByteArraySource(bytes), Pattern.compile(regex), DumpEncoding.ISO_8859_1, null, segmentLength, 32)
+
+        when:
+
+        search.start(pool)
+        def hits = search.await()
+
+        then:
+
+        hits == expected
+
+        where:
+
+        regex   | segmentLength | expected
+        '\\S+'  | 1024          | [new SearchHit(0, 32), new SearchHit(101, 10)]
+        '\\S+'  | 16            | [new SearchHit(0, 32), new SearchHit(48, 32), new SearchHit(96, 4), new SearchHit(101, 10)]
+        'x+y?'  | 1024          | [new SearchHit(0, 32)]
+        'x{40}' | 1024          | [new SearchHit(0, 32), new SearchHit(40, 32)]
+    }
+}